@@ -0,0 +1,212 @@
+package com.mystudies.springboot2essentials.audit;
+
+import com.mystudies.springboot2essentials.event.AnimeChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends every committed {@link AnimeChangedEvent} to the {@code anime_audit} table, one row per anime, without
+ * making the request wait for it: the event is put into a bounded buffer of {@code essentials.audit.capacity}
+ * events and a single worker thread writes them in JDBC batches of up to {@code batch-size} rows.
+ * <p>
+ * When the buffer is full, {@link OverflowPolicy} decides between losing the event, the default, and holding the
+ * request back.
+ * A failing write is retried until it succeeds, so while the database is down the buffer fills up and the policy
+ * applies. On shutdown the buffer is written out after the web server stopped taking requests.
+ * <p>
+ * Publishes the events buffered, written and dropped, and the lag from commit to written.
+ */
+@Log4j2
+@Component
+@Profile("!reactive")
+public class AnimeAuditLog implements SmartLifecycle {
+    private static final String INSERT_SQL =
+            "insert into anime_audit (anime_id, type, username, occurred_at) values (?, ?, ?, ?)";
+    private static final String SYSTEM = "system";
+    private static final long RETRY_BACKOFF_MILLIS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<Entry> buffer;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Counter written;
+    private final Counter dropped;
+    private final Timer lag;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public AnimeAuditLog(JdbcTemplate jdbcTemplate,
+                         MeterRegistry meterRegistry,
+                         @Value("${essentials.audit.capacity:10000}") int capacity,
+                         @Value("${essentials.audit.overflow-policy:drop}") OverflowPolicy overflowPolicy,
+                         @Value("${essentials.audit.block-timeout:1s}") Duration blockTimeout,
+                         @Value("${essentials.audit.batch-size:500}") int batchSize,
+                         @Value("${essentials.audit.flush-interval:1s}") Duration flushInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+
+        Gauge.builder("anime.audit.buffer.size", buffer, BlockingQueue::size)
+                .description("Changes waiting to be written to the audit log")
+                .register(meterRegistry);
+        this.written = events(meterRegistry, "written");
+        this.dropped = events(meterRegistry, "dropped");
+        this.lag = Timer.builder("anime.audit.lag")
+                .description("Time from a change being committed to being written to the audit log")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs on the thread that committed the change, so the user is still known.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnimeChanged(AnimeChangedEvent event) throws InterruptedException {
+        Entry entry = new Entry(event, username(), Instant.now(), System.nanoTime());
+        boolean buffered = switch (overflowPolicy) {
+            case BLOCK -> buffer.offer(entry, blockTimeoutNanos, TimeUnit.NANOSECONDS);
+            case DROP -> buffer.offer(entry);
+        };
+        if (!buffered) {
+            dropped.increment();
+            log.warn("Audit buffer is full, dropped {} of animes {}", event.getType(), event.getAnimeIds());
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::drain, "anime-audit");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            worker.join(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) + 10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stopped after the web server, whose graceful shutdown phase is higher, so no change is left behind.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drain() {
+        List<Entry> batch = new ArrayList<>();
+        while (running || !buffer.isEmpty()) {
+            try {
+                Entry first = buffer.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, Math.max(0, batchSize - 1));
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Entry> batch) throws InterruptedException {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (Entry entry : batch) {
+            for (Long animeId : entry.event().getAnimeIds()) {
+                rows.add(new Object[]{animeId, entry.event().getType().name(), entry.username(),
+                        Timestamp.from(entry.occurredAt())});
+            }
+        }
+
+        while (true) {
+            try {
+                for (int from = 0; from < rows.size(); from += batchSize) {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, rows.subList(from, Math.min(rows.size(), from + batchSize)));
+                }
+                break;
+            } catch (DataAccessException e) {
+                if (!running) {
+                    dropped.increment(batch.size());
+                    log.error("Could not write {} changes to the audit log while shutting down", batch.size(), e);
+                    return;
+                }
+                log.warn("Could not write {} changes to the audit log, retrying", batch.size(), e);
+                Thread.sleep(RETRY_BACKOFF_MILLIS);
+            }
+        }
+
+        long now = System.nanoTime();
+        for (Entry entry : batch) {
+            lag.record(now - entry.bufferedNanos(), TimeUnit.NANOSECONDS);
+        }
+        written.increment(batch.size());
+    }
+
+    private static String username() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? SYSTEM : authentication.getName();
+    }
+
+    private static Counter events(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("anime.audit.events")
+                .description("Changes handed to the audit log")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    public enum OverflowPolicy {
+        /**
+         * Holds the request back for up to {@code block-timeout} until there is room, then drops the change. A
+         * database outage then slows every write request down, so it is opt-in.
+         */
+        BLOCK,
+        /**
+         * Drops the change right away, counted in {@code anime.audit.events{outcome=dropped}}.
+         */
+        DROP
+    }
+
+    private record Entry(AnimeChangedEvent event, String username, Instant occurredAt, long bufferedNanos) {
+    }
+}
@@ -0,0 +1,150 @@
+package com.mystudies.springboot2essentials.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.mystudies.springboot2essentials.domain.Anime;
+import com.mystudies.springboot2essentials.event.AnimeChangedEvent;
+import com.mystudies.springboot2essentials.jdbc.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache for animes by id. Misses are cached too, as {@link Optional#empty()} with a
+ * shorter time to live, so probes for unknown ids do not reach the database. Entries are evicted once
+ * an {@link AnimeChangedEvent} is committed, and reloaded from the primary for a while after, see
+ * {@link ReplicaRoutingDataSource#onPrimary}: a replica lagging behind would hand back the replaced version.
+ * <p>
+ * Every caller gets its own copy of the cached anime, so changing it neither alters the cache nor what other
+ * requests are answered with.
+ */
+@Log4j2
+@Component
+public class AnimeCache {
+    public static final String NAME = "anime.byId";
+
+    private final AsyncCache<Long, Optional<Anime>> cache;
+    private final Cache<Long, Boolean> recentlyChanged;
+
+    public AnimeCache(MeterRegistry meterRegistry,
+                      @Value("${essentials.cache.anime.maximum-size:10000}") long maximumSize,
+                      @Value("${essentials.cache.anime.time-to-live:10m}") Duration timeToLive,
+                      @Value("${essentials.cache.anime.negative-time-to-live:30s}") Duration negativeTimeToLive,
+                      @Value("${essentials.datasource.replicas.sticky-for:2s}") Duration replicaLag) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new AnimeExpiry(timeToLive.toNanos(), negativeTimeToLive.toNanos()))
+                .recordStats()
+                .buildAsync();
+        this.recentlyChanged = Caffeine.newBuilder()
+                .expireAfterWrite(replicaLag)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    /**
+     * Concurrent misses for the same id wait for a single load. The cache only registers a pending future;
+     * the load itself runs after, outside the map's bin lock, so a virtual thread blocked on JDBC is not
+     * pinned to its carrier thread and other ids in the same bin are not blocked.
+     */
+    public Optional<Anime> get(long id, Function<Long, Optional<Anime>> loader) {
+        CompletableFuture<Optional<Anime>> loading = new CompletableFuture<>();
+        CompletableFuture<Optional<Anime>> anime = cache.get(id, (key, executor) -> loading);
+        if (anime == loading) {
+            try {
+                loading.complete(recentlyChanged.getIfPresent(id) == null
+                        ? loader.apply(id)
+                        : ReplicaRoutingDataSource.onPrimary(() -> loader.apply(id)));
+            } catch (RuntimeException e) {
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return anime.join().map(AnimeCache::copy);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Bulk counterpart of {@link #get}: the ids neither cached nor being loaded are handed to the loader in one
+     * call, again outside the map's bin locks, and the ones it does not return are cached as misses.
+     */
+    public Map<Long, Optional<Anime>> getAll(Collection<Long> ids, Function<Iterable<Long>, Map<Long, Anime>> loader) {
+        Map<Long, Optional<Anime>> animes;
+        try {
+            animes = cache.getAll(ids, (missing, executor) -> {
+                @SuppressWarnings("unchecked")
+                Iterable<Long> missingIds = (Iterable<Long>) missing;
+                Map<Long, Anime> loaded = recentlyChanged.getAllPresent(missingIds).isEmpty()
+                        ? loader.apply(missingIds)
+                        : ReplicaRoutingDataSource.onPrimary(() -> loader.apply(missingIds));
+                Map<Long, Optional<Anime>> found = new HashMap<>();
+                missingIds.forEach(id -> found.put(id, Optional.ofNullable(loaded.get(id))));
+                return CompletableFuture.completedFuture(found);
+            }).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        Map<Long, Optional<Anime>> copies = new HashMap<>();
+        animes.forEach((id, anime) -> copies.put(id, anime.map(AnimeCache::copy)));
+        return copies;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnimeChanged(AnimeChangedEvent event) {
+        log.debug("Evicting animes '{}' after {}", event.getAnimeIds(), event.getType());
+        event.getAnimeIds().forEach(id -> recentlyChanged.put(id, Boolean.TRUE));
+        cache.synchronous().invalidateAll(event.getAnimeIds());
+    }
+
+    private static Anime copy(Anime anime) {
+        return anime.toBuilder().build();
+    }
+
+    private static class AnimeExpiry implements Expiry<Long, Optional<Anime>> {
+        private final long timeToLiveNanos;
+        private final long negativeTimeToLiveNanos;
+
+        AnimeExpiry(long timeToLiveNanos, long negativeTimeToLiveNanos) {
+            this.timeToLiveNanos = timeToLiveNanos;
+            this.negativeTimeToLiveNanos = negativeTimeToLiveNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(Long id, Optional<Anime> anime, long currentTime) {
+            return anime.isPresent() ? timeToLiveNanos : negativeTimeToLiveNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long id, Optional<Anime> anime, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, anime, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long id, Optional<Anime> anime, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
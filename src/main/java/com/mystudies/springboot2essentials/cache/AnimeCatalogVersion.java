@@ -0,0 +1,58 @@
+package com.mystudies.springboot2essentials.cache;
+
+import com.mystudies.springboot2essentials.event.AnimeChangedEvent;
+import com.mystudies.springboot2essentials.jdbc.ReplicaRoutingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Counts committed {@link AnimeChangedEvent}s, so list responses can be tagged without reading the table.
+ * The counter starts from the startup time, so tags handed out before a restart are never matched again.
+ * <p>
+ * Only changes made through this instance are seen: with several instances sharing a database, list tags
+ * are per instance and a client moving between them just gets a full response.
+ */
+@Component
+public class AnimeCatalogVersion {
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final AtomicLong version = new AtomicLong();
+    private final long replicaLagNanos;
+    private final AtomicLong changedAt = new AtomicLong(System.nanoTime());
+
+    public AnimeCatalogVersion(@Value("${essentials.datasource.replicas.sticky-for:2s}") Duration replicaLag) {
+        this.replicaLagNanos = replicaLag.toNanos();
+        this.changedAt.addAndGet(-replicaLagNanos);
+    }
+
+    /**
+     * Read before loading a list, so a change committed meanwhile can only make the tag older than the body,
+     * never newer.
+     */
+    public String getETag() {
+        return "\"catalog-" + epoch + "-" + version.get() + "\"";
+    }
+
+    /**
+     * Loads a list tagged with {@link #getETag()}. Shortly after a change it is read from the primary, see
+     * {@link ReplicaRoutingDataSource#onPrimary}: a replica lagging behind would hand back a list older than the
+     * tag, which clients and {@link AnimeResponseCache} would then keep until the next change.
+     */
+    public <T> T read(Supplier<T> list) {
+        return System.nanoTime() - changedAt.get() < replicaLagNanos ? ReplicaRoutingDataSource.onPrimary(list)
+                : list.get();
+    }
+
+    /**
+     * The change time is set first, so a list loaded under the new tag is already read from the primary.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnimeChanged(AnimeChangedEvent event) {
+        changedAt.set(System.nanoTime());
+        version.incrementAndGet();
+    }
+}
@@ -0,0 +1,125 @@
+package com.mystudies.springboot2essentials.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mystudies.springboot2essentials.event.AnimeChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Rendered bodies of the hot anime lists, so a hit is a byte copy instead of a query plus Jackson. Bounded
+ * by the bytes it holds, not by the number of entries, and emptied once an {@link AnimeChangedEvent} is
+ * committed. Keys should carry the {@link AnimeCatalogVersion} tag as well, so a body rendered before a
+ * change and stored after the eviction is never found again.
+ */
+@Log4j2
+@Component
+public class AnimeResponseCache {
+    public static final String NAME = "anime.responses";
+
+    /**
+     * Bodies above the maximum weight divided by this are not cached, so one large list cannot push out all the
+     * others.
+     */
+    private static final int MIN_ENTRIES = 8;
+
+    private final Cache<String, CachedResponse> cache;
+    private final boolean gzip;
+    private final int maxEntrySize;
+
+    @Autowired
+    public AnimeResponseCache(MeterRegistry meterRegistry,
+                              @Value("${essentials.cache.response.maximum-weight:16MB}") DataSize maximumWeight,
+                              @Value("${essentials.cache.response.gzip:true}") boolean gzip) {
+        this(meterRegistry, maximumWeight, gzip, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param executor runs evictions, which follow a put asynchronously on Caffeine's default executor
+     */
+    AnimeResponseCache(MeterRegistry meterRegistry, DataSize maximumWeight, boolean gzip, Executor executor) {
+        this.cache = Caffeine.newBuilder()
+                .executor(executor)
+                .maximumWeight(maximumWeight.toBytes())
+                .weigher((String key, CachedResponse response) -> key.length() + response.weight())
+                .recordStats()
+                .build();
+        this.gzip = gzip;
+        this.maxEntrySize = (int) Math.min(Integer.MAX_VALUE, maximumWeight.toBytes() / MIN_ENTRIES);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+        Gauge.builder("cache.weighted.size", cache, AnimeResponseCache::weightedSize)
+                .tag("cache", NAME)
+                .baseUnit(BaseUnits.BYTES)
+                .description("Bytes held by the cache")
+                .register(meterRegistry);
+    }
+
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    /**
+     * @return the largest body worth rendering into the cache, bytes past it are not kept
+     */
+    public int getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Also keeps a gzipped copy when enabled, so clients accepting gzip do not cost a compression per hit.
+     */
+    public void put(String key, byte[] body, String contentType, String eTag, String cacheControl) {
+        cache.put(key, new CachedResponse(body, gzip ? gzip(body) : null, contentType, eTag, cacheControl));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnimeChanged(AnimeChangedEvent event) {
+        log.debug("Evicting rendered anime lists after {}", event.getType());
+        cache.invalidateAll();
+    }
+
+    private static long weightedSize(Cache<String, CachedResponse> cache) {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return gzipped.toByteArray();
+    }
+
+    /**
+     * @param gzippedBody null when gzip is disabled
+     */
+    public record CachedResponse(byte[] body, byte[] gzippedBody, String contentType, String eTag,
+                                 String cacheControl) {
+        int weight() {
+            return body.length + (gzippedBody == null ? 0 : gzippedBody.length);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.mystudies.springboot2essentials.cache;
+
+import com.mystudies.springboot2essentials.domain.Anime;
+import com.mystudies.springboot2essentials.event.AnimeChangedEvent;
+import com.mystudies.springboot2essentials.repository.AnimeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.hibernate.Cache;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * AnimeBulkService writes through JDBC, past Hibernate, so Hibernate cannot keep its second-level and query
+ * cache current on its own. Evicts the changed animes and the cached name lookups once a change is committed.
+ * Writes that did go through Hibernate were already handled by it, evicting them again only costs a read.
+ */
+@Log4j2
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class HibernateCacheEviction {
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Runs before {@link AnimeCache} evicts, so an anime it reloads meanwhile is not read back from the stale
+     * second-level cache.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnimeChanged(AnimeChangedEvent event) {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        if (event.getType() != AnimeChangedEvent.Type.CREATED) {
+            log.debug("Evicting animes '{}' from the second-level cache after {}", event.getAnimeIds(),
+                    event.getType());
+            event.getAnimeIds().forEach(id -> cache.evictEntityData(Anime.class, id));
+        }
+        cache.evictQueryRegion(AnimeRepository.BY_NAME_CACHE_REGION);
+    }
+}
@@ -0,0 +1,22 @@
+package com.mystudies.springboot2essentials.cache;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code Cache-Control} values sent with the anime reads that carry an ETag, see
+ * {@code essentials.http.cache-control} in application.yml.
+ */
+@Getter
+@Component
+public class HttpCacheControl {
+    private final String anime;
+    private final String animeList;
+
+    public HttpCacheControl(@Value("${essentials.http.cache-control.anime:private, no-cache}") String anime,
+                            @Value("${essentials.http.cache-control.anime-list:private, no-cache}") String animeList) {
+        this.anime = anime;
+        this.animeList = animeList;
+    }
+}
@@ -0,0 +1,95 @@
+package com.mystudies.springboot2essentials.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls with the same key into one: the first caller runs the lookup, the ones arriving
+ * while it runs wait for it and get the same result, or the same exception. Nothing is kept once the lookup
+ * returns, so unlike a cache it never serves a result older than the call.
+ * <p>
+ * A waiting caller gives up on a lookup that takes longer than the timeout and runs it on its own, so one
+ * stuck query cannot hold every caller of the key.
+ * <p>
+ * Publishes how many calls ran the lookup, how many were collapsed into another one and how many timed out.
+ */
+@Log4j2
+public class SingleFlight<K, V> {
+    private final String name;
+    private final long timeoutNanos;
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter collapsed;
+    private final Counter timedOut;
+
+    public SingleFlight(String name, Duration timeout, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.timeoutNanos = timeout.toNanos();
+        this.executed = calls(meterRegistry, name, "executed");
+        this.collapsed = calls(meterRegistry, name, "collapsed");
+        this.timedOut = calls(meterRegistry, name, "timeout");
+        Gauge.builder("single.flight.in.flight", inFlight, Map::size)
+                .description("Lookups running with callers possibly waiting for them")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> lookup) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, call);
+        if (running == null) {
+            return run(key, call, lookup);
+        }
+
+        collapsed.increment();
+        try {
+            return running.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            log.warn("Lookup '{}' of {} is taking longer than {} ms, running it again", key, name,
+                    TimeUnit.NANOSECONDS.toMillis(timeoutNanos));
+            return lookup.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + name + " lookup '" + key + "'", e);
+        }
+    }
+
+    private V run(K key, CompletableFuture<V> call, Supplier<V> lookup) {
+        executed.increment();
+        try {
+            V value = lookup.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private static Counter calls(MeterRegistry meterRegistry, String name, String outcome) {
+        return Counter.builder("single.flight.calls")
+                .description("Calls of a lookup, collapsed when another identical one was already running")
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,58 @@
+package com.mystudies.springboot2essentials.config;
+
+import com.mystudies.springboot2essentials.jdbc.StatementMetricsListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.util.function.SingletonSupplier;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Wraps every {@link DataSource} in a proxy reporting each statement to {@link StatementMetricsListener}, in place
+ * of logging all SQL. The proxy unwraps to the Hikari pool, so its own metrics, connection acquire time included,
+ * are still published as {@code hikaricp.*}.
+ */
+@Configuration
+@Profile("!reactive")
+public class DataSourceProxyConfig {
+
+    /**
+     * The listener is looked up by the first statement: the meter registry it needs binds the pool metrics, and
+     * with them the data source, while it is created.
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceProxyBeanPostProcessor(
+            ObjectProvider<StatementMetricsListener> statementMetricsListener) {
+        Supplier<StatementMetricsListener> listener = SingletonSupplier.of(statementMetricsListener::getObject);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .beforeQuery((execInfo, queryInfoList) -> listener.get().beforeQuery(execInfo,
+                                    queryInfoList))
+                            .afterQuery((execInfo, queryInfoList) -> listener.get().afterQuery(execInfo,
+                                    queryInfoList))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public StatementMetricsListener statementMetricsListener(
+            MeterRegistry meterRegistry,
+            @Value("${essentials.jdbc.slow-statement-threshold:200ms}") Duration slowStatementThreshold) {
+        return new StatementMetricsListener(meterRegistry, slowStatementThreshold);
+    }
+}
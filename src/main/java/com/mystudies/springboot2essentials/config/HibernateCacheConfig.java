@@ -0,0 +1,84 @@
+package com.mystudies.springboot2essentials.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.mystudies.springboot2essentials.domain.Anime;
+import com.mystudies.springboot2essentials.domain.UserInfo;
+import com.mystudies.springboot2essentials.repository.AnimeRepository;
+import com.mystudies.springboot2essentials.repository.UserInfoDetailsRepository;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Regions of Hibernate's second-level and query cache, held by Caffeine through JCache. Each region is
+ * bounded by {@code essentials.cache.hibernate.regions.<region>.maximum-size} and expires entries after
+ * {@code time-to-live}; Hibernate itself is switched to this cache in application.yml.
+ * <p>
+ * The update timestamps region tells Hibernate which cached query results are outdated, so it is never
+ * bounded nor expired: losing an entry there could serve stale results.
+ */
+@Configuration
+@Profile("!reactive")
+public class HibernateCacheConfig {
+    private static final String PROPERTY_PREFIX = "essentials.cache.hibernate.regions.";
+
+    /**
+     * Each application context gets a cache manager of its own, as the caching provider shares them by URI.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(Environment environment) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate:" + UUID.randomUUID()), getClass().getClassLoader());
+
+        createRegion(cacheManager, environment, Anime.CACHE_REGION, 10_000, Duration.ofMinutes(10));
+        createRegion(cacheManager, environment, UserInfo.CACHE_REGION, 1_000, Duration.ofMinutes(5));
+        createRegion(cacheManager, environment, AnimeRepository.BY_NAME_CACHE_REGION, 1_000, Duration.ofMinutes(1));
+        createRegion(cacheManager, environment, UserInfoDetailsRepository.BY_USERNAME_CACHE_REGION, 1_000,
+                Duration.ofMinutes(5));
+        createRegion(cacheManager, environment, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, 1_000,
+                Duration.ofMinutes(1));
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                configuration(OptionalLong.empty(), OptionalLong.empty()));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static void createRegion(CacheManager cacheManager, Environment environment, String region,
+                                     long defaultMaximumSize, Duration defaultTimeToLive) {
+        long maximumSize = environment.getProperty(PROPERTY_PREFIX + region + ".maximum-size", Long.class,
+                defaultMaximumSize);
+        Duration timeToLive = environment.getProperty(PROPERTY_PREFIX + region + ".time-to-live", Duration.class,
+                defaultTimeToLive);
+        cacheManager.createCache(region,
+                configuration(OptionalLong.of(maximumSize), OptionalLong.of(timeToLive.toNanos())));
+    }
+
+    /**
+     * Entries are stored by reference: Hibernate caches the disassembled state of entities, not the entities,
+     * so copying them on every read would only cost time.
+     */
+    private static CaffeineConfiguration<Object, Object> configuration(OptionalLong maximumSize,
+                                                                       OptionalLong expireAfterWriteNanos) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        configuration.setMaximumSize(maximumSize);
+        configuration.setExpireAfterWrite(expireAfterWriteNanos);
+        return configuration;
+    }
+}
@@ -0,0 +1,59 @@
+package com.mystudies.springboot2essentials.config;
+
+import com.mystudies.springboot2essentials.jdbc.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+/**
+ * Sizes the Hikari pool from the cores of the database server, with HikariCP's formula
+ * {@code essentials.datasource.pool-size.database-cores * connections-per-core + spindles}: more connections
+ * than the database can work on at once only wait inside it, holding locks and memory.
+ * <p>
+ * The database is shared by every instance of the application, so that budget is split between
+ * {@code essentials.datasource.pool-size.instances} of them. Replica pools get the same size, as replicas
+ * usually run on servers like the primary's.
+ */
+@Log4j2
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty("essentials.datasource.pool-size.database-cores")
+public class HikariPoolSizeConfig {
+
+    /**
+     * Runs before the pool is wrapped by {@link DataSourceProxyConfig} and started by its first connection, after
+     * {@code spring.datasource.hikari.*} is bound.
+     */
+    @Bean
+    public static BeanPostProcessor hikariPoolSizeBeanPostProcessor(Environment environment) {
+        int databaseCores = environment.getRequiredProperty("essentials.datasource.pool-size.database-cores",
+                Integer.class);
+        int connectionsPerCore = environment.getProperty("essentials.datasource.pool-size.connections-per-core",
+                Integer.class, 2);
+        int spindles = environment.getProperty("essentials.datasource.pool-size.spindles", Integer.class, 1);
+        int instances = environment.getProperty("essentials.datasource.pool-size.instances", Integer.class, 1);
+        int maximumPoolSize = Math.max(1, (databaseCores * connectionsPerCore + spindles) / Math.max(1, instances));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikariDataSource) {
+                    size(hikariDataSource, beanName);
+                } else if (bean instanceof ReplicaRoutingDataSource replicaRoutingDataSource) {
+                    replicaRoutingDataSource.getPools().forEach(pool -> size(pool, pool.getPoolName()));
+                }
+                return bean;
+            }
+
+            private void size(HikariDataSource hikariDataSource, String name) {
+                log.info("Sizing pool '{}' to {} connections for {} database cores shared by {} instances", name,
+                        maximumPoolSize, databaseCores, instances);
+                hikariDataSource.setMaximumPoolSize(maximumPoolSize);
+            }
+        };
+    }
+}
@@ -0,0 +1,112 @@
+package com.mystudies.springboot2essentials.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.apache.logging.log4j.LogManager;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Logs, once the application is ready, every setting known to hurt throughput, so a deployment running without
+ * the prod profile, or overriding part of it, shows up in its first lines of log. It only reports: development
+ * legitimately runs with most of these.
+ */
+@Log4j2
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class PerformanceSelfCheck {
+    private static final Set<String> SCHEMA_DIFFING_DDL_AUTO = Set.of("update", "create", "create-drop");
+    private static final Map<String, String> CONNECTOR_J_PROPERTIES = Map.of(
+            "useServerPrepStmts", "every statement is parsed by the server on every execution",
+            "cachePrepStmts", "prepared statements are prepared again on every execution",
+            "rewriteBatchedStatements", "JDBC batches of inserts are sent one row at a time");
+
+    private final Environment environment;
+    private final DataSource dataSource;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        List<String> findings = findings();
+        findings.forEach(finding -> log.warn("Performance self-check: {}", finding));
+        if (findings.isEmpty()) {
+            log.info("Performance self-check found no setting known to hurt throughput");
+        }
+    }
+
+    List<String> findings() {
+        List<String> findings = new ArrayList<>();
+
+        String ddlAuto = environment.getProperty("spring.jpa.hibernate.ddl-auto", "");
+        if (SCHEMA_DIFFING_DDL_AUTO.contains(ddlAuto)) {
+            findings.add("spring.jpa.hibernate.ddl-auto is " + ddlAuto + ": the schema is compared with the " +
+                    "entities on every start, run the Flyway migrations of the prod profile instead");
+        }
+        if (environment.getProperty("spring.jpa.show-sql", Boolean.class, false)
+                || LogManager.getLogger("org.hibernate.SQL").isDebugEnabled()) {
+            findings.add("every SQL statement is logged, use the jdbc.statements metrics and the slow statement " +
+                    "log instead");
+        }
+        if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+            findings.add("spring.jpa.open-in-view holds a JDBC connection for the whole request");
+        }
+        int batchSize = environment.getProperty("spring.jpa.properties.hibernate.jdbc.batch_size", Integer.class, 0);
+        if (batchSize < 2) {
+            findings.add("hibernate.jdbc.batch_size is not set: updates and deletes are sent one statement at a " +
+                    "time");
+        }
+
+        HikariDataSource hikariDataSource = unwrap(dataSource);
+        if (hikariDataSource != null) {
+            checkPool(hikariDataSource, findings);
+        }
+        return findings;
+    }
+
+    private void checkPool(HikariDataSource hikariDataSource, List<String> findings) {
+        int minimumIdle = hikariDataSource.getMinimumIdle();
+        int maximumPoolSize = hikariDataSource.getMaximumPoolSize();
+        if (minimumIdle >= 0 && minimumIdle < maximumPoolSize) {
+            findings.add("the pool keeps " + minimumIdle + " of " + maximumPoolSize + " connections idle: it " +
+                    "opens connections under load, leave spring.datasource.hikari.minimum-idle unset");
+        }
+
+        String jdbcUrl = hikariDataSource.getJdbcUrl();
+        if (jdbcUrl == null || !jdbcUrl.startsWith("jdbc:mysql:")) {
+            return;
+        }
+        Map<String, String> urlProperties = UriComponentsBuilder.fromUriString(jdbcUrl.substring("jdbc:".length()))
+                .build().getQueryParams().toSingleValueMap();
+        CONNECTOR_J_PROPERTIES.forEach((property, consequence) -> {
+            String value = hikariDataSource.getDataSourceProperties()
+                    .getProperty(property, urlProperties.get(property));
+            if (!Boolean.parseBoolean(value)) {
+                findings.add("Connector/J " + property + " is off: " + consequence);
+            }
+        });
+        if (Boolean.parseBoolean(urlProperties.get("useCursorFetch"))
+                && environment.containsProperty("spring.jpa.properties.hibernate.jdbc.fetch_size")) {
+            findings.add("hibernate.jdbc.fetch_size is set with useCursorFetch: every query opens a server cursor");
+        }
+    }
+
+    private static HikariDataSource unwrap(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
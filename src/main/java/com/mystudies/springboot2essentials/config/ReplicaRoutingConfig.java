@@ -0,0 +1,88 @@
+package com.mystudies.springboot2essentials.config;
+
+import com.mystudies.springboot2essentials.jdbc.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Replaces the single pool of {@code spring.datasource} by a {@link ReplicaRoutingDataSource} once
+ * {@code essentials.datasource.replicas.urls} lists a replica. The primary keeps {@code spring.datasource.url};
+ * each replica gets a pool of its own, with the credentials and {@code spring.datasource.hikari} settings of the
+ * primary.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty("essentials.datasource.replicas.urls[0]")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource dataSource(
+            DataSourceProperties dataSourceProperties,
+            Environment environment,
+            @Value("${essentials.datasource.replicas.sticky-for:2s}") Duration stickyFor) {
+        Binder binder = Binder.get(environment);
+        List<String> replicaUrls = binder.bind("essentials.datasource.replicas.urls", Bindable.listOf(String.class))
+                .get();
+        HikariDataSource primary = pool(dataSourceProperties, binder, dataSourceProperties.determineUrl(), "primary");
+        List<HikariDataSource> replicas = IntStream.range(0, replicaUrls.size())
+                .mapToObj(i -> pool(dataSourceProperties, binder, replicaUrls.get(i), "replica-" + i))
+                .toList();
+        return new ReplicaRoutingDataSource(primary, replicas, stickyFor, ReplicaRoutingConfig::authenticatedUser);
+    }
+
+    /**
+     * Writers are told apart by the user they sign in as; background writers, such as the audit log, are
+     * nobody and read from the replicas.
+     */
+    private static String authenticatedUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null || !authentication.isAuthenticated() ? null : authentication.getName();
+    }
+
+    /**
+     * Hibernate otherwise holds a connection until its session closes, and with open-in-view a session lasts the
+     * whole request: every transaction after the first would run where the first one did.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer connectionPerTransactionCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public MeterBinder replicaRoutingMeterBinder(DataSource dataSource) throws SQLException {
+        ReplicaRoutingDataSource replicaRoutingDataSource = dataSource.unwrap(ReplicaRoutingDataSource.class);
+        return replicaRoutingDataSource::bindTo;
+    }
+
+    private static HikariDataSource pool(DataSourceProperties dataSourceProperties, Binder binder, String url,
+                                         String name) {
+        HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        return pool;
+    }
+}
@@ -1,23 +1,32 @@
 package com.mystudies.springboot2essentials.config;
 
+import com.mystudies.springboot2essentials.security.CachingAuthenticationProvider;
+import com.mystudies.springboot2essentials.security.RoleAuthorizationManager;
+import com.mystudies.springboot2essentials.security.RouteGroup;
+import com.mystudies.springboot2essentials.security.SecurityFilterChainTimer;
 import com.mystudies.springboot2essentials.service.UserInfoDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.config.Customizer;
-import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+import org.springframework.security.web.session.DisableEncodeUrlFilter;
 
 
 //@Configuration
 @Log4j2
 @EnableWebSecurity
+@Profile("!reactive")
 @EnableGlobalMethodSecurity(prePostEnabled = true, securedEnabled = true)
 @RequiredArgsConstructor
 public class SecurityConfig {
@@ -37,7 +46,9 @@ public class SecurityConfig {
      * @throws Exception
      */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, AuthenticationManager authenticationManager,
+                                           MeterRegistry meterRegistry) throws Exception {
+        SecurityFilterChainTimer securityFilterChainTimer = new SecurityFilterChainTimer(meterRegistry);
 //        http.csrf(csrf -> csrf.disable())
 //                .authorizeHttpRequests((authz) -> authz
 //                .anyRequest().authenticated()
@@ -46,9 +57,9 @@ public class SecurityConfig {
 //                  http.csrf().csrfTokenRepository(CookieCsrfTokenRepository.withHttpOnlyFalse())
 ////                 .and()
                 .authorizeHttpRequests()
-                .antMatchers("/users/admin/**").hasRole("ADMIN")
-                .antMatchers("/animes/admin/**").hasRole("ADMIN")
-                .antMatchers("/animes/**").hasRole("USER")
+                .antMatchers(RouteGroup.USERS_ADMIN.getPattern()).access(RoleAuthorizationManager.hasRole("ADMIN"))
+                .antMatchers(RouteGroup.ANIMES_ADMIN.getPattern()).access(RoleAuthorizationManager.hasRole("ADMIN"))
+                .antMatchers(RouteGroup.ANIMES.getPattern()).access(RoleAuthorizationManager.hasRole("USER"))
                 .antMatchers("/actuator/**").permitAll()
                 .anyRequest()
                 .authenticated()
@@ -56,7 +67,10 @@ public class SecurityConfig {
                 .formLogin()
                 .and()
 //                .httpBasic();
-                .httpBasic(Customizer.withDefaults());
+                .httpBasic(Customizer.withDefaults())
+                .authenticationManager(authenticationManager)
+                .addFilterBefore(securityFilterChainTimer.start(), DisableEncodeUrlFilter.class)
+                .addFilterAfter(securityFilterChainTimer.stop(), AuthorizationFilter.class);
         return http.build();
     }
 
@@ -65,19 +79,17 @@ public class SecurityConfig {
         return new BCryptPasswordEncoder();
     }
 
+    /**
+     * Credentials are checked by {@link CachingAuthenticationProvider}, which only runs the user lookup and
+     * BCrypt on a cache miss.
+     */
     @Bean
-    public AuthenticationManager authenticationManager(HttpSecurity http,
-                                                       PasswordEncoder passwordEncoder,
-                                                       UserInfoDetailsService userInfoDetailsService)
-                                                        throws Exception {
+    public AuthenticationManager authenticationManager(PasswordEncoder passwordEncoder,
+                                                       CachingAuthenticationProvider cachingAuthenticationProvider) {
 
         log.info("Password encoded '{}'", passwordEncoder.encode("springessentials2"));
         log.info("Password 2 encoded '{}'", passwordEncoder.encode("test2"));
-        return http.getSharedObject(AuthenticationManagerBuilder.class)
-                .userDetailsService(userInfoDetailsService)
-                .passwordEncoder(passwordEncoder)
-                .and()
-                .build();
+        return new ProviderManager(cachingAuthenticationProvider);
     }
 
 //    In Memory User:
@@ -0,0 +1,40 @@
+package com.mystudies.springboot2essentials.config;
+
+import com.mystudies.springboot2essentials.cache.SingleFlight;
+import com.mystudies.springboot2essentials.domain.Anime;
+import com.mystudies.springboot2essentials.domain.UserInfo;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Lookups whose concurrent identical calls share one query, see {@link SingleFlight}. Animes by id need none:
+ * {@link com.mystudies.springboot2essentials.cache.AnimeCache} already makes concurrent misses wait for a
+ * single load.
+ */
+@Configuration
+@Profile("!reactive")
+public class SingleFlightConfig {
+
+    @Bean
+    public SingleFlight<String, List<Anime>> animeByNameSingleFlight(
+            MeterRegistry meterRegistry,
+            @Value("${essentials.single-flight.anime-by-name.timeout:5s}") Duration timeout) {
+        return new SingleFlight<>("anime.byName", timeout, meterRegistry);
+    }
+
+    /**
+     * A login storm, e.g. every client reconnecting after a deploy, runs one user query per username.
+     */
+    @Bean
+    public SingleFlight<String, UserInfo> userByUsernameSingleFlight(
+            MeterRegistry meterRegistry,
+            @Value("${essentials.single-flight.user-by-username.timeout:5s}") Duration timeout) {
+        return new SingleFlight<>("user.byUsername", timeout, meterRegistry);
+    }
+}
@@ -0,0 +1,68 @@
+package com.mystudies.springboot2essentials.config;
+
+import lombok.extern.log4j.Log4j2;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Opt-in ({@code essentials.server.virtual-threads.enabled}): Tomcat runs every request, and Spring MVC every
+ * async request such as /animes/stream, on its own virtual thread instead of the bounded platform thread pool.
+ * A request blocked on JDBC then costs no platform thread, and concurrency is bounded by the Hikari pool
+ * instead of {@code server.tomcat.threads.max}.
+ * <p>
+ * Needs a Java 21 runtime; on older ones a warning is logged and the platform thread pool is kept.
+ */
+@Log4j2
+@Configuration
+@ConditionalOnProperty(prefix = "essentials.server.virtual-threads", name = "enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    public VirtualThreadsConfig() {
+        if (!VirtualThreads.isAvailable()) {
+            log.warn("Virtual threads are enabled but need Java 21 or later, running on {}: keeping Tomcat's " +
+                    "thread pool", Runtime.version());
+        }
+    }
+
+    @Bean
+    @Conditional(OnVirtualThreadsAvailable.class)
+    public ExecutorService virtualThreadPerTaskExecutor() {
+        log.info("Serving requests on virtual threads");
+        return VirtualThreads.newThreadPerTaskExecutor("http-vt-");
+    }
+
+    @Bean
+    @Conditional(OnVirtualThreadsAvailable.class)
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer(
+            ExecutorService virtualThreadPerTaskExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadPerTaskExecutor);
+    }
+
+    /**
+     * Replaces Spring Boot's bounded {@code applicationTaskExecutor}, which Spring MVC uses for async requests.
+     */
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    @Conditional(OnVirtualThreadsAvailable.class)
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadPerTaskExecutor) {
+        return new TaskExecutorAdapter(virtualThreadPerTaskExecutor);
+    }
+
+    static class OnVirtualThreadsAvailable implements Condition {
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return VirtualThreads.isAvailable();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.mystudies.springboot2essentials.configurer;
+
+import com.google.protobuf.Message;
+import com.mystudies.springboot2essentials.domain.Anime;
+import com.mystudies.springboot2essentials.mapper.AnimeProtoMapper;
+import com.mystudies.springboot2essentials.proto.AnimeProtos;
+import com.mystudies.springboot2essentials.requests.AnimePostRequestBody;
+import com.mystudies.springboot2essentials.requests.AnimePutRequestBody;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads and writes the anime endpoints' own types as the messages of anime.proto, so the controller keeps
+ * its signatures and the format follows the Content-Type and Accept headers:
+ * <ul>
+ *     <li>writes {@link Anime}, collections of animes and pages of animes;</li>
+ *     <li>reads {@link AnimePostRequestBody} and {@link AnimePutRequestBody}.</li>
+ * </ul>
+ * Anything else, error bodies included, stays JSON only, so clients should accept both.
+ */
+public class AnimeProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+    public static final MediaType APPLICATION_PROTOBUF = new MediaType("application", "x-protobuf");
+
+    public AnimeProtobufHttpMessageConverter() {
+        super(APPLICATION_PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return isReadable(clazz) || Anime.class.isAssignableFrom(clazz);
+    }
+
+    /**
+     * Asked with the raw class of the body when negotiating the response, after the generic canWrite already
+     * checked that a page or collection holds animes.
+     */
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return supports(clazz) || Page.class.isAssignableFrom(clazz) || Collection.class.isAssignableFrom(clazz)
+                ? getSupportedMediaTypes()
+                : Collections.emptyList();
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return type instanceof Class<?> clazz && isReadable(clazz) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        return isWritable(type != null ? ResolvableType.forType(type) : ResolvableType.forClass(clazz))
+                && canWrite(mediaType);
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage)
+            throws IOException {
+        return readInternal((Class<?>) type, inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        if (AnimePostRequestBody.class.equals(clazz)) {
+            return AnimeProtoMapper.toAnimePostRequestBody(
+                    AnimeProtos.AnimePostRequest.parseFrom(inputMessage.getBody()));
+        }
+        if (AnimePutRequestBody.class.equals(clazz)) {
+            return AnimeProtoMapper.toAnimePutRequestBody(
+                    AnimeProtos.AnimePutRequest.parseFrom(inputMessage.getBody()));
+        }
+        throw new HttpMessageNotReadableException("Cannot read " + clazz.getName() + " as protobuf", inputMessage);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException {
+        Message message;
+        if (object instanceof Anime anime) {
+            message = AnimeProtoMapper.toProto(anime);
+        } else if (object instanceof Page<?> page) {
+            message = AnimeProtoMapper.toAnimePage((Page<Anime>) page);
+        } else if (object instanceof Collection<?> animes) {
+            message = AnimeProtoMapper.toAnimeList((Collection<Anime>) animes);
+        } else {
+            throw new HttpMessageNotWritableException(
+                    "Cannot write " + object.getClass().getName() + " as protobuf");
+        }
+        message.writeTo(outputMessage.getBody());
+    }
+
+    /**
+     * Picks the representation content negotiation writes for an anime body: the type the client weighs
+     * highest, JSON on ties as its converter comes first, and JSON when the header is missing or invalid.
+     */
+    public static MediaType negotiate(@Nullable String accept) {
+        List<MediaType> acceptable;
+        try {
+            acceptable = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MediaType.sortBySpecificityAndQuality(acceptable);
+        for (MediaType mediaType : acceptable) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return MediaType.APPLICATION_JSON;
+            }
+            if (mediaType.isCompatibleWith(APPLICATION_PROTOBUF)) {
+                return APPLICATION_PROTOBUF;
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    private static boolean isReadable(Class<?> clazz) {
+        return AnimePostRequestBody.class.equals(clazz) || AnimePutRequestBody.class.equals(clazz);
+    }
+
+    private static boolean isWritable(ResolvableType type) {
+        Class<?> clazz = type.resolve(Object.class);
+        if (Anime.class.isAssignableFrom(clazz)) {
+            return true;
+        }
+        return (Page.class.isAssignableFrom(clazz) || Collection.class.isAssignableFrom(clazz))
+                && Anime.class.isAssignableFrom(type.as(Iterable.class).getGeneric(0).resolve(Object.class));
+    }
+}
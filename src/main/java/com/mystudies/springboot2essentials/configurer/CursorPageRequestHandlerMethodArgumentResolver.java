@@ -0,0 +1,35 @@
+package com.mystudies.springboot2essentials.configurer;
+
+import com.mystudies.springboot2essentials.requests.CursorPageRequest;
+import lombok.Setter;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resolves {@link CursorPageRequest} from the {@code after}, {@code size} and {@code skipCount} query
+ * parameters, mirroring what {@link org.springframework.data.web.PageableHandlerMethodArgumentResolver}
+ * does for offset paging.
+ */
+@Setter
+public class CursorPageRequestHandlerMethodArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private CursorPageRequest fallbackCursorPageRequest = CursorPageRequest.of(null, 20, true);
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return CursorPageRequest.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public CursorPageRequest resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                             NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        return CursorPageRequest.parse(
+                webRequest.getParameter("after"),
+                webRequest.getParameter("size"),
+                webRequest.getParameter("skipCount"),
+                fallbackCursorPageRequest);
+    }
+}
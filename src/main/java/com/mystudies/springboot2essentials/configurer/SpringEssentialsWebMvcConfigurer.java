@@ -1,20 +1,61 @@
 package com.mystudies.springboot2essentials.configurer;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mystudies.springboot2essentials.jdbc.StatementCountingInterceptor;
+import com.mystudies.springboot2essentials.requests.CursorPageRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.util.List;
 
 @Configuration
+@Profile("!reactive")
+@RequiredArgsConstructor
 public class SpringEssentialsWebMvcConfigurer implements WebMvcConfigurer {
+    private final StatementCountingInterceptor statementCountingInterceptor;
+
     @Override
     public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
         PageableHandlerMethodArgumentResolver pageHandler =
                 new PageableHandlerMethodArgumentResolver();
         pageHandler.setFallbackPageable(PageRequest.of(0, 5));
         resolvers.add(pageHandler);
+
+        CursorPageRequestHandlerMethodArgumentResolver cursorPageHandler =
+                new CursorPageRequestHandlerMethodArgumentResolver();
+        cursorPageHandler.setFallbackCursorPageRequest(CursorPageRequest.of(null, 5, true));
+        resolvers.add(cursorPageHandler);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(statementCountingInterceptor);
+    }
+
+    /**
+     * Replaces the JSON converter Spring Boot would register, see {@link TimedMappingJackson2HttpMessageConverter}.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                   MeterRegistry meterRegistry) {
+        return new TimedMappingJackson2HttpMessageConverter(objectMapper, meterRegistry);
+    }
+
+    /**
+     * Added last, so JSON stays the format for clients accepting anything.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new AnimeProtobufHttpMessageConverter());
     }
 }
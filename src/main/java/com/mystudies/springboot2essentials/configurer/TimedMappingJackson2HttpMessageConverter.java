@@ -0,0 +1,70 @@
+package com.mystudies.springboot2essentials.configurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Spring Boot's JSON converter, timing every body it reads or writes as {@code http.message.conversion}, tagged
+ * with the operation and the body's class. Writes go straight to the response, so once a body outgrows the
+ * response buffer its time also covers sending it.
+ */
+public class TimedMappingJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+    static final String METRIC_NAME = "http.message.conversion";
+
+    private final MeterRegistry meterRegistry;
+
+    public TimedMappingJackson2HttpMessageConverter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        super(objectMapper);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage)
+            throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return super.read(type, contextClass, inputMessage);
+        } finally {
+            sample.stop(timer("read", ResolvableType.forType(type).toClass()));
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return super.readInternal(clazz, inputMessage);
+        } finally {
+            sample.stop(timer("read", clazz));
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            sample.stop(timer("write", object.getClass()));
+        }
+    }
+
+    private Timer timer(String operation, Class<?> type) {
+        return Timer.builder(METRIC_NAME)
+                .description("Time spent converting request and response bodies")
+                .tag("format", "json")
+                .tag("operation", operation)
+                .tag("type", type.getSimpleName())
+                .register(meterRegistry);
+    }
+}
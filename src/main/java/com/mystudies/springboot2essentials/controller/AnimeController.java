@@ -1,68 +1,173 @@
 package com.mystudies.springboot2essentials.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mystudies.springboot2essentials.cache.AnimeCatalogVersion;
+import com.mystudies.springboot2essentials.cache.HttpCacheControl;
+import com.mystudies.springboot2essentials.configurer.AnimeProtobufHttpMessageConverter;
 import com.mystudies.springboot2essentials.domain.Anime;
+import com.mystudies.springboot2essentials.domain.AnimeAudit;
 import com.mystudies.springboot2essentials.requests.AnimePostRequestBody;
 import com.mystudies.springboot2essentials.requests.AnimePutRequestBody;
+import com.mystudies.springboot2essentials.requests.CursorPageRequest;
+import com.mystudies.springboot2essentials.search.AnimeSearchMode;
+import com.mystudies.springboot2essentials.service.AnimeAuditService;
+import com.mystudies.springboot2essentials.service.AnimeBulkService;
 import com.mystudies.springboot2essentials.service.AnimeService;
+import com.mystudies.springboot2essentials.wrapper.BulkOperationResponse;
+import com.mystudies.springboot2essentials.wrapper.CursorPageableResponse;
+import com.mystudies.springboot2essentials.wrapper.MultiGetResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springdoc.api.annotations.ParameterObject;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.function.Supplier;
 
 @Log4j2
 @RequiredArgsConstructor
 @RestController
+@Profile("!reactive")
 @RequestMapping(path = "animes")
 public class AnimeController {
 
+    private static final int STREAM_FLUSH_INTERVAL = 100;
+
     private final AnimeService animeService;
+    private final AnimeBulkService animeBulkService;
+    private final AnimeAuditService animeAuditService;
+    private final ObjectMapper objectMapper;
+    private final AnimeCatalogVersion animeCatalogVersion;
+    private final HttpCacheControl httpCacheControl;
 
     @Operation(summary = "List all animes paginated.",
             description = "ROLE_USER level required to operate. The default size is 20, use the parameter " +
-                    "size to change the default value. ",
+                    "size to change the default value. Send the ETag of a previous response as If-None-Match " +
+                    "to get a 304 while no anime changed.",
             tags = {"anime"})
     @ApiResponses(value = {
-            @ApiResponse (responseCode = "201", description = "Successful operation")
+            @ApiResponse (responseCode = "201", description = "Successful operation"),
+            @ApiResponse (responseCode = "304", description = "When no anime changed since the given ETag")
     })
     @GetMapping
-    public ResponseEntity<Page<Anime>> listAll(@ParameterObject Pageable pageable) {
-        return ResponseEntity.ok(animeService.listAll(pageable));
+    public ResponseEntity<Page<Anime>> listAll(@ParameterObject Pageable pageable, WebRequest webRequest) {
+        return conditional(webRequest, animeCatalogVersion.getETag(), httpCacheControl.getAnimeList(),
+                () -> animeCatalogVersion.read(() -> animeService.listAll(pageable)));
     }
 
-    @Operation(summary = "List all animes not paginated.", description = "ROLE_USER level required to operate.",
-            tags = {"anime"})
+    @Operation(summary = "List all animes paginated by cursor.",
+            description = "ROLE_USER level required to operate. Pages are ordered by id; pass the nextCursor " +
+                    "of a page as the parameter after to get the next one. The default size is 5, and the " +
+                    "total count is only computed when skipCount is false.", tags = {"anime"})
     @ApiResponses(value = {
-            @ApiResponse (responseCode = "201", description = "Successful operation")
+            @ApiResponse (responseCode = "200", description = "Successful operation"),
+            @ApiResponse (responseCode = "400", description = "When the cursor is not valid")
+    })
+    @GetMapping(path = "/cursor")
+    public ResponseEntity<CursorPageableResponse<Anime>> listAllByCursor(
+            @ParameterObject CursorPageRequest cursorPageRequest) {
+        return ResponseEntity.ok(animeService.listAllByCursor(cursorPageRequest));
+    }
+
+    @Operation(summary = "List all animes not paginated.",
+            description = "ROLE_USER level required to operate. Send the ETag of a previous response as " +
+                    "If-None-Match to get a 304 while no anime changed.", tags = {"anime"})
+    @ApiResponses(value = {
+            @ApiResponse (responseCode = "201", description = "Successful operation"),
+            @ApiResponse (responseCode = "304", description = "When no anime changed since the given ETag")
     })
     @GetMapping(path = "/all")
-    public ResponseEntity<List<Anime>> listAllNonPageable() {
-        return ResponseEntity.ok(animeService.listAllNonPageable());
+    public ResponseEntity<List<Anime>> listAllNonPageable(WebRequest webRequest) {
+        return conditional(webRequest, animeCatalogVersion.getETag(), httpCacheControl.getAnimeList(),
+                () -> animeCatalogVersion.read(animeService::listAllNonPageable));
     }
 
-    @Operation(summary = "Returns the required Anime by Id.", description = "ROLE_USER level required to operate.",
-            tags = {"anime"})
+    @Operation(summary = "Streams all animes as newline delimited JSON.",
+            description = "ROLE_USER level required to operate. Rows are read through a database cursor and " +
+                    "written as they arrive, one JSON object per line, so memory stays constant " +
+                    "regardless of the catalog size.", tags = {"anime"})
+    @ApiResponses(value = {
+            @ApiResponse (responseCode = "200", description = "Successful operation")
+    })
+    @GetMapping(path = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        ObjectWriter animeWriter = objectMapper.writerFor(Anime.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                int[] written = {0};
+                animeService.streamAll(anime -> writeLine(animeWriter, generator, anime, ++written[0]));
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @Operation(summary = "Returns the required Anime by Id.",
+            description = "ROLE_USER level required to operate. Send the ETag of a previous response as " +
+                    "If-None-Match to get a 304 while the Anime is unchanged.", tags = {"anime"})
     @ApiResponses(value = {
             @ApiResponse (responseCode = "204", description = "Successful operation"),
+            @ApiResponse (responseCode = "304", description = "When the Anime is unchanged since the given ETag"),
             @ApiResponse (responseCode = "400", description = "When Anime is not found in the Database")
     })
     @GetMapping(path = "/{id}")
-    public ResponseEntity<Anime> findById(@PathVariable long id) {
-        return ResponseEntity.ok(animeService.findByIdOrThrowBadRequestException(id));
+    public ResponseEntity<Anime> findById(@PathVariable long id, WebRequest webRequest) {
+        Anime anime = animeService.findByIdOrThrowBadRequestException(id);
+        return conditional(webRequest, "\"" + anime.getId() + "-" + anime.getVersion() + "\"",
+                httpCacheControl.getAnime(), () -> anime);
+    }
+
+    @Operation(summary = "Returns the required Animes by Id in one request.",
+            description = "ROLE_USER level required to operate. Send the ids comma separated -> ex: " +
+                    "**?ids=1,2,3**, at most 1000. Found Animes come in the order they were asked for; ids with " +
+                    "no Anime are listed in missingIds instead of failing the request.", tags = {"anime"})
+    @ApiResponses(value = {
+            @ApiResponse (responseCode = "200", description = "Successful operation, check missingIds"),
+            @ApiResponse (responseCode = "400", description = "When there are no ids or too many")
+    })
+    @GetMapping(params = "ids")
+    public ResponseEntity<MultiGetResponse<Anime>> findAllByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(animeService.findAllByIds(ids));
+    }
+
+    @Operation(summary = "Returns the required Animes by Id in one request, for sets too large for a URL.",
+            description = "ROLE_USER level required to operate. Send the ids in the body, at most 1000. Found " +
+                    "Animes come in the order they were asked for; ids with no Anime are listed in missingIds " +
+                    "instead of failing the request.", tags = {"anime"})
+    @ApiResponses(value = {
+            @ApiResponse (responseCode = "200", description = "Successful operation, check missingIds"),
+            @ApiResponse (responseCode = "400", description = "When there are no ids or too many")
+    })
+    @PostMapping(path = "/findByIds")
+    public ResponseEntity<MultiGetResponse<Anime>> findAllByIdsInBody(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(animeService.findAllByIds(ids));
     }
 
     @Operation(summary = "Returns a List of required Animes searched by Name.",
             description = "ROLE_USER level required to operate. Search for the Anime's name on the URI, " +
-                    "with Query Parameters -> ex: **?name=hellsing", tags = {"anime"})
+                    "with Query Parameters -> ex: **?name=hellsing**. Returns every Anime with that exact name; " +
+                    "see /animes/search for paged searches.", tags = {"anime"})
     @ApiResponses(value = {
             @ApiResponse (responseCode = "200", description = "Successful operation")
     })
@@ -71,6 +176,30 @@ public class AnimeController {
         return ResponseEntity.ok(animeService.findByName(name));
     }
 
+    @Operation(summary = "Returns a page of Animes searched by Name.",
+            description = "ROLE_USER level required to operate. The mode EXACT (default) returns every Anime " +
+                    "with that exact name, in a single slice. PREFIX returns the slice of Animes whose name " +
+                    "starts with it, ignoring case -> ex: **?name=hell&mode=PREFIX&page=0&size=20**; check " +
+                    "last to know if there is a next one. FULL_TEXT returns the page of Animes containing any of " +
+                    "its words, most relevant first, with the totalElements and totalPages -> ex: " +
+                    "**?name=dragon ball&mode=FULL_TEXT**. Paged modes use the parameters page and size, " +
+                    "the default size is 5.", tags = {"anime"})
+    @ApiResponses(value = {
+            @ApiResponse (responseCode = "200", description = "Successful operation"),
+            @ApiResponse (responseCode = "400", description = "When the name is blank in PREFIX mode, " +
+                    "or FULL_TEXT mode is disabled")
+    })
+    @GetMapping(path = "/search")
+    public ResponseEntity<Slice<Anime>> search(@RequestParam String name,
+                                               @RequestParam(defaultValue = "EXACT") AnimeSearchMode mode,
+                                               @ParameterObject Pageable pageable) {
+        return ResponseEntity.ok(switch (mode) {
+            case EXACT -> new SliceImpl<>(animeService.findByName(name));
+            case PREFIX -> animeService.findByNamePrefix(name, pageable);
+            case FULL_TEXT -> animeService.searchByName(name, pageable);
+        });
+    }
+
     @Operation(summary = "Persists a new Anime in the Database.", description = "ROLE_ADMIN level required to operate.",
             tags = {"anime"})
     @ApiResponses(value = {
@@ -82,6 +211,47 @@ public class AnimeController {
         return new ResponseEntity<>(animeService.save(animePostRequestBody), HttpStatus.CREATED);
     }
 
+    @Operation(summary = "Persists a list of new Animes in the Database.",
+            description = "ROLE_ADMIN level required to operate. Animes are written in JDBC batches; invalid or " +
+                    "rejected items are reported by index without aborting the others.", tags = {"anime"})
+    @ApiResponses(value = {
+            @ApiResponse (responseCode = "200", description = "Successful operation, check failures per item"),
+            @ApiResponse (responseCode = "400", description = "When the list is empty or too large"),
+            @ApiResponse (responseCode = "403", description = "When not a ROLE_ADMIN executes operation.")
+    })
+    @PostMapping(path = "/admin/bulk")
+    public ResponseEntity<BulkOperationResponse> saveAll(
+            @RequestBody List<AnimePostRequestBody> animePostRequestBodies) {
+        return ResponseEntity.ok(animeBulkService.saveAll(animePostRequestBodies));
+    }
+
+    @Operation(summary = "Replaces a list of Animes in the Database.",
+            description = "ROLE_ADMIN level required to operate. Animes are written in JDBC batches; invalid or " +
+                    "missing items are reported by index without aborting the others.", tags = {"anime"})
+    @ApiResponses(value = {
+            @ApiResponse (responseCode = "200", description = "Successful operation, check failures per item"),
+            @ApiResponse (responseCode = "400", description = "When the list is empty or too large"),
+            @ApiResponse (responseCode = "403", description = "When not a ROLE_ADMIN executes operation.")
+    })
+    @PutMapping(path = "/admin/bulk")
+    public ResponseEntity<BulkOperationResponse> replaceAll(
+            @RequestBody List<AnimePutRequestBody> animePutRequestBodies) {
+        return ResponseEntity.ok(animeBulkService.replaceAll(animePutRequestBodies));
+    }
+
+    @Operation(summary = "Removes a list of Animes from the Database.",
+            description = "ROLE_ADMIN level required to operate. Send the ids in the body; missing ids are " +
+                    "reported by index without aborting the others.", tags = {"anime"})
+    @ApiResponses(value = {
+            @ApiResponse (responseCode = "200", description = "Successful operation, check failures per item"),
+            @ApiResponse (responseCode = "400", description = "When the list is empty or too large"),
+            @ApiResponse (responseCode = "403", description = "When not a ROLE_ADMIN executes operation.")
+    })
+    @PostMapping(path = "/admin/bulk/delete")
+    public ResponseEntity<BulkOperationResponse> deleteAll(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(animeBulkService.deleteAll(ids));
+    }
+
     @Operation(summary = "Removes an Anime from the Database.", description = "ROLE_ADMIN level required to operate.",
             tags = {"anime"})
     @ApiResponses(value = {
@@ -107,4 +277,60 @@ public class AnimeController {
         animeService.replace(animePutRequestBody);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
+
+    @Operation(summary = "Replays the changes made to animes, oldest first.",
+            description = "ROLE_ADMIN level required to operate. Changes are written to the log shortly after " +
+                    "they are committed; pass the nextCursor of a page as the parameter after to get the next " +
+                    "one, or keep the last one to resume later. The default size is 5, and the total count is " +
+                    "only computed when skipCount is false. Resuming only sees every change while a single " +
+                    "instance writes the log.", tags = {"anime"})
+    @ApiResponses(value = {
+            @ApiResponse (responseCode = "200", description = "Successful operation"),
+            @ApiResponse (responseCode = "400", description = "When the cursor is not valid"),
+            @ApiResponse (responseCode = "403", description = "When not a ROLE_ADMIN executes operation.")
+    })
+    @GetMapping(path = "/admin/audit")
+    public ResponseEntity<CursorPageableResponse<AnimeAudit>> replayAudit(
+            @ParameterObject CursorPageRequest cursorPageRequest) {
+        return ResponseEntity.ok(animeAuditService.replay(cursorPageRequest));
+    }
+
+    /**
+     * Answers 304 without loading nor serializing the body when the client already has this ETag. The ETag
+     * header itself is set by {@link WebRequest#checkNotModified(String)}, on both answers.
+     * <p>
+     * JSON and protobuf bodies of the same version are different representations, so the negotiated media
+     * type goes into the ETag and both answers vary on Accept.
+     */
+    private static <T> ResponseEntity<T> conditional(WebRequest webRequest, String eTag, String cacheControl,
+                                                     Supplier<T> body) {
+        MediaType mediaType = AnimeProtobufHttpMessageConverter.negotiate(webRequest.getHeader(HttpHeaders.ACCEPT));
+        String representationETag = eTag.substring(0, eTag.length() - 1) + "-" + mediaType.getSubtype() + "\"";
+        if (webRequest.checkNotModified(representationETag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .body(body.get());
+    }
+
+    /**
+     * Flushing periodically pushes the rows to the client; a slow client blocks the write,
+     * which in turn holds the cursor back instead of buffering rows in memory.
+     */
+    private void writeLine(ObjectWriter animeWriter, JsonGenerator generator, Anime anime, int written) {
+        try {
+            animeWriter.writeValue(generator, anime);
+            generator.writeRaw('\n');
+            if (written % STREAM_FLUSH_INTERVAL == 0) {
+                generator.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
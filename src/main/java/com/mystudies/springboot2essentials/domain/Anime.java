@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotEmpty;
@@ -13,9 +15,13 @@ import javax.validation.constraints.NotEmpty;
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
-@Builder
+@Builder(toBuilder = true)
 @Entity
+@Table(indexes = @Index(name = "idx_anime_name", columnList = "name"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Anime.CACHE_REGION)
 public class Anime {
+    public static final String CACHE_REGION = "anime";
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,4 +31,8 @@ public class Anime {
     @NotEmpty(message = "The name cannot be empty nor null!")
     @Schema(description = "This is the anime's name", example = "YuYu Hakusho")
     private String name;
+
+    @Version
+    @Schema(description = "This is the anime's version, incremented on every change", example = "0")
+    private long version;
 }
@@ -0,0 +1,41 @@
+package com.mystudies.springboot2essentials.domain;
+
+import com.mystudies.springboot2essentials.event.AnimeChangedEvent;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * One committed change to one anime, appended by {@code AnimeAuditLog} and never updated.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+@Entity
+public class AnimeAudit {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Schema(description = "Position of the change in the audit log, changes are replayed in this order",
+            example = "42")
+    private Long id;
+
+    @Schema(description = "The changed anime's Id", example = "3")
+    private Long animeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    @Schema(description = "What happened to the anime", example = "UPDATED")
+    private AnimeChangedEvent.Type type;
+
+    @Schema(description = "Who changed it, system when it was not changed by a request", example = "vinicius")
+    private String username;
+
+    @Schema(description = "When the change was committed", example = "2024-01-01T12:00:00Z")
+    private Instant occurredAt;
+}
@@ -1,21 +1,26 @@
 package com.mystudies.springboot2essentials.domain;
 
+import com.mystudies.springboot2essentials.security.GrantedAuthorities;
+import com.mystudies.springboot2essentials.security.UserInfoChangeListener;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
 import javax.validation.constraints.NotEmpty;
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.stream.Collectors;
 
 
 @AllArgsConstructor
@@ -23,7 +28,12 @@ import java.util.stream.Collectors;
 @Data
 @Builder
 @Entity
+@Table(indexes = @Index(name = "idx_user_info_username", columnList = "username"))
+@EntityListeners(UserInfoChangeListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = UserInfo.CACHE_REGION)
 public class UserInfo implements UserDetails {
+    public static final String CACHE_REGION = "user-info";
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -36,11 +46,16 @@ public class UserInfo implements UserDetails {
     private String password;
     private String authorities;
 
+    /**
+     * Parsed once per distinct authorities string and shared, see {@link GrantedAuthorities}.
+     */
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Arrays.stream(authorities.split(","))
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
+        return GrantedAuthorities.parse(authorities);
+    }
+
+    public boolean hasAuthority(String authority) {
+        return GrantedAuthorities.parse(authorities).contains(authority);
     }
 
     @Override
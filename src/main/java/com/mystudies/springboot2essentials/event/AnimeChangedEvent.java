@@ -0,0 +1,32 @@
+package com.mystudies.springboot2essentials.event;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Published by the service layer whenever animes are created, replaced or deleted. Listeners that keep
+ * derived state (caches, indexes) should use {@code @TransactionalEventListener} so they only react
+ * once the change is committed.
+ */
+@Value
+public class AnimeChangedEvent {
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    Type type;
+    List<Long> animeIds;
+
+    public static AnimeChangedEvent created(long animeId) {
+        return new AnimeChangedEvent(Type.CREATED, List.of(animeId));
+    }
+
+    public static AnimeChangedEvent updated(long animeId) {
+        return new AnimeChangedEvent(Type.UPDATED, List.of(animeId));
+    }
+
+    public static AnimeChangedEvent deleted(long animeId) {
+        return new AnimeChangedEvent(Type.DELETED, List.of(animeId));
+    }
+}
@@ -0,0 +1,15 @@
+package com.mystudies.springboot2essentials.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * An expected outcome of a request (a stale version), answered with a 409 by the exception handlers. Created
+ * without a stack trace, see {@link BadRequestException}.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message, null, false, false);
+    }
+}
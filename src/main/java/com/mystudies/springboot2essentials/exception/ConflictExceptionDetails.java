@@ -0,0 +1,9 @@
+package com.mystudies.springboot2essentials.exception;
+
+import lombok.Getter;
+import lombok.experimental.SuperBuilder;
+
+@Getter
+@SuperBuilder
+public class ConflictExceptionDetails extends ExceptionDetails {
+}
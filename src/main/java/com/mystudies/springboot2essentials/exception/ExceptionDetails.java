@@ -1,5 +1,7 @@
 package com.mystudies.springboot2essentials.exception;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.mystudies.springboot2essentials.util.CachedClock;
 import lombok.Data;
 import lombok.experimental.SuperBuilder;
 
@@ -12,5 +14,6 @@ public class ExceptionDetails {
     protected int status;
     protected String details;
     protected String developerMessage;
+    @JsonSerialize(using = CachedClock.TimestampSerializer.class)
     protected LocalDateTime timestamp;
 }
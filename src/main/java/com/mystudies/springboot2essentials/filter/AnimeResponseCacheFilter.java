@@ -0,0 +1,136 @@
+package com.mystudies.springboot2essentials.filter;
+
+import com.mystudies.springboot2essentials.cache.AnimeCatalogVersion;
+import com.mystudies.springboot2essentials.cache.AnimeResponseCache;
+import com.mystudies.springboot2essentials.cache.AnimeResponseCache.CachedResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Serves {@code GET /animes} (first pages only) and {@code GET /animes/all} from {@link AnimeResponseCache}.
+ * Runs after the Spring Security filters, so every hit is still authenticated and authorized.
+ * <p>
+ * Lookups by ids ({@code GET /animes?ids=}) are left out: their combinations are too many to be worth keeping,
+ * and would only push the hot pages out.
+ * <p>
+ * Requests with If-None-Match go to the controller, which answers them without a body anyway.
+ * <p>
+ * Misses are sent on as they are rendered; only bodies up to {@link AnimeResponseCache#getMaxEntrySize()} are
+ * copied to be cached, so a large {@code /animes/all} is never held in memory.
+ */
+@Component
+@Profile("!reactive")
+public class AnimeResponseCacheFilter extends OncePerRequestFilter {
+    private static final Set<String> ROUTES = Set.of("/animes", "/animes/all");
+
+    private final AnimeResponseCache animeResponseCache;
+    private final AnimeCatalogVersion animeCatalogVersion;
+    private final int maxPage;
+
+    public AnimeResponseCacheFilter(AnimeResponseCache animeResponseCache, AnimeCatalogVersion animeCatalogVersion,
+                                    @Value("${essentials.cache.response.max-page:4}") int maxPage) {
+        this.animeResponseCache = animeResponseCache;
+        this.animeCatalogVersion = animeCatalogVersion;
+        this.maxPage = maxPage;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod())
+                || !ROUTES.contains(request.getRequestURI().substring(request.getContextPath().length()))
+                || request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getParameter("ids") != null
+                || !isHotPage(request.getParameter("page"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = key(request);
+        CachedResponse cached = animeResponseCache.get(key);
+        if (cached != null) {
+            write(cached, acceptsGzip(request), response);
+            return;
+        }
+
+        CappedCopyResponseWrapper responseWrapper = new CappedCopyResponseWrapper(response,
+                animeResponseCache.getMaxEntrySize());
+        if (animeResponseCache.isGzip()) {
+            responseWrapper.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        chain.doFilter(request, responseWrapper);
+        byte[] body = responseWrapper.getCopy();
+        if (responseWrapper.getStatus() == HttpStatus.OK.value() && body != null) {
+            animeResponseCache.put(key, body, responseWrapper.getContentType(),
+                    responseWrapper.getHeader(HttpHeaders.ETAG), responseWrapper.getHeader(HttpHeaders.CACHE_CONTROL));
+        }
+    }
+
+    private boolean isHotPage(String page) {
+        if (page == null || page.isBlank()) {
+            return true;
+        }
+        try {
+            return Integer.parseInt(page) < maxPage;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Parameters are sorted, so the same page asked with its parameters in another order is the same entry.
+     */
+    private String key(HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(request.getRequestURI())
+                .append('|').append(animeCatalogVersion.getETag())
+                .append('|').append(request.getHeader(HttpHeaders.ACCEPT));
+        new TreeMap<>(request.getParameterMap()).forEach((name, values) -> {
+            for (String value : values) {
+                key.append('|').append(name).append('=').append(value);
+            }
+        });
+        return key.toString();
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        return ContentCoding.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING), List.of(ContentCoding.GZIP))
+                == ContentCoding.GZIP;
+    }
+
+    private static void write(CachedResponse cached, boolean gzip, HttpServletResponse response) throws IOException {
+        boolean gzipped = gzip && cached.gzippedBody() != null;
+        byte[] body = gzipped ? cached.gzippedBody() : cached.body();
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(cached.contentType());
+        if (cached.eTag() != null) {
+            response.setHeader(HttpHeaders.ETAG, gzipped ? ContentCoding.weakETag(cached.eTag()) : cached.eTag());
+        }
+        if (cached.cacheControl() != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cached.cacheControl());
+        }
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (cached.gzippedBody() != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (gzipped) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, ContentCoding.GZIP.getToken());
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
@@ -0,0 +1,123 @@
+package com.mystudies.springboot2essentials.filter;
+
+import org.springframework.util.FastByteArrayOutputStream;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * Sends the body on as it is written and keeps a copy of it, up to {@code maxCopySize} bytes. The copy is
+ * dropped once the body outgrows that, so a body too large to be cached is never held in memory.
+ */
+class CappedCopyResponseWrapper extends HttpServletResponseWrapper {
+    private final int maxCopySize;
+
+    private FastByteArrayOutputStream copy = new FastByteArrayOutputStream(1024);
+    private CopyingOutputStream outputStream;
+    private PrintWriter writer;
+
+    CappedCopyResponseWrapper(HttpServletResponse response, int maxCopySize) {
+        super(response);
+        this.maxCopySize = maxCopySize;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new CopyingOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        if (copy != null) {
+            copy.reset();
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        if (copy != null) {
+            copy.reset();
+        }
+    }
+
+    /**
+     * @return the body written so far, null when it outgrew {@code maxCopySize}
+     */
+    byte[] getCopy() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return copy == null ? null : copy.toByteArray();
+    }
+
+    private final class CopyingOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+
+        private CopyingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            if (copy != null) {
+                if (copy.size() + len > maxCopySize) {
+                    copy = null;
+                } else {
+                    copy.write(b, off, len);
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package com.mystudies.springboot2essentials.filter;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.FastByteArrayOutputStream;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+/**
+ * Holds back the first {@code minResponseSize} bytes of the body. Bodies ending before that are sent as they
+ * are, with their Content-Length; longer ones are compressed from there on as they are written, so the body
+ * is never held in full. Compressed bodies, and 304s to clients accepting a coding, get a weak ETag, see
+ * {@link ContentCoding#weakETag(String)}.
+ * <p>
+ * Bodies written by an async request, such as the /animes/stream export, are flushed line by line and end
+ * after the filter returns, so they are not held back: they are compressed from the first byte with
+ * {@code streamingContentCoding}, whose flushes push out what was written so far, and sent as they are when
+ * the client accepts no such coding. The filter finishes them on the async dispatch.
+ */
+class CompressingResponseWrapper extends HttpServletResponseWrapper {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean THREAD_CPU_TIME = THREADS.isCurrentThreadCpuTimeSupported();
+
+    private final HttpServletRequest request;
+    private final ContentCoding contentCoding;
+    private final ContentCoding streamingContentCoding;
+    private final int minResponseSize;
+    private final List<MediaType> mimeTypes;
+
+    private CompressingOutputStream outputStream;
+    private PrintWriter writer;
+    private Long contentLength;
+
+    CompressingResponseWrapper(HttpServletRequest request, HttpServletResponse response,
+                               ContentCoding contentCoding, ContentCoding streamingContentCoding,
+                               int minResponseSize, List<MediaType> mimeTypes) {
+        super(response);
+        this.request = request;
+        this.contentCoding = contentCoding;
+        this.streamingContentCoding = streamingContentCoding;
+        this.minResponseSize = minResponseSize;
+        this.mimeTypes = mimeTypes;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (outputStream == null) {
+            outputStream = new CompressingOutputStream();
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(int length) {
+        setContentLengthLong(length);
+    }
+
+    @Override
+    public void setContentLengthLong(long length) {
+        if (outputStream == null || outputStream.state == State.UNDECIDED) {
+            contentLength = length;
+        } else if (outputStream.state == State.IDENTITY) {
+            super.setContentLengthLong(length);
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    /**
+     * Held back bytes would commit the response before it is known whether they get compressed.
+     */
+    @Override
+    public void flushBuffer() throws IOException {
+        weakenNotModifiedETag();
+        if (writer != null) {
+            writer.flush();
+        }
+        if (outputStream == null || outputStream.state != State.UNDECIDED) {
+            super.flushBuffer();
+        } else if (request.isAsyncStarted()) {
+            outputStream.decide(streamingContentCoding);
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        if (outputStream != null && outputStream.state == State.UNDECIDED) {
+            outputStream.heldBack.reset();
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        contentLength = null;
+        if (outputStream != null && outputStream.state == State.UNDECIDED) {
+            outputStream.heldBack.reset();
+        }
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        discardHeldBack();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        discardHeldBack();
+        super.sendError(sc, msg);
+    }
+
+    /**
+     * Sends whatever is held back and ends the compressed body. Called once the request was handled.
+     */
+    void finish() throws IOException {
+        weakenNotModifiedETag();
+        if (writer != null) {
+            writer.flush();
+        }
+        if (outputStream == null) {
+            if (contentLength != null) {
+                super.setContentLengthLong(contentLength);
+            }
+            return;
+        }
+        if (outputStream.state == State.UNDECIDED) {
+            if (contentLength == null && outputStream.heldBack.size() > 0) {
+                contentLength = (long) outputStream.heldBack.size();
+            }
+            outputStream.decide(null);
+        }
+        if (outputStream.state == State.COMPRESSING) {
+            long start = cpuTime();
+            outputStream.compressor.close();
+            outputStream.cpuNanos += cpuTime() - start;
+        }
+    }
+
+    /**
+     * @return the coding the body was compressed with, null when it was sent as it is
+     */
+    ContentCoding getAppliedContentCoding() {
+        return outputStream != null && outputStream.state == State.COMPRESSING ? outputStream.applied : null;
+    }
+
+    long getBytesIn() {
+        return outputStream == null ? 0 : outputStream.bytesIn;
+    }
+
+    long getBytesOut() {
+        return outputStream == null || outputStream.counter == null ? 0 : outputStream.counter.count;
+    }
+
+    long getCpuNanos() {
+        return outputStream == null ? 0 : outputStream.cpuNanos;
+    }
+
+    /**
+     * A 304 carries the ETag of the representation the client holds, the compressed one when it accepts a
+     * coding. Done before the response is committed, which happens on flush for bodiless answers.
+     */
+    private void weakenNotModifiedETag() {
+        if (contentCoding != null && getStatus() == HttpStatus.NOT_MODIFIED.value() && !isCommitted()) {
+            weakenETag();
+        }
+    }
+
+    private void weakenETag() {
+        String eTag = getHeader(HttpHeaders.ETAG);
+        if (eTag != null) {
+            super.setHeader(HttpHeaders.ETAG, ContentCoding.weakETag(eTag));
+        }
+    }
+
+    private void discardHeldBack() {
+        if (outputStream != null && outputStream.state == State.UNDECIDED) {
+            outputStream.heldBack = null;
+            outputStream.state = State.DISCARDED;
+        }
+    }
+
+    private boolean isCompressible() {
+        String contentType = getContentType();
+        if (contentType == null) {
+            return false;
+        }
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        return mimeTypes.stream().anyMatch(mimeType -> mimeType.includes(mediaType));
+    }
+
+    private boolean isCompressibleStatus() {
+        int status = getStatus();
+        return status != HttpStatus.NO_CONTENT.value() && status != HttpStatus.NOT_MODIFIED.value()
+                && status != HttpStatus.PARTIAL_CONTENT.value();
+    }
+
+    /**
+     * Time the current thread spent on the CPU, so a compressor blocked on a slow client is not counted.
+     * Falls back to wall time where the JVM cannot tell, e.g. on virtual threads.
+     */
+    private static long cpuTime() {
+        long cpuTime = THREAD_CPU_TIME ? THREADS.getCurrentThreadCpuTime() : -1;
+        return cpuTime >= 0 ? cpuTime : System.nanoTime();
+    }
+
+    private enum State {
+        UNDECIDED, IDENTITY, COMPRESSING, DISCARDED
+    }
+
+    private final class CompressingOutputStream extends ServletOutputStream {
+        private State state = State.UNDECIDED;
+        private FastByteArrayOutputStream heldBack = new FastByteArrayOutputStream(1024);
+        private OutputStream target;
+        private OutputStream compressor;
+        private ContentCoding applied;
+        private ServletOutputStream servletOutputStream;
+        private CountingOutputStream counter;
+        private long bytesIn;
+        private long cpuNanos;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            switch (state) {
+                case UNDECIDED -> {
+                    if (request.isAsyncStarted()) {
+                        decide(streamingContentCoding);
+                        write(b, off, len);
+                    } else if (heldBack.size() + len < minResponseSize) {
+                        heldBack.write(b, off, len);
+                    } else {
+                        decide(contentCoding);
+                        write(b, off, len);
+                    }
+                }
+                case IDENTITY -> target.write(b, off, len);
+                case COMPRESSING -> {
+                    long start = cpuTime();
+                    compressor.write(b, off, len);
+                    cpuNanos += cpuTime() - start;
+                    bytesIn += len;
+                }
+                case DISCARDED -> {
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (state == State.UNDECIDED && request.isAsyncStarted()) {
+                decide(streamingContentCoding);
+            }
+            if (state == State.COMPRESSING) {
+                long start = cpuTime();
+                compressor.flush();
+                cpuNanos += cpuTime() - start;
+            } else if (state == State.IDENTITY) {
+                target.flush();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return state != State.IDENTITY || servletOutputStream.isReady();
+        }
+
+        /**
+         * Non-blocking writes go straight to the servlet stream, so the body is then sent as it is. Held back
+         * bytes, and the compressor, could only be written by blocking.
+         */
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            if (state == State.UNDECIDED && heldBack.size() == 0) {
+                try {
+                    decide(null);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            if (state != State.IDENTITY) {
+                throw new IllegalStateException("Non-blocking writes are only supported on bodies sent as they are");
+            }
+            servletOutputStream.setWriteListener(writeListener);
+        }
+
+        /**
+         * @param coding the coding to compress the body with when its type and status allow, null to send it
+         *               as it is
+         */
+        private void decide(ContentCoding coding) throws IOException {
+            boolean compressible = isCompressible() && isCompressibleStatus()
+                    && getHeader(HttpHeaders.CONTENT_ENCODING) == null;
+            if (compressible && !getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT_ENCODING)) {
+                CompressingResponseWrapper.super.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+
+            servletOutputStream = getResponse().getOutputStream();
+            if (compressible && coding != null) {
+                CompressingResponseWrapper.super.setHeader(HttpHeaders.CONTENT_ENCODING, coding.getToken());
+                weakenETag();
+                counter = new CountingOutputStream(servletOutputStream);
+                compressor = coding.compress(counter);
+                applied = coding;
+                state = State.COMPRESSING;
+            } else {
+                if (contentLength != null) {
+                    CompressingResponseWrapper.super.setContentLengthLong(contentLength);
+                }
+                counter = new CountingOutputStream(servletOutputStream);
+                target = counter;
+                state = State.IDENTITY;
+            }
+
+            FastByteArrayOutputStream bytes = heldBack;
+            heldBack = null;
+            if (bytes.size() > 0) {
+                write(bytes.toByteArrayUnsafe(), 0, bytes.size());
+            }
+        }
+    }
+
+    /**
+     * Counts the bytes actually sent. Closing it leaves the servlet stream open for the container to close.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+        private final OutputStream delegate;
+        private long count;
+
+        private CountingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.flush();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.mystudies.springboot2essentials.filter;
+
+import io.airlift.compress.zstd.ZstdOutputStream;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The Content-Encodings {@link ResponseCompressionFilter} can produce. Both encoders are pure Java, so they
+ * run wherever the application does; brotli is missing as it has no pure Java encoder.
+ */
+public enum ContentCoding {
+    /**
+     * Smaller and cheaper than gzip, but only recent browsers ask for it. Compresses in blocks of up to
+     * 128KB, so a flush does not push out what is written so far.
+     */
+    ZSTD("zstd", false) {
+        @Override
+        OutputStream compress(OutputStream outputStream) throws IOException {
+            return new ZstdOutputStream(outputStream);
+        }
+    },
+    /**
+     * Understood by every client. A flush pushes out what is written so far.
+     */
+    GZIP("gzip", true) {
+        @Override
+        OutputStream compress(OutputStream outputStream) throws IOException {
+            return new GZIPOutputStream(outputStream, 8192, true);
+        }
+    };
+
+    private final String token;
+    private final boolean flushable;
+
+    ContentCoding(String token, boolean flushable) {
+        this.token = token;
+        this.flushable = flushable;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * @return whether a flush pushes out what is written so far, which streamed bodies need
+     */
+    public boolean isFlushable() {
+        return flushable;
+    }
+
+    /**
+     * @return a stream compressing into the given one, which is closed with it
+     */
+    abstract OutputStream compress(OutputStream outputStream) throws IOException;
+
+    public static ContentCoding fromToken(String token) {
+        for (ContentCoding contentCoding : values()) {
+            if (contentCoding.token.equalsIgnoreCase(token.trim())) {
+                return contentCoding;
+            }
+        }
+        throw new IllegalArgumentException("Unknown content coding: " + token);
+    }
+
+    /**
+     * Picks the coding the client weighs highest in its Accept-Encoding, the first one of {@code preferred}
+     * on ties.
+     *
+     * @return null when the client accepts none of them
+     */
+    public static ContentCoding negotiate(String acceptEncoding, Collection<ContentCoding> preferred) {
+        if (!StringUtils.hasText(acceptEncoding)) {
+            return null;
+        }
+        Map<String, Double> weights = new HashMap<>();
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            weights.put(parts[0].trim().toLowerCase(Locale.ROOT), weight(parts));
+        }
+
+        ContentCoding chosen = null;
+        double chosenWeight = 0;
+        for (ContentCoding contentCoding : preferred) {
+            double weight = weights.getOrDefault(contentCoding.token, weights.getOrDefault("*", 0.0));
+            if (weight > chosenWeight) {
+                chosen = contentCoding;
+                chosenWeight = weight;
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * A compressed body is another representation than the identity one, so it must not keep the strong ETag
+     * of that one. Weakening it still answers If-None-Match, which compares weakly.
+     *
+     * @return the weak form of the ETag, null when there is none
+     */
+    static String weakETag(String eTag) {
+        return eTag == null || eTag.startsWith("W/") ? eTag : "W/" + eTag;
+    }
+
+    /**
+     * Malformed weights count as 0, so a coding is only used when the client clearly accepts it.
+     */
+    private static double weight(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
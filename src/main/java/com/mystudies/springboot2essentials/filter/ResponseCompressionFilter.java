@@ -0,0 +1,139 @@
+package com.mystudies.springboot2essentials.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compresses response bodies of at least {@code min-response-size} bytes with the best coding the client
+ * accepts, see {@link CompressingResponseWrapper}. Wraps {@link AnimeResponseCacheFilter}, whose gzipped hits
+ * already carry a Content-Encoding and go out as they are. Async bodies, such as the NDJSON stream, are
+ * compressed with the best coding the client accepts that can flush, and are finished on the async dispatch.
+ * <p>
+ * Per coding, publishes the bytes before and after compression, the bytes saved, and the CPU time spent
+ * compressing.
+ */
+@Component
+@Profile("!reactive")
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+@ConditionalOnProperty(prefix = "essentials.compression", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class ResponseCompressionFilter extends OncePerRequestFilter {
+    private static final String WRAPPER_ATTRIBUTE = ResponseCompressionFilter.class.getName() + ".WRAPPER";
+
+    private final int minResponseSize;
+    private final List<MediaType> mimeTypes;
+    private final List<ContentCoding> contentCodings;
+    private final List<ContentCoding> streamingContentCodings;
+    private final Map<ContentCoding, Meters> meters = new EnumMap<>(ContentCoding.class);
+
+    public ResponseCompressionFilter(
+            MeterRegistry meterRegistry,
+            @Value("${essentials.compression.min-response-size:2KB}") DataSize minResponseSize,
+            @Value("${essentials.compression.mime-types:application/json,application/x-protobuf,"
+                    + "application/x-ndjson,text/plain}") List<String> mimeTypes,
+            @Value("${essentials.compression.encodings:zstd,gzip}") List<String> encodings) {
+        this.minResponseSize = (int) minResponseSize.toBytes();
+        this.mimeTypes = mimeTypes.stream().map(MediaType::parseMediaType).toList();
+        this.contentCodings = encodings.stream().map(ContentCoding::fromToken).toList();
+        this.streamingContentCodings = contentCodings.stream().filter(ContentCoding::isFlushable).toList();
+        contentCodings.forEach(contentCoding -> meters.put(contentCoding, new Meters(meterRegistry, contentCoding)));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CompressingResponseWrapper responseWrapper;
+        if (isAsyncDispatch(request)) {
+            responseWrapper = (CompressingResponseWrapper) request.getAttribute(WRAPPER_ATTRIBUTE);
+            chain.doFilter(request, response);
+        } else {
+            String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+            responseWrapper = new CompressingResponseWrapper(request, response,
+                    ContentCoding.negotiate(acceptEncoding, contentCodings),
+                    ContentCoding.negotiate(acceptEncoding, streamingContentCodings), minResponseSize, mimeTypes);
+            chain.doFilter(request, responseWrapper);
+        }
+        if (request.isAsyncStarted()) {
+            request.setAttribute(WRAPPER_ATTRIBUTE, responseWrapper);
+            return;
+        }
+        if (responseWrapper == null) {
+            return;
+        }
+
+        request.removeAttribute(WRAPPER_ATTRIBUTE);
+        responseWrapper.finish();
+        ContentCoding applied = responseWrapper.getAppliedContentCoding();
+        if (applied != null) {
+            meters.get(applied).record(responseWrapper);
+        }
+    }
+
+    /**
+     * Async bodies are written after the initial dispatch returns, so they are finished on the async one.
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    private static final class Meters {
+        private final Counter bytesIn;
+        private final Counter bytesOut;
+        private final Counter bytesSaved;
+        private final Timer cpuTime;
+
+        private Meters(MeterRegistry meterRegistry, ContentCoding contentCoding) {
+            String encoding = contentCoding.getToken();
+            bytesIn = Counter.builder("http.server.compression.input")
+                    .description("Response bytes handed to the compressor")
+                    .baseUnit("bytes")
+                    .tag("encoding", encoding)
+                    .register(meterRegistry);
+            bytesOut = Counter.builder("http.server.compression.output")
+                    .description("Compressed response bytes sent")
+                    .baseUnit("bytes")
+                    .tag("encoding", encoding)
+                    .register(meterRegistry);
+            bytesSaved = Counter.builder("http.server.compression.saved")
+                    .description("Response bytes compression kept off the wire, bodies that grew count as 0")
+                    .baseUnit("bytes")
+                    .tag("encoding", encoding)
+                    .register(meterRegistry);
+            cpuTime = Timer.builder("http.server.compression.cpu")
+                    .description("CPU time spent compressing a response body")
+                    .tag("encoding", encoding)
+                    .register(meterRegistry);
+        }
+
+        private void record(CompressingResponseWrapper responseWrapper) {
+            long in = responseWrapper.getBytesIn();
+            long out = responseWrapper.getBytesOut();
+            bytesIn.increment(in);
+            bytesOut.increment(out);
+            bytesSaved.increment(Math.max(0, in - out));
+            cpuTime.record(responseWrapper.getCpuNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -2,9 +2,13 @@ package com.mystudies.springboot2essentials.handler;
 
 import com.mystudies.springboot2essentials.exception.BadRequestException;
 import com.mystudies.springboot2essentials.exception.BadRequestExceptionDetails;
+import com.mystudies.springboot2essentials.exception.ConflictException;
+import com.mystudies.springboot2essentials.exception.ConflictExceptionDetails;
 import com.mystudies.springboot2essentials.exception.ExceptionDetails;
 import com.mystudies.springboot2essentials.exception.ValidationExceptionDetails;
+import com.mystudies.springboot2essentials.util.CachedClock;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -16,19 +20,19 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
-import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.StringJoiner;
 
 @Log4j2
 @ControllerAdvice
+@Profile("!reactive")
 public class RestExceptionHandler extends ResponseEntityExceptionHandler {
 
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<BadRequestExceptionDetails> handleBadRequestException(BadRequestException bre) {
         return new ResponseEntity<>(
                 BadRequestExceptionDetails.builder()
-                        .timestamp(LocalDateTime.now())
+                        .timestamp(CachedClock.now())
                         .status(HttpStatus.BAD_REQUEST.value())
                         .title("Bad Request Exception. Check the documentation.")
                         .details(bre.getMessage())
@@ -36,24 +40,40 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
                         .build(), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ConflictExceptionDetails> handleConflictException(ConflictException ce) {
+        return new ResponseEntity<>(
+                ConflictExceptionDetails.builder()
+                        .timestamp(CachedClock.now())
+                        .status(HttpStatus.CONFLICT.value())
+                        .title("Conflict Exception. Check the documentation.")
+                        .details(ce.getMessage())
+                        .developerMessage(ce.getClass().getName())
+                        .build(), HttpStatus.CONFLICT);
+    }
+
     @Override
     public ResponseEntity<Object> handleMethodArgumentNotValid(
             MethodArgumentNotValidException exception, HttpHeaders headers, HttpStatus status, WebRequest request) {
 
         List<FieldError> fieldErrors = exception.getBindingResult().getFieldErrors();
 
-        String fields = fieldErrors.stream().map(FieldError::getField).collect(Collectors.joining(", "));
-        String fieldsMessage = fieldErrors.stream().map(FieldError::getDefaultMessage).collect(Collectors.joining(", "));
+        StringJoiner fields = new StringJoiner(", ");
+        StringJoiner fieldsMessage = new StringJoiner(", ");
+        for (FieldError fieldError : fieldErrors) {
+            fields.add(fieldError.getField());
+            fieldsMessage.add(fieldError.getDefaultMessage());
+        }
 
         return new ResponseEntity<>(
                 ValidationExceptionDetails.builder()
-                        .timestamp(LocalDateTime.now())
+                        .timestamp(CachedClock.now())
                         .status(HttpStatus.BAD_REQUEST.value())
                         .title("Bad Request Exception. Invalid fields.")
                         .details("Check the field(s) error.")
                         .developerMessage(exception.getClass().getName())
-                        .fields(fields)
-                        .fieldsMessage(fieldsMessage)
+                        .fields(fields.toString())
+                        .fieldsMessage(fieldsMessage.toString())
                         .build(), HttpStatus.BAD_REQUEST);
     }
 
@@ -62,7 +82,7 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
             Exception ex, @Nullable Object body, HttpHeaders headers, HttpStatus status, WebRequest request) {
 
         ExceptionDetails exceptionDetails = ExceptionDetails.builder()
-                .timestamp(LocalDateTime.now())
+                .timestamp(CachedClock.now())
                 .status(status.value())
                 .title(ex.getCause().getMessage())
                 .details(ex.getMessage())
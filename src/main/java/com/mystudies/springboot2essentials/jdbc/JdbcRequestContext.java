@@ -0,0 +1,45 @@
+package com.mystudies.springboot2essentials.jdbc;
+
+/**
+ * The handler the current thread runs JDBC statements for, and how many it ran so far. Set by
+ * {@link StatementCountingInterceptor} for the time a request is handled, absent on any other thread.
+ */
+final class JdbcRequestContext {
+    private static final ThreadLocal<JdbcRequestContext> CURRENT = new ThreadLocal<>();
+
+    private final String handler;
+    private int statements;
+
+    private JdbcRequestContext(String handler) {
+        this.handler = handler;
+    }
+
+    static void start(String handler) {
+        CURRENT.set(new JdbcRequestContext(handler));
+    }
+
+    static JdbcRequestContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return the context the thread had, null when it had none
+     */
+    static JdbcRequestContext end() {
+        JdbcRequestContext context = CURRENT.get();
+        CURRENT.remove();
+        return context;
+    }
+
+    String getHandler() {
+        return handler;
+    }
+
+    int getStatements() {
+        return statements;
+    }
+
+    void statementExecuted() {
+        statements++;
+    }
+}
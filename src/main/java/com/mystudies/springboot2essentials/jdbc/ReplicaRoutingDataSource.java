@@ -0,0 +1,222 @@
+package com.mystudies.springboot2essentials.jdbc;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs read-only transactions on the least loaded replica and everything else, statements outside transactions
+ * included, on the primary. Connections are fetched lazily, on the first statement of the transaction, as its
+ * read-only flag is only known once it began.
+ * <p>
+ * For {@code stickyFor} after a read-write transaction commits, the read-only transactions of the same writer, as
+ * told by {@code writer}, run on the primary too, so whoever wrote reads their write back even while the replicas
+ * lag behind; everyone else keeps reading from the replicas. Caches refilled by others after a write evicted them
+ * read the rows just written through {@link #onPrimary(Supplier)}, so they do not load the version the write
+ * replaced.
+ * <p>
+ * Connections are counted as {@code jdbc.connections.routed} by route, see {@link #bindTo(MeterRegistry)}.
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+    static final String METRIC_NAME = "jdbc.connections.routed";
+    private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+
+    private final HikariDataSource primary;
+    private final List<HikariDataSource> replicas;
+    private final Supplier<String> writer;
+    private final Cache<String, Boolean> stickyWriters;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Map<Route, LongAdder> routed = new EnumMap<>(Route.class);
+
+    /**
+     * @param writer tells who runs the current transaction, e.g. the authenticated user; null when nobody is known,
+     *               whose writes then open no window
+     */
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, Duration stickyFor,
+                                    Supplier<String> writer) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("At least one replica is needed");
+        }
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.writer = writer;
+        this.stickyWriters = Caffeine.newBuilder().expireAfterWrite(stickyFor).build();
+        for (Route route : Route.values()) {
+            routed.put(route, new LongAdder());
+        }
+        setTargetDataSource(new Router());
+    }
+
+    /**
+     * @return the primary pool first, then the replica pools
+     */
+    public List<HikariDataSource> getPools() {
+        List<HikariDataSource> pools = new ArrayList<>(replicas.size() + 1);
+        pools.add(primary);
+        pools.addAll(replicas);
+        return pools;
+    }
+
+    /**
+     * Publishes the routed connection counts, and the {@code hikaricp.*} metrics of the pools Spring Boot does not
+     * see: it only reaches the primary, through {@link #unwrap(Class)}.
+     */
+    public void bindTo(MeterRegistry meterRegistry) {
+        routed.forEach((route, count) -> FunctionCounter.builder(METRIC_NAME, count, LongAdder::sum)
+                .description("Connections handed out, by the pool they were taken from and why")
+                .tag("route", route.tag)
+                .register(meterRegistry));
+        for (HikariDataSource pool : getPools()) {
+            if (pool.getMetricRegistry() == null && pool.getMetricsTrackerFactory() == null) {
+                pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            }
+        }
+    }
+
+    /**
+     * Closes every pool; called by Spring when the context closes.
+     */
+    @Override
+    public void close() {
+        getPools().forEach(HikariDataSource::close);
+    }
+
+    /**
+     * Runs the read-only transactions of the given supplier on the primary, for reads that must see a write
+     * committed a moment ago whoever made it. Does nothing without replicas.
+     */
+    public static <T> T onPrimary(Supplier<T> reads) {
+        Boolean previous = PRIMARY_READS.get();
+        PRIMARY_READS.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_READS.remove();
+            }
+        }
+    }
+
+    DataSource route() {
+        String currentWriter = writer.get();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (currentWriter != null && TransactionSynchronizationManager.isActualTransactionActive()
+                    && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new StickAfterCommit(currentWriter));
+            }
+            routed.get(Route.READ_WRITE).increment();
+            return primary;
+        }
+        if (PRIMARY_READS.get() != null) {
+            routed.get(Route.RECENT_CHANGE).increment();
+            return primary;
+        }
+        if (currentWriter != null && stickyWriters.getIfPresent(currentWriter) != null) {
+            routed.get(Route.READ_YOUR_WRITES).increment();
+            return primary;
+        }
+        routed.get(Route.REPLICA).increment();
+        return leastLoadedReplica();
+    }
+
+    /**
+     * The replica with the fewest connections in use; ties are broken round-robin, so idle replicas share the
+     * load evenly.
+     */
+    private HikariDataSource leastLoadedReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        HikariDataSource leastLoaded = null;
+        int fewestActive = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            HikariDataSource replica = replicas.get((start + i) % size);
+            HikariPoolMXBean pool = replica.getHikariPoolMXBean();
+            int active = pool == null ? 0 : pool.getActiveConnections();
+            if (active < fewestActive) {
+                leastLoaded = replica;
+                fewestActive = active;
+            }
+        }
+        return leastLoaded;
+    }
+
+    private enum Route {
+        READ_WRITE("read-write"),
+        READ_YOUR_WRITES("read-your-writes"),
+        RECENT_CHANGE("recent-change"),
+        REPLICA("replica");
+
+        private final String tag;
+
+        Route(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * Opens the writer's window first, before the listeners of the committed changes read anything back.
+     */
+    private class StickAfterCommit implements TransactionSynchronization, Ordered {
+        private final String stickyWriter;
+
+        private StickAfterCommit(String stickyWriter) {
+            this.stickyWriter = stickyWriter;
+        }
+
+        @Override
+        public void afterCommit() {
+            stickyWriters.put(stickyWriter, Boolean.TRUE);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+
+    /**
+     * The data source the lazy connections are taken from; unwraps to the primary pool.
+     */
+    private class Router extends AbstractDataSource {
+        @Override
+        public Connection getConnection() throws SQLException {
+            return route().getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return route().getConnection(username, password);
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            return iface.isInstance(this) ? iface.cast(this) : primary.unwrap(iface);
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) throws SQLException {
+            return iface.isInstance(this) || primary.isWrapperFor(iface);
+        }
+    }
+}
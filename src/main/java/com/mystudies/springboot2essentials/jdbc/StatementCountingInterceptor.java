@@ -0,0 +1,85 @@
+package com.mystudies.springboot2essentials.jdbc;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the JDBC statements each handler runs, response rendering and lazy loading included, as
+ * {@code http.server.requests.statements} per method and URI. Requests running more than
+ * {@code max-statements-per-request} are logged, which usually is a lazy association loaded per row (N+1 selects).
+ * <p>
+ * Statements run before the handler, such as loading the user to authenticate, are not counted; neither are the
+ * ones an async request, such as the /animes/stream export, runs on another thread.
+ */
+@Log4j2
+@Component
+@Profile("!reactive")
+public class StatementCountingInterceptor implements AsyncHandlerInterceptor {
+    static final String METRIC_NAME = "http.server.requests.statements";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxStatementsPerRequest;
+
+    public StatementCountingInterceptor(
+            MeterRegistry meterRegistry,
+            @Value("${essentials.jdbc.max-statements-per-request:20}") int maxStatementsPerRequest) {
+        this.meterRegistry = meterRegistry;
+        this.maxStatementsPerRequest = maxStatementsPerRequest;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.REQUEST) {
+            JdbcRequestContext.start(handlerName(handler));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        JdbcRequestContext.end();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        JdbcRequestContext context = JdbcRequestContext.end();
+        if (context == null) {
+            return;
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        int statements = context.getStatements();
+        DistributionSummary.builder(METRIC_NAME)
+                .description("JDBC statements run per request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements);
+        if (statements > maxStatementsPerRequest) {
+            log.warn("{} ran {} JDBC statements for {} {}, more than the {} expected", context.getHandler(),
+                    statements, request.getMethod(), uri, maxStatementsPerRequest);
+        }
+    }
+
+    private static String handlerName(Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return handlerMethod.getBeanType().getSimpleName() + "#" + handlerMethod.getMethod().getName();
+        }
+        return handler.getClass().getSimpleName();
+    }
+}
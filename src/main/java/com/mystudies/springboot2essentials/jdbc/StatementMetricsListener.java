@@ -0,0 +1,91 @@
+package com.mystudies.springboot2essentials.jdbc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Times every JDBC statement as {@code jdbc.statements}, tagged with its type and outcome, and counts it for the
+ * request running it, see {@link StatementCountingInterceptor}. A batch counts as one statement.
+ * <p>
+ * Statements taking at least {@code slowStatementThreshold} are logged with the handler that ran them and counted
+ * as {@code jdbc.statements.slow}. Their parameters are left out of the log, as they may hold user data.
+ */
+@Log4j2
+public class StatementMetricsListener implements QueryExecutionListener {
+    static final String METRIC_NAME = "jdbc.statements";
+    static final String SLOW_METRIC_NAME = "jdbc.statements.slow";
+    private static final String START = StatementMetricsListener.class.getName() + ".START";
+
+    private final MeterRegistry meterRegistry;
+    private final long slowStatementThresholdNanos;
+    private final Map<QueryType, Timer> succeeded = new EnumMap<>(QueryType.class);
+    private final Map<QueryType, Timer> failed = new EnumMap<>(QueryType.class);
+
+    public StatementMetricsListener(MeterRegistry meterRegistry, Duration slowStatementThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowStatementThresholdNanos = slowStatementThreshold.toNanos();
+        for (QueryType type : QueryType.values()) {
+            succeeded.put(type, timer(type, "success"));
+            failed.put(type, timer(type, "error"));
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = System.nanoTime() - execInfo.getCustomValue(START, Long.class);
+        QueryType type = queryInfoList.isEmpty() ? QueryType.OTHER : queryType(queryInfoList.get(0).getQuery());
+        (execInfo.isSuccess() ? succeeded : failed).get(type).record(elapsed, TimeUnit.NANOSECONDS);
+
+        JdbcRequestContext context = JdbcRequestContext.current();
+        if (context != null) {
+            context.statementExecuted();
+        }
+        if (elapsed >= slowStatementThresholdNanos) {
+            String handler = context == null ? "none" : context.getHandler();
+            meterRegistry.counter(SLOW_METRIC_NAME, "handler", handler).increment();
+            log.warn("Slow statement took {} ms in {}: {}", TimeUnit.NANOSECONDS.toMillis(elapsed), handler,
+                    queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; ")));
+        }
+    }
+
+    private Timer timer(QueryType type, String outcome) {
+        return Timer.builder(METRIC_NAME)
+                .description("Time spent executing JDBC statements")
+                .tag("type", type.name().toLowerCase())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Looks at the first keyword only, where {@code QueryUtils} strips comments with regular expressions first.
+     */
+    static QueryType queryType(String sql) {
+        int start = 0;
+        while (start < sql.length() && (Character.isWhitespace(sql.charAt(start)) || sql.charAt(start) == '(')) {
+            start++;
+        }
+        for (QueryType type : QueryType.values()) {
+            if (type != QueryType.OTHER && sql.regionMatches(true, start, type.name(), 0, type.name().length())) {
+                return type;
+            }
+        }
+        return sql.regionMatches(true, start, "with", 0, 4) ? QueryType.SELECT : QueryType.OTHER;
+    }
+}
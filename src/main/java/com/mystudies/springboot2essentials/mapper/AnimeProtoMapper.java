@@ -0,0 +1,85 @@
+package com.mystudies.springboot2essentials.mapper;
+
+import com.mystudies.springboot2essentials.domain.Anime;
+import com.mystudies.springboot2essentials.proto.AnimeProtos;
+import com.mystudies.springboot2essentials.requests.AnimePostRequestBody;
+import com.mystudies.springboot2essentials.requests.AnimePutRequestBody;
+import com.mystudies.springboot2essentials.wrapper.PageableResponse;
+import org.springframework.data.domain.Page;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Maps animes to the messages of anime.proto and back. Written by hand, as protobuf builders reject nulls
+ * and tell unset fields apart with hasX() methods, which MapStruct does not follow.
+ */
+public final class AnimeProtoMapper {
+
+    private AnimeProtoMapper() {
+    }
+
+    public static AnimeProtos.Anime toProto(Anime anime) {
+        AnimeProtos.Anime.Builder builder = AnimeProtos.Anime.newBuilder()
+                .setVersion(anime.getVersion());
+        if (anime.getId() != null) {
+            builder.setId(anime.getId());
+        }
+        if (anime.getName() != null) {
+            builder.setName(anime.getName());
+        }
+        return builder.build();
+    }
+
+    public static AnimeProtos.AnimeList toAnimeList(Collection<Anime> animes) {
+        AnimeProtos.AnimeList.Builder builder = AnimeProtos.AnimeList.newBuilder();
+        animes.forEach(anime -> builder.addAnimes(toProto(anime)));
+        return builder.build();
+    }
+
+    public static AnimeProtos.AnimePage toAnimePage(Page<Anime> page) {
+        AnimeProtos.AnimePage.Builder builder = AnimeProtos.AnimePage.newBuilder()
+                .setNumber(page.getNumber())
+                .setSize(page.getSize())
+                .setTotalElements(page.getTotalElements())
+                .setTotalPages(page.getTotalPages())
+                .setNumberOfElements(page.getNumberOfElements())
+                .setFirst(page.isFirst())
+                .setLast(page.isLast());
+        page.getContent().forEach(anime -> builder.addContent(toProto(anime)));
+        return builder.build();
+    }
+
+    public static Anime toAnime(AnimeProtos.Anime anime) {
+        return new Anime(anime.getId(), anime.getName(), anime.getVersion());
+    }
+
+    public static List<Anime> toAnimes(AnimeProtos.AnimeList animeList) {
+        return animeList.getAnimesList().stream().map(AnimeProtoMapper::toAnime).toList();
+    }
+
+    public static PageableResponse<Anime> toPageableResponse(AnimeProtos.AnimePage animePage) {
+        return new PageableResponse<>(
+                animePage.getContentList().stream().map(AnimeProtoMapper::toAnime).toList(),
+                animePage.getNumber(),
+                animePage.getSize(),
+                (int) animePage.getTotalElements(),
+                animePage.getLast(),
+                animePage.getFirst(),
+                animePage.getTotalPages(),
+                animePage.getNumberOfElements(),
+                null,
+                null);
+    }
+
+    public static AnimePostRequestBody toAnimePostRequestBody(AnimeProtos.AnimePostRequest request) {
+        return new AnimePostRequestBody(request.getName());
+    }
+
+    public static AnimePutRequestBody toAnimePutRequestBody(AnimeProtos.AnimePutRequest request) {
+        return new AnimePutRequestBody(
+                request.hasId() ? request.getId() : null,
+                request.getName(),
+                request.hasVersion() ? request.getVersion() : null);
+    }
+}
@@ -0,0 +1,117 @@
+package com.mystudies.springboot2essentials.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mystudies.springboot2essentials.security.RouteGroup;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lets at most {@code essentials.load-shedding.<group>.max-concurrent-requests} requests per {@link RouteGroup}
+ * in at once and answers 503 to the ones beyond, instead of queueing them for a thread or a JDBC connection
+ * until they time out. Runs before the Spring Security filters, so a flood costs no password checks either.
+ * <p>
+ * An async request, such as the /animes/stream export, holds its slot until it completes.
+ */
+@Component
+@Profile("!reactive")
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+@ConditionalOnProperty(prefix = "essentials.load-shedding", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class LoadSheddingFilter extends OncePerRequestFilter {
+    private static final String PROPERTY_PREFIX = "essentials.load-shedding.";
+
+    private final ObjectMapper objectMapper;
+    private final Map<RouteGroup, Limit> limits = new EnumMap<>(RouteGroup.class);
+
+    public LoadSheddingFilter(Environment environment, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        limits.put(RouteGroup.USERS_ADMIN, limit(environment, meterRegistry, RouteGroup.USERS_ADMIN, 4));
+        limits.put(RouteGroup.ANIMES_ADMIN, limit(environment, meterRegistry, RouteGroup.ANIMES_ADMIN, 4));
+        limits.put(RouteGroup.ANIMES, limit(environment, meterRegistry, RouteGroup.ANIMES, 100));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RouteGroup routeGroup = RouteGroup.of(request);
+        if (routeGroup == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Limit limit = limits.get(routeGroup);
+        if (limit.inFlight().incrementAndGet() > limit.maxConcurrentRequests()) {
+            limit.inFlight().decrementAndGet();
+            limit.rejected().increment();
+            Rejection.send(response, objectMapper, HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable. Retry later.",
+                    "More than " + limit.maxConcurrentRequests() + " requests to " + routeGroup.getName()
+                            + " at once", 1, getClass());
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new Release(limit.inFlight()));
+            } else {
+                limit.inFlight().decrementAndGet();
+            }
+        }
+    }
+
+    private static Limit limit(Environment environment, MeterRegistry meterRegistry, RouteGroup routeGroup,
+                               int defaultMaxConcurrentRequests) {
+        int maxConcurrentRequests = environment.getProperty(
+                PROPERTY_PREFIX + routeGroup.getName() + ".max-concurrent-requests", Integer.class,
+                defaultMaxConcurrentRequests);
+        AtomicInteger inFlight = new AtomicInteger();
+        Gauge.builder("http.server.requests.in.flight", inFlight, AtomicInteger::get)
+                .description("Requests being handled")
+                .tag("group", routeGroup.getName())
+                .register(meterRegistry);
+        return new Limit(maxConcurrentRequests, inFlight,
+                Rejection.counter(meterRegistry, routeGroup, "overload"));
+    }
+
+    private record Limit(int maxConcurrentRequests, AtomicInteger inFlight, Counter rejected) {
+    }
+
+    private record Release(AtomicInteger inFlight) implements AsyncListener {
+        @Override
+        public void onComplete(AsyncEvent event) {
+            inFlight.decrementAndGet();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.mystudies.springboot2essentials.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mystudies.springboot2essentials.security.RouteGroup;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gives every user a {@link TokenBucket} per {@link RouteGroup}, refilled with
+ * {@code essentials.rate-limit.<group>.permits-per-second} up to {@code burst} tokens, and answers 429 with a
+ * Retry-After to requests finding it empty. Runs right after the Spring Security filters, so the user is known
+ * and rejected requests never reach {@link com.mystudies.springboot2essentials.filter.AnimeResponseCacheFilter}.
+ * <p>
+ * A bucket left alone until it is full again is dropped, as a new one would be the same.
+ */
+@Component
+@Profile("!reactive")
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+@ConditionalOnProperty(prefix = "essentials.rate-limit", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final String PROPERTY_PREFIX = "essentials.rate-limit.";
+    private static final int MAXIMUM_USERS = 100_000;
+
+    private final ObjectMapper objectMapper;
+    private final Map<RouteGroup, Limit> limits = new EnumMap<>(RouteGroup.class);
+
+    public RateLimitFilter(Environment environment, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        limits.put(RouteGroup.USERS_ADMIN, limit(environment, meterRegistry, RouteGroup.USERS_ADMIN, 5, 10));
+        limits.put(RouteGroup.ANIMES_ADMIN, limit(environment, meterRegistry, RouteGroup.ANIMES_ADMIN, 5, 20));
+        limits.put(RouteGroup.ANIMES, limit(environment, meterRegistry, RouteGroup.ANIMES, 50, 100));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RouteGroup routeGroup = RouteGroup.of(request);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (routeGroup == null || authentication == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Limit limit = limits.get(routeGroup);
+        long now = System.nanoTime();
+        long wait = limit.buckets()
+                .get(authentication.getName(), user -> new TokenBucket(limit.permitsPerSecond(), limit.burst(), now))
+                .tryAcquire(now);
+        if (wait > 0) {
+            limit.rejected().increment();
+            Rejection.send(response, objectMapper, HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests. Retry later.",
+                    "More than " + limit.permitsPerSecond() + " requests per second to " + routeGroup.getName(),
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999)), getClass());
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static Limit limit(Environment environment, MeterRegistry meterRegistry, RouteGroup routeGroup,
+                               double defaultPermitsPerSecond, int defaultBurst) {
+        String prefix = PROPERTY_PREFIX + routeGroup.getName();
+        double permitsPerSecond = environment.getProperty(prefix + ".permits-per-second", Double.class,
+                defaultPermitsPerSecond);
+        int burst = environment.getProperty(prefix + ".burst", Integer.class, defaultBurst);
+        Cache<String, TokenBucket> buckets = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_USERS)
+                .expireAfterAccess(Duration.ofNanos((long) (burst / permitsPerSecond * 1_000_000_000L)))
+                .build();
+        return new Limit(permitsPerSecond, burst, buckets, Rejection.counter(meterRegistry, routeGroup, "rate-limit"));
+    }
+
+    private record Limit(double permitsPerSecond, int burst, Cache<String, TokenBucket> buckets,
+                         Counter rejected) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.mystudies.springboot2essentials.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mystudies.springboot2essentials.exception.ExceptionDetails;
+import com.mystudies.springboot2essentials.security.RouteGroup;
+import com.mystudies.springboot2essentials.util.CachedClock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Answers a request turned away by {@link RateLimitFilter} or {@link LoadSheddingFilter}, with the same body
+ * {@link com.mystudies.springboot2essentials.handler.RestExceptionHandler} sends for errors.
+ */
+final class Rejection {
+    private Rejection() {
+    }
+
+    /**
+     * Counts the requests of a group turned away for the given reason.
+     */
+    static Counter counter(MeterRegistry meterRegistry, RouteGroup routeGroup, String reason) {
+        return Counter.builder("http.server.requests.rejected")
+                .description("Requests turned away before being handled")
+                .tag("group", routeGroup.getName())
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    static void send(HttpServletResponse response, ObjectMapper objectMapper, HttpStatus status, String title,
+                     String details, long retryAfterSeconds, Class<?> rejectedBy) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ExceptionDetails.builder()
+                .timestamp(CachedClock.now())
+                .status(status.value())
+                .title(title)
+                .details(details)
+                .developerMessage(rejectedBy.getName())
+                .build());
+    }
+}
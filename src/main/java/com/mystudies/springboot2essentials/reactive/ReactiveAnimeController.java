@@ -0,0 +1,108 @@
+package com.mystudies.springboot2essentials.reactive;
+
+import com.mystudies.springboot2essentials.domain.Anime;
+import com.mystudies.springboot2essentials.requests.AnimePostRequestBody;
+import com.mystudies.springboot2essentials.requests.AnimePutRequestBody;
+import com.mystudies.springboot2essentials.requests.CursorPageRequest;
+import com.mystudies.springboot2essentials.search.AnimeSearchMode;
+import com.mystudies.springboot2essentials.wrapper.CursorPageableResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import java.util.List;
+
+/**
+ * The {@code /animes} routes of {@link com.mystudies.springboot2essentials.controller.AnimeController} on
+ * WebFlux, with the same paths, parameters, status codes and bodies. The bulk routes and the FULL_TEXT search
+ * mode are only served by the servlet stack.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping(path = "animes")
+@RequiredArgsConstructor
+public class ReactiveAnimeController {
+
+    private final ReactiveAnimeService animeService;
+
+    @GetMapping
+    public Mono<ResponseEntity<Page<Anime>>> listAll(Pageable pageable) {
+        return animeService.listAll(pageable).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(path = "/cursor")
+    public Mono<ResponseEntity<CursorPageableResponse<Anime>>> listAllByCursor(CursorPageRequest cursorPageRequest) {
+        return animeService.listAllByCursor(cursorPageRequest).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(path = "/all")
+    public Mono<ResponseEntity<List<Anime>>> listAllNonPageable() {
+        return animeService.listAllNonPageable().collectList().map(ResponseEntity::ok);
+    }
+
+    /**
+     * Rows are written as R2DBC emits them, so memory stays constant regardless of the catalog size.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Anime> streamAll() {
+        return animeService.listAllNonPageable();
+    }
+
+    @GetMapping(path = "/{id}")
+    public Mono<ResponseEntity<Anime>> findById(@PathVariable long id) {
+        return animeService.findByIdOrThrowBadRequestException(id).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(path = "/findByName")
+    public Mono<ResponseEntity<List<Anime>>> findByName(@RequestParam String name) {
+        return animeService.findByName(name).collectList().map(ResponseEntity::ok);
+    }
+
+    @GetMapping(path = "/search")
+    public Mono<ResponseEntity<Slice<Anime>>> search(@RequestParam String name,
+                                                     @RequestParam(defaultValue = "EXACT") AnimeSearchMode mode,
+                                                     Pageable pageable) {
+        Mono<Slice<Anime>> animes = switch (mode) {
+            case EXACT -> animeService.findByName(name).collectList().map(SliceImpl::new);
+            case PREFIX -> animeService.findByNamePrefix(name, pageable);
+            case FULL_TEXT -> animeService.searchByName(name, pageable).map(page -> page);
+        };
+        return animes.map(ResponseEntity::ok);
+    }
+
+    @PostMapping(path = "/admin")
+    public Mono<ResponseEntity<Anime>> save(@RequestBody @Valid AnimePostRequestBody animePostRequestBody) {
+        return animeService.save(animePostRequestBody)
+                .map(anime -> new ResponseEntity<>(anime, HttpStatus.CREATED));
+    }
+
+    @DeleteMapping(path = "/admin/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable long id) {
+        return animeService.delete(id)
+                .then(Mono.fromSupplier(() -> new ResponseEntity<>(HttpStatus.NO_CONTENT)));
+    }
+
+    @PutMapping(path = "/admin")
+    public Mono<ResponseEntity<Void>> replace(@RequestBody @Valid AnimePutRequestBody animePutRequestBody) {
+        return animeService.replace(animePutRequestBody)
+                .then(Mono.fromSupplier(() -> new ResponseEntity<>(HttpStatus.NO_CONTENT)));
+    }
+}
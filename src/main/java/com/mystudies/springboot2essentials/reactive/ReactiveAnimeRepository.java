@@ -0,0 +1,162 @@
+package com.mystudies.springboot2essentials.reactive;
+
+import com.mystudies.springboot2essentials.domain.Anime;
+import com.mystudies.springboot2essentials.exception.BadRequestException;
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking counterpart of {@link com.mystudies.springboot2essentials.repository.AnimeRepository}, with the
+ * same queries written as plain SQL over {@link DatabaseClient}.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveAnimeRepository {
+    private static final String SELECT_ANIME = "select id, name, version from anime";
+    private static final Set<String> SORTABLE_COLUMNS = Set.of("id", "name");
+    private static final char LIKE_ESCAPE = '!';
+
+    private final DatabaseClient databaseClient;
+
+    public Flux<Anime> findAll(Pageable pageable) {
+        return databaseClient.sql(SELECT_ANIME + orderBy(pageable.getSortOr(Sort.by("id")))
+                        + " limit :limit offset :offset")
+                .bind("limit", pageable.getPageSize())
+                .bind("offset", pageable.getOffset())
+                .map(ReactiveAnimeRepository::toAnime)
+                .all();
+    }
+
+    public Flux<Anime> findAll() {
+        return databaseClient.sql(SELECT_ANIME + " order by id")
+                .map(ReactiveAnimeRepository::toAnime)
+                .all();
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql("select count(*) as total from anime")
+                .map(row -> row.get("total", Long.class))
+                .one();
+    }
+
+    /**
+     * @param after id the page starts after, or null for the first page
+     */
+    public Flux<Anime> findByIdGreaterThanOrderByIdAsc(Long after, int limit) {
+        return databaseClient.sql(SELECT_ANIME + " where id > :after order by id limit :limit")
+                .bind("after", after == null ? 0L : after)
+                .bind("limit", limit)
+                .map(ReactiveAnimeRepository::toAnime)
+                .all();
+    }
+
+    public Mono<Anime> findById(long id) {
+        return databaseClient.sql(SELECT_ANIME + " where id = :id")
+                .bind("id", id)
+                .map(ReactiveAnimeRepository::toAnime)
+                .one();
+    }
+
+    public Flux<Anime> findByName(String name) {
+        return databaseClient.sql(SELECT_ANIME + " where name = :name")
+                .bind("name", name)
+                .map(ReactiveAnimeRepository::toAnime)
+                .all();
+    }
+
+    /**
+     * Same collation rules as the servlet prefix search; reads one row past the page so callers can tell
+     * whether there is a next one without counting.
+     */
+    public Flux<Anime> findByNameStartingWith(String prefix, Pageable pageable) {
+        return databaseClient.sql(SELECT_ANIME + " where name like :prefix escape '" + LIKE_ESCAPE + "'"
+                        + orderBy(pageable.getSort()) + " limit :limit offset :offset")
+                .bind("prefix", escapeLike(prefix) + "%")
+                .bind("limit", pageable.getPageSize() + 1)
+                .bind("offset", pageable.getOffset())
+                .map(ReactiveAnimeRepository::toAnime)
+                .all();
+    }
+
+    public Mono<Boolean> existsById(long id) {
+        return databaseClient.sql("select 1 from anime where id = :id")
+                .bind("id", id)
+                .map(row -> Boolean.TRUE)
+                .first()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    public Mono<Anime> save(Anime anime) {
+        return databaseClient.sql("insert into anime (name, version) values (:name, 0)")
+                .bind("name", anime.getName())
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .map(id -> new Anime(id, anime.getName(), 0));
+    }
+
+    /**
+     * @param version expected version, or null to overwrite whatever is stored
+     * @return the number of updated rows, 0 when the anime is missing or its version changed
+     */
+    public Mono<Integer> updateName(long id, String name, Long version) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(version == null
+                        ? "update anime set name = :name, version = version + 1 where id = :id"
+                        : "update anime set name = :name, version = version + 1 where id = :id and version = :version")
+                .bind("name", name)
+                .bind("id", id);
+        return (version == null ? spec : spec.bind("version", version))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Integer> deleteById(long id) {
+        return databaseClient.sql("delete from anime where id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static Anime toAnime(Row row) {
+        return new Anime(row.get("id", Long.class), row.get("name", String.class), row.get("version", Long.class));
+    }
+
+    /**
+     * Sort properties end up in the SQL text, so only known columns are accepted.
+     */
+    private static String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return "";
+        }
+        return sort.stream()
+                .map(order -> {
+                    if (!SORTABLE_COLUMNS.contains(order.getProperty())) {
+                        throw new BadRequestException("Animes cannot be sorted by " + order.getProperty() + "!");
+                    }
+                    return order.getProperty() + (order.isAscending() ? " asc" : " desc");
+                })
+                .collect(Collectors.joining(", ", " order by ", ""));
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == LIKE_ESCAPE || c == '%' || c == '_') {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,130 @@
+package com.mystudies.springboot2essentials.reactive;
+
+import com.mystudies.springboot2essentials.domain.Anime;
+import com.mystudies.springboot2essentials.exception.BadRequestException;
+import com.mystudies.springboot2essentials.exception.ConflictException;
+import com.mystudies.springboot2essentials.mapper.AnimeMapper;
+import com.mystudies.springboot2essentials.requests.AnimePostRequestBody;
+import com.mystudies.springboot2essentials.requests.AnimePutRequestBody;
+import com.mystudies.springboot2essentials.requests.CursorPageRequest;
+import com.mystudies.springboot2essentials.wrapper.CursorPageableResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Same rules and error messages as {@link com.mystudies.springboot2essentials.service.AnimeService}, without
+ * the id cache and the full-text index, which are built on blocking calls.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveAnimeService {
+    private static final Sort BY_NAME = Sort.by("name", "id");
+
+    private final ReactiveAnimeRepository animeRepository;
+
+    public Mono<Page<Anime>> listAll(Pageable pageable) {
+        return Mono.zip(animeRepository.findAll(pageable).collectList(), animeRepository.count())
+                .map(pageAndTotal -> new PageImpl<>(pageAndTotal.getT1(), pageable, pageAndTotal.getT2()));
+    }
+
+    /**
+     * Reads one row past the page to know whether there is a next one.
+     */
+    public Mono<CursorPageableResponse<Anime>> listAllByCursor(CursorPageRequest cursorPageRequest) {
+        int size = cursorPageRequest.getSize();
+        Mono<Optional<Long>> totalElements = cursorPageRequest.isSkipCount()
+                ? Mono.just(Optional.empty())
+                : animeRepository.count().map(Optional::of);
+
+        return Mono.defer(() -> animeRepository
+                        .findByIdGreaterThanOrderByIdAsc(cursorPageRequest.decodeAfter(), size + 1)
+                        .collectList())
+                .zipWith(totalElements, (animes, total) -> {
+                    boolean hasNext = animes.size() > size;
+                    List<Anime> content = hasNext ? animes.subList(0, size) : animes;
+                    String nextCursor = hasNext
+                            ? CursorPageRequest.encodeCursor(content.get(content.size() - 1).getId())
+                            : null;
+                    return new CursorPageableResponse<>(content, size, hasNext, nextCursor, total.orElse(null));
+                });
+    }
+
+    public Flux<Anime> listAllNonPageable() {
+        return animeRepository.findAll();
+    }
+
+    public Flux<Anime> findByName(String name) {
+        return animeRepository.findByName(name);
+    }
+
+    public Mono<Slice<Anime>> findByNamePrefix(String prefix, Pageable pageable) {
+        if (prefix == null || prefix.isBlank()) {
+            return Mono.error(new BadRequestException("The name cannot be empty nor null!"));
+        }
+        Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                pageable.getSortOr(BY_NAME));
+        return animeRepository.findByNameStartingWith(prefix, sortedPageable)
+                .collectList()
+                .map(animes -> {
+                    boolean hasNext = animes.size() > sortedPageable.getPageSize();
+                    List<Anime> content = hasNext ? animes.subList(0, sortedPageable.getPageSize()) : animes;
+                    return new SliceImpl<>(content, sortedPageable, hasNext);
+                });
+    }
+
+    public Mono<Page<Anime>> searchByName(String text, Pageable pageable) {
+        return Mono.error(new BadRequestException("Full-text search is not available on the reactive stack!"));
+    }
+
+    public Mono<Anime> findByIdOrThrowBadRequestException(long id) {
+        return animeRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new BadRequestException("Anime not found!")));
+    }
+
+    public Mono<Anime> save(AnimePostRequestBody animePostRequestBody) {
+        return animeRepository.save(AnimeMapper.INSTANCE.toAnime(animePostRequestBody));
+    }
+
+    public Mono<Void> delete(long id) {
+        return animeRepository.deleteById(id)
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.error(new BadRequestException("Anime not found!"))
+                        : Mono.empty());
+    }
+
+    /**
+     * One conditional UPDATE, see {@link com.mystudies.springboot2essentials.service.AnimeService#replace}.
+     */
+    public Mono<Void> replace(AnimePutRequestBody animePutRequestBody) {
+        if (animePutRequestBody.getId() == null) {
+            return Mono.error(new BadRequestException("Anime not found!"));
+        }
+        long id = animePutRequestBody.getId();
+        Long version = animePutRequestBody.getVersion();
+
+        return animeRepository.updateName(id, animePutRequestBody.getName(), version)
+                .flatMap(updated -> {
+                    if (updated > 0) {
+                        return Mono.<Void>empty();
+                    }
+                    Mono<Boolean> exists = version == null ? Mono.just(false) : animeRepository.existsById(id);
+                    return exists.flatMap(found -> Mono.error(found
+                            ? new ConflictException("Anime was changed by someone else! Reload it and try again.")
+                            : new BadRequestException("Anime not found!")));
+                });
+    }
+}
@@ -0,0 +1,35 @@
+package com.mystudies.springboot2essentials.reactive;
+
+import com.mystudies.springboot2essentials.requests.CursorPageRequest;
+import lombok.Setter;
+import org.springframework.core.MethodParameter;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.BindingContext;
+import org.springframework.web.reactive.result.method.SyncHandlerMethodArgumentResolver;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * WebFlux counterpart of
+ * {@link com.mystudies.springboot2essentials.configurer.CursorPageRequestHandlerMethodArgumentResolver}.
+ */
+@Setter
+public class ReactiveCursorPageRequestArgumentResolver implements SyncHandlerMethodArgumentResolver {
+
+    private CursorPageRequest fallbackCursorPageRequest = CursorPageRequest.of(null, 20, true);
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return CursorPageRequest.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public CursorPageRequest resolveArgumentValue(MethodParameter parameter, BindingContext bindingContext,
+                                                  ServerWebExchange exchange) {
+        MultiValueMap<String, String> queryParams = exchange.getRequest().getQueryParams();
+        return CursorPageRequest.parse(
+                queryParams.getFirst("after"),
+                queryParams.getFirst("size"),
+                queryParams.getFirst("skipCount"),
+                fallbackCursorPageRequest);
+    }
+}
@@ -0,0 +1,75 @@
+package com.mystudies.springboot2essentials.reactive;
+
+import com.mystudies.springboot2essentials.exception.BadRequestException;
+import com.mystudies.springboot2essentials.exception.BadRequestExceptionDetails;
+import com.mystudies.springboot2essentials.exception.ConflictException;
+import com.mystudies.springboot2essentials.exception.ConflictExceptionDetails;
+import com.mystudies.springboot2essentials.exception.ValidationExceptionDetails;
+import com.mystudies.springboot2essentials.util.CachedClock;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Answers with the same bodies as {@link com.mystudies.springboot2essentials.handler.RestExceptionHandler}.
+ */
+@ControllerAdvice
+@Profile("reactive")
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<BadRequestExceptionDetails> handleBadRequestException(BadRequestException bre) {
+        return new ResponseEntity<>(
+                BadRequestExceptionDetails.builder()
+                        .timestamp(CachedClock.now())
+                        .status(HttpStatus.BAD_REQUEST.value())
+                        .title("Bad Request Exception. Check the documentation.")
+                        .details(bre.getMessage())
+                        .developerMessage(bre.getClass().getName())
+                        .build(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ConflictExceptionDetails> handleConflictException(ConflictException ce) {
+        return new ResponseEntity<>(
+                ConflictExceptionDetails.builder()
+                        .timestamp(CachedClock.now())
+                        .status(HttpStatus.CONFLICT.value())
+                        .title("Conflict Exception. Check the documentation.")
+                        .details(ce.getMessage())
+                        .developerMessage(ce.getClass().getName())
+                        .build(), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ValidationExceptionDetails> handleWebExchangeBindException(
+            WebExchangeBindException exception) {
+
+        List<FieldError> fieldErrors = exception.getBindingResult().getFieldErrors();
+
+        StringJoiner fields = new StringJoiner(", ");
+        StringJoiner fieldsMessage = new StringJoiner(", ");
+        for (FieldError fieldError : fieldErrors) {
+            fields.add(fieldError.getField());
+            fieldsMessage.add(fieldError.getDefaultMessage());
+        }
+
+        return new ResponseEntity<>(
+                ValidationExceptionDetails.builder()
+                        .timestamp(CachedClock.now())
+                        .status(HttpStatus.BAD_REQUEST.value())
+                        .title("Bad Request Exception. Invalid fields.")
+                        .details("Check the field(s) error.")
+                        .developerMessage(exception.getClass().getName())
+                        .fields(fields.toString())
+                        .fieldsMessage(fieldsMessage.toString())
+                        .build(), HttpStatus.BAD_REQUEST);
+    }
+}
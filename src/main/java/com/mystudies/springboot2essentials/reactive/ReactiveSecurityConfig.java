@@ -0,0 +1,36 @@
+package com.mystudies.springboot2essentials.reactive;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+
+/**
+ * Same rules as {@link com.mystudies.springboot2essentials.config.SecurityConfig}. Credentials are checked
+ * against {@link ReactiveUserInfoDetailsService} by the authentication manager Spring Security builds from it.
+ */
+@Profile("reactive")
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http.csrf().disable()
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers("/animes/admin/**").hasRole("ADMIN")
+                        .pathMatchers("/animes/**").hasRole("USER")
+                        .pathMatchers("/actuator/**").permitAll()
+                        .anyExchange().authenticated())
+                .httpBasic(Customizer.withDefaults())
+                .build();
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+}
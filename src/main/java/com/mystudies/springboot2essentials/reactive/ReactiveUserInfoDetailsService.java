@@ -0,0 +1,33 @@
+package com.mystudies.springboot2essentials.reactive;
+
+import com.mystudies.springboot2essentials.domain.UserInfo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveUserInfoDetailsService implements ReactiveUserDetailsService {
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        return databaseClient.sql("select id, name, username, password, authorities from user_info"
+                        + " where username = :username")
+                .bind("username", username)
+                .map(row -> (UserDetails) UserInfo.builder()
+                        .id(row.get("id", Long.class))
+                        .name(row.get("name", String.class))
+                        .username(row.get("username", String.class))
+                        .password(row.get("password", String.class))
+                        .authorities(row.get("authorities", String.class))
+                        .build())
+                .first();
+    }
+}
@@ -0,0 +1,37 @@
+package com.mystudies.springboot2essentials.reactive;
+
+import com.mystudies.springboot2essentials.requests.CursorPageRequest;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.ReactivePageableHandlerMethodArgumentResolver;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+
+@Configuration
+@Profile("reactive")
+public class ReactiveWebFluxConfigurer implements WebFluxConfigurer {
+
+    /**
+     * Tomcat is on the classpath for the servlet stack and would otherwise be picked; Netty serves every
+     * connection from a few event loop threads.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Override
+    public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+        ReactivePageableHandlerMethodArgumentResolver pageHandler =
+                new ReactivePageableHandlerMethodArgumentResolver();
+        pageHandler.setFallbackPageable(PageRequest.of(0, 5));
+        configurer.addCustomResolver(pageHandler);
+
+        ReactiveCursorPageRequestArgumentResolver cursorPageHandler = new ReactiveCursorPageRequestArgumentResolver();
+        cursorPageHandler.setFallbackCursorPageRequest(CursorPageRequest.of(null, 5, true));
+        configurer.addCustomResolver(cursorPageHandler);
+    }
+}
@@ -0,0 +1,17 @@
+package com.mystudies.springboot2essentials.repository;
+
+import com.mystudies.springboot2essentials.domain.AnimeAudit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Read side of the audit log, written by {@code AnimeAuditLog} through JDBC batches.
+ */
+@Repository
+public interface AnimeAuditRepository extends JpaRepository<AnimeAudit, Long> {
+    Slice<AnimeAudit> findAllByOrderByIdAsc(Pageable pageable);
+
+    Slice<AnimeAudit> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+}
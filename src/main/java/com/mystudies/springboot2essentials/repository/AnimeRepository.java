@@ -1,12 +1,107 @@
 package com.mystudies.springboot2essentials.repository;
 
 import com.mystudies.springboot2essentials.domain.Anime;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
 public interface AnimeRepository extends JpaRepository<Anime, Long> {
+    String STREAM_FETCH_SIZE = "500";
+    String BY_NAME_CACHE_REGION = "anime-by-name";
+
+    /**
+     * Results are kept in the query cache; AnimeBulkService's JDBC writes evict them explicitly, see
+     * {@code HibernateCacheEviction}. Read-only here rather than in AnimeService, so only the caller running
+     * the query opens a transaction, not the ones waiting for it.
+     */
+    @Transactional(readOnly = true)
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = BY_NAME_CACHE_REGION)
+    })
     List<Anime> findByName(String name);
+
+    /**
+     * Served by {@code idx_anime_name}. Matching is case-insensitive through the column collation
+     * (MySQL's default {@code utf8mb4_0900_ai_ci}), not by wrapping the column in {@code upper()},
+     * which would turn the range scan back into a full table scan.
+     */
+    Slice<Anime> findByNameStartingWith(String prefix, Pageable pageable);
+
+    List<AnimeName> findNamesByIdIn(Collection<Long> ids);
+
+    /**
+     * Keyset paging: a {@link Slice} fetches one extra row to know if there is a next page
+     * instead of issuing a count query.
+     */
+    Slice<Anime> findAllByOrderByIdAsc(Pageable pageable);
+
+    Slice<Anime> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Single statement replace; returns the number of updated rows, 0 when the id does not exist.
+     */
+    @Modifying
+    @Query("update Anime a set a.name = :name, a.version = a.version + 1 where a.id = :id")
+    int updateName(@Param("id") long id, @Param("name") String name);
+
+    /**
+     * Optimistic variant of {@link #updateName}: also returns 0 when the row is no longer at the given version.
+     */
+    @Modifying
+    @Query("update Anime a set a.name = :name, a.version = a.version + 1 where a.id = :id and a.version = :version")
+    int updateNameIfVersionMatches(@Param("id") long id, @Param("name") String name, @Param("version") long version);
+
+    /**
+     * Single statement delete by id, whatever the version; returns the number of deleted rows, 0 when the id
+     * does not exist.
+     */
+    @Modifying
+    @Query("delete from Anime a where a.id = :id")
+    int deleteAnime(@Param("id") long id);
+
+    /**
+     * Forward-only cursor over the whole table. With MySQL the datasource url must carry
+     * {@code useCursorFetch=true}, otherwise Connector/J buffers the full result set in memory.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select a from Anime a order by a.id")
+    Stream<Anime> streamAll();
+
+    /**
+     * Same cursor as {@link #streamAll()}, but scalar rows do not fill the persistence context.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select a.id as id, a.name as name from Anime a order by a.id")
+    Stream<AnimeName> streamAllNames();
+
+    interface AnimeName {
+        Long getId();
+
+        String getName();
+    }
 }
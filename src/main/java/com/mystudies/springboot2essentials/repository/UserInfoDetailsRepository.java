@@ -2,9 +2,21 @@ package com.mystudies.springboot2essentials.repository;
 
 import com.mystudies.springboot2essentials.domain.UserInfo;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 @Repository
 public interface UserInfoDetailsRepository extends JpaRepository<UserInfo, Long> {
+    String BY_USERNAME_CACHE_REGION = "user-info-by-username";
+
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = BY_USERNAME_CACHE_REGION)
+    })
     UserInfo findByUsername(String username);
 }
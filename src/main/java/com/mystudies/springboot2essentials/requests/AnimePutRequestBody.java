@@ -21,4 +21,8 @@ public class AnimePutRequestBody {
     @NotEmpty(message = "The name cannot be empty nor null!")
     @Schema(description = "This is the anime's name", example = "Dragon Ball Super")
     private String name;
+
+    @Schema(description = "Optional: the anime's version this change is based on. When sent, the anime is " +
+            "only replaced if nobody changed it since", example = "0")
+    private Long version;
 }
@@ -0,0 +1,72 @@
+package com.mystudies.springboot2essentials.requests;
+
+import com.mystudies.springboot2essentials.exception.BadRequestException;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageRequest {
+    private static final int MAX_SIZE = 2000;
+
+    @Schema(description = "Opaque cursor returned as nextCursor by the previous page, empty for the first page")
+    private String after;
+
+    @Schema(description = "Number of animes per page", example = "5")
+    private int size;
+
+    @Schema(description = "Skips the count(*) query, leaving totalElements out of the response", example = "true")
+    private boolean skipCount;
+
+    public static CursorPageRequest of(String after, int size, boolean skipCount) {
+        return new CursorPageRequest(after, size, skipCount);
+    }
+
+    /**
+     * Builds a request from raw query parameters; missing or invalid ones take the fallback's values and the
+     * size is capped at 2000, like the page size of offset paging.
+     */
+    public static CursorPageRequest parse(String after, String size, String skipCount, CursorPageRequest fallback) {
+        return of(
+                StringUtils.hasText(after) ? after : fallback.getAfter(),
+                parseSize(size, fallback.getSize()),
+                StringUtils.hasText(skipCount) ? Boolean.parseBoolean(skipCount) : fallback.isSkipCount());
+    }
+
+    public static String encodeCursor(long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @return the id the next page starts after, or null when this is the first page
+     */
+    public Long decodeAfter() {
+        if (after == null || after.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(after), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor!");
+        }
+    }
+
+    private static int parseSize(String size, int fallbackSize) {
+        try {
+            int parsed = StringUtils.hasText(size) ? Integer.parseInt(size) : fallbackSize;
+            return parsed < 1 ? fallbackSize : Math.min(parsed, MAX_SIZE);
+        } catch (NumberFormatException e) {
+            return fallbackSize;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.mystudies.springboot2essentials.search;
+
+import com.mystudies.springboot2essentials.event.AnimeChangedEvent;
+import com.mystudies.springboot2essentials.exception.BadRequestException;
+import com.mystudies.springboot2essentials.jdbc.ReplicaRoutingDataSource;
+import com.mystudies.springboot2essentials.repository.AnimeRepository;
+import com.mystudies.springboot2essentials.repository.AnimeRepository.AnimeName;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over anime names: every word of a name, lower cased and without accents, points
+ * to the ids of the animes using it. Built once the application is ready and kept up to date from committed
+ * {@link AnimeChangedEvent}s, so full-text searches never reach the database.
+ * <p>
+ * Results are ranked by the summed inverse document frequency of the matched words, divided by the square
+ * root of the name length, so rare words and short names come first.
+ */
+@Log4j2
+@Component
+@Profile("!reactive")
+public class AnimeSearchIndex {
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Comparator<ScoredId> RANKING = Comparator.comparingDouble(ScoredId::score).reversed()
+            .thenComparingLong(ScoredId::id);
+
+    private final AnimeRepository animeRepository;
+    private final boolean enabled;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Set<Long>> idsByTerm = new HashMap<>();
+    private final Map<Long, Set<String>> termsById = new HashMap<>();
+
+    public AnimeSearchIndex(AnimeRepository animeRepository,
+                            @Value("${essentials.search.full-text.enabled:true}") boolean enabled) {
+        this.animeRepository = animeRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Holds the write lock while reading the table, so changes committed meanwhile wait instead of being
+     * overwritten by the rebuild.
+     */
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try (Stream<AnimeName> animeNames = animeRepository.streamAllNames()) {
+            idsByTerm.clear();
+            termsById.clear();
+            animeNames.forEach(this::add);
+            log.info("Anime search index built with {} animes and {} terms", termsById.size(), idsByTerm.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The names just written are read from the primary, as the replicas may not have them yet.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnimeChanged(AnimeChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        List<AnimeName> animeNames = event.getType() == AnimeChangedEvent.Type.DELETED
+                ? List.of()
+                : ReplicaRoutingDataSource.onPrimary(() -> animeRepository.findNamesByIdIn(event.getAnimeIds()));
+        lock.writeLock().lock();
+        try {
+            event.getAnimeIds().forEach(this::remove);
+            animeNames.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of the requested page, most relevant first. Only the animes up to the end of the page
+     * are ordered, through a bounded heap, instead of sorting every match.
+     */
+    public Page<Long> search(String text, Pageable pageable) {
+        if (!enabled) {
+            throw new BadRequestException("Full-text search is disabled!");
+        }
+        Set<String> terms = tokenize(text);
+        if (terms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Set<Long> ids = idsByTerm.get(term);
+                if (ids == null) {
+                    continue;
+                }
+                double inverseDocumentFrequency = Math.log(1 + (double) termsById.size() / ids.size());
+                ids.forEach(id -> scores.merge(id, inverseDocumentFrequency, Double::sum));
+            }
+
+            long end = pageable.getOffset() + pageable.getPageSize();
+            if (pageable.getOffset() >= scores.size()) {
+                return new PageImpl<>(List.of(), pageable, scores.size());
+            }
+            int limit = (int) Math.min(end, scores.size());
+            PriorityQueue<ScoredId> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+            scores.forEach((id, score) -> {
+                best.add(new ScoredId(id, score / Math.sqrt(termsById.get(id).size())));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            });
+
+            List<ScoredId> ranked = new ArrayList<>(best);
+            ranked.sort(RANKING);
+            List<Long> page = ranked.subList((int) pageable.getOffset(), ranked.size()).stream()
+                    .map(ScoredId::id)
+                    .toList();
+            return new PageImpl<>(page, pageable, scores.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static Set<String> tokenize(String text) {
+        if (text == null) {
+            return Set.of();
+        }
+        String normalized = ACCENTS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        Set<String> terms = new LinkedHashSet<>();
+        for (String term : SEPARATORS.split(normalized)) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private void add(AnimeName animeName) {
+        Set<String> terms = tokenize(animeName.getName());
+        if (terms.isEmpty()) {
+            return;
+        }
+        termsById.put(animeName.getId(), terms);
+        terms.forEach(term -> idsByTerm.computeIfAbsent(term, t -> new HashSet<>()).add(animeName.getId()));
+    }
+
+    private void remove(Long id) {
+        Set<String> terms = termsById.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Set<Long> ids = idsByTerm.get(term);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                idsByTerm.remove(term);
+            }
+        }
+    }
+
+    private record ScoredId(long id, double score) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.mystudies.springboot2essentials.search;
+
+public enum AnimeSearchMode {
+    /**
+     * Whole name, as stored.
+     */
+    EXACT,
+    /**
+     * Names starting with the given text, in name order, through the name index.
+     */
+    PREFIX,
+    /**
+     * Names containing any of the given words, most relevant first, through {@link AnimeSearchIndex}.
+     */
+    FULL_TEXT
+}
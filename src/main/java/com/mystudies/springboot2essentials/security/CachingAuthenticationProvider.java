@@ -0,0 +1,148 @@
+package com.mystudies.springboot2essentials.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mystudies.springboot2essentials.domain.UserInfo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the user lookup and the (deliberately slow) password check once per credentials, then answers
+ * from a cache until the entry expires or the user row changes. Entries are keyed by an HMAC of username
+ * and password with a key generated at startup, so the cache never holds the raw password and a
+ * wrong password can never match a cached entry. Failed attempts are never cached.
+ */
+@Log4j2
+@Component
+@Profile("!reactive")
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final DaoAuthenticationProvider delegate;
+    private final Cache<String, Authentication> cache;
+    private final Mac macPrototype;
+    private final Timer passwordCheckTimer;
+    private final Counter passwordCheckSaved;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public CachingAuthenticationProvider(UserDetailsService userDetailsService,
+                                         PasswordEncoder passwordEncoder,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${essentials.security.authentication-cache.maximum-size:10000}")
+                                         long maximumSize,
+                                         @Value("${essentials.security.authentication-cache.time-to-live:5m}")
+                                         Duration timeToLive) throws GeneralSecurityException {
+        this.delegate = new DaoAuthenticationProvider();
+        this.delegate.setUserDetailsService(userDetailsService);
+        this.delegate.setPasswordEncoder(passwordEncoder);
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.macPrototype = Mac.getInstance(HMAC_ALGORITHM);
+        this.macPrototype.init(new SecretKeySpec(key, HMAC_ALGORITHM));
+
+        this.passwordCheckTimer = Timer.builder("security.authentication.password.check")
+                .description("Time spent loading the user and checking the password on cache misses")
+                .register(meterRegistry);
+        this.passwordCheckSaved = Counter.builder("security.authentication.password.check.saved")
+                .description("Estimated password check time saved by cache hits, the mean check time per hit")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "security.authentication");
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) {
+        if (!(authentication.getCredentials() instanceof String password)) {
+            return delegate.authenticate(authentication);
+        }
+
+        String key = cacheKey(authentication.getName(), password);
+        Authentication cached = cache.getIfPresent(key);
+        if (cached != null) {
+            passwordCheckSaved.increment(passwordCheckTimer.mean(TimeUnit.SECONDS));
+            return copyOf(cached, authentication);
+        }
+
+        long evictionsBefore = evictions.get();
+        long start = System.nanoTime();
+        Authentication result = delegate.authenticate(authentication);
+        passwordCheckTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        cache.put(key, copyOf(result, null));
+        if (evictions.get() != evictionsBefore) {
+            cache.invalidate(key);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+
+    /**
+     * Drops every cached authentication of the given user, so a changed password or authority takes
+     * effect on the next request. A login that read the user before and caches it after is dropped too.
+     */
+    public void evict(UserInfo userInfo) {
+        log.debug("Evicting cached authentications of user '{}'", userInfo.getUsername());
+        evictions.incrementAndGet();
+        cache.asMap().entrySet().removeIf(entry -> isSameUser(entry, userInfo));
+    }
+
+    private static boolean isSameUser(Map.Entry<String, Authentication> entry, UserInfo userInfo) {
+        Object principal = entry.getValue().getPrincipal();
+        if (principal instanceof UserInfo cachedUser && cachedUser.getId() != null) {
+            return cachedUser.getId().equals(userInfo.getId());
+        }
+        return entry.getValue().getName().equals(userInfo.getUsername());
+    }
+
+    private static Authentication copyOf(Authentication authentication, Authentication request) {
+        UsernamePasswordAuthenticationToken copy = UsernamePasswordAuthenticationToken.authenticated(
+                authentication.getPrincipal(), null, authentication.getAuthorities());
+        copy.setDetails(request == null ? null : request.getDetails());
+        return copy;
+    }
+
+    private String cacheKey(String username, String password) {
+        try {
+            Mac mac = (Mac) macPrototype.clone();
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return Base64.getEncoder().encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " cannot be cloned", e);
+        }
+    }
+}
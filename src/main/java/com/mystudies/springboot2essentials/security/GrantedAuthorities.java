@@ -0,0 +1,119 @@
+package com.mystudies.springboot2essentials.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parses comma separated authority strings, such as {@code UserInfo.authorities}, once and shares the result:
+ * the same string always yields the same immutable {@link AuthoritySet}, and each authority is a single
+ * shared {@link GrantedAuthority} instance. Only a handful of distinct role combinations exist, so both
+ * maps stay tiny; past {@link #MAX_CACHED} entries strings are still parsed, just not cached.
+ */
+public final class GrantedAuthorities {
+    public static final GrantedAuthority ROLE_USER = new SimpleGrantedAuthority("ROLE_USER");
+    public static final GrantedAuthority ROLE_ADMIN = new SimpleGrantedAuthority("ROLE_ADMIN");
+
+    private static final int MAX_CACHED = 256;
+    private static final AuthoritySet EMPTY = new AuthoritySet(Collections.emptyMap());
+    private static final Map<String, GrantedAuthority> INTERNED = new ConcurrentHashMap<>(Map.of(
+            ROLE_USER.getAuthority(), ROLE_USER,
+            ROLE_ADMIN.getAuthority(), ROLE_ADMIN));
+    private static final Map<String, AuthoritySet> PARSED = new ConcurrentHashMap<>();
+
+    private GrantedAuthorities() {
+    }
+
+    public static AuthoritySet parse(String authorities) {
+        if (authorities == null || authorities.isBlank()) {
+            return EMPTY;
+        }
+        AuthoritySet parsed = PARSED.get(authorities);
+        if (parsed != null) {
+            return parsed;
+        }
+        parsed = doParse(authorities);
+        if (PARSED.size() < MAX_CACHED) {
+            AuthoritySet existing = PARSED.putIfAbsent(authorities, parsed);
+            return existing == null ? parsed : existing;
+        }
+        return parsed;
+    }
+
+    /**
+     * Cheap check for the authorization rules: a hash lookup when the authorities came from {@link #parse},
+     * a linear scan over whatever collection the authentication carries otherwise.
+     */
+    public static boolean hasAuthority(Collection<? extends GrantedAuthority> authorities, String authority) {
+        if (authorities instanceof AuthoritySet authoritySet) {
+            return authoritySet.contains(authority);
+        }
+        for (GrantedAuthority grantedAuthority : authorities) {
+            if (authority.equals(grantedAuthority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static AuthoritySet doParse(String authorities) {
+        Map<String, GrantedAuthority> byName = new LinkedHashMap<>();
+        for (String authority : authorities.split(",")) {
+            String trimmed = authority.trim();
+            if (!trimmed.isEmpty()) {
+                byName.putIfAbsent(trimmed, intern(trimmed));
+            }
+        }
+        return new AuthoritySet(Collections.unmodifiableMap(byName));
+    }
+
+    private static GrantedAuthority intern(String authority) {
+        GrantedAuthority interned = INTERNED.get(authority);
+        if (interned != null) {
+            return interned;
+        }
+        SimpleGrantedAuthority grantedAuthority = new SimpleGrantedAuthority(authority);
+        if (INTERNED.size() < MAX_CACHED) {
+            GrantedAuthority existing = INTERNED.putIfAbsent(authority, grantedAuthority);
+            return existing == null ? grantedAuthority : existing;
+        }
+        return grantedAuthority;
+    }
+
+    /**
+     * Immutable, ordered set of authorities that can also be probed by name without allocating.
+     */
+    public static final class AuthoritySet extends AbstractSet<GrantedAuthority> {
+        private final Map<String, GrantedAuthority> byName;
+
+        private AuthoritySet(Map<String, GrantedAuthority> byName) {
+            this.byName = byName;
+        }
+
+        public boolean contains(String authority) {
+            return byName.containsKey(authority);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof GrantedAuthority grantedAuthority && contains(grantedAuthority.getAuthority());
+        }
+
+        @Override
+        public Iterator<GrantedAuthority> iterator() {
+            return byName.values().iterator();
+        }
+
+        @Override
+        public int size() {
+            return byName.size();
+        }
+    }
+}
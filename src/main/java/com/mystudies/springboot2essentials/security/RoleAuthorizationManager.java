@@ -0,0 +1,42 @@
+package com.mystudies.springboot2essentials.security;
+
+import com.mystudies.springboot2essentials.domain.UserInfo;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.function.Supplier;
+
+/**
+ * Drop-in for {@code hasRole(...)} on request matchers. When the principal is a {@link UserInfo} the role is
+ * checked against its pre-parsed authorities with a single hash lookup instead of iterating the
+ * authentication's authority list.
+ */
+public final class RoleAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final String authority;
+    private final AuthorizationDecision granted = new AuthorizationDecision(true);
+    private final AuthorizationDecision denied = new AuthorizationDecision(false);
+
+    private RoleAuthorizationManager(String authority) {
+        this.authority = authority;
+    }
+
+    public static RoleAuthorizationManager hasRole(String role) {
+        return new RoleAuthorizationManager(ROLE_PREFIX + role);
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        Authentication current = authentication.get();
+        if (current == null || !current.isAuthenticated()) {
+            return denied;
+        }
+        boolean hasAuthority = current.getPrincipal() instanceof UserInfo userInfo
+                ? userInfo.hasAuthority(authority)
+                : GrantedAuthorities.hasAuthority(current.getAuthorities(), authority);
+        return hasAuthority ? granted : denied;
+    }
+}
@@ -0,0 +1,47 @@
+package com.mystudies.springboot2essentials.security;
+
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * The routes {@link com.mystudies.springboot2essentials.config.SecurityConfig} authorizes by role, most specific
+ * first. Rate limits and concurrency limits are configured per group, under its name.
+ */
+public enum RouteGroup {
+    USERS_ADMIN("users-admin", "/users/admin/**"),
+    ANIMES_ADMIN("animes-admin", "/animes/admin/**"),
+    ANIMES("animes", "/animes/**");
+
+    private static final RouteGroup[] VALUES = values();
+
+    private final String name;
+    private final String pattern;
+    private final AntPathRequestMatcher matcher;
+
+    RouteGroup(String name, String pattern) {
+        this.name = name;
+        this.pattern = pattern;
+        this.matcher = new AntPathRequestMatcher(pattern);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * @return null when the request is in none of the groups
+     */
+    public static RouteGroup of(HttpServletRequest request) {
+        for (RouteGroup routeGroup : VALUES) {
+            if (routeGroup.matcher.matches(request)) {
+                return routeGroup;
+            }
+        }
+        return null;
+    }
+}
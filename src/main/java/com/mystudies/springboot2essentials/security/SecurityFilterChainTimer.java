@@ -0,0 +1,76 @@
+package com.mystudies.springboot2essentials.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times Spring Security's filter chain as {@code security.filter.chain}: {@link #start()} goes first in the chain
+ * and {@link #stop()} last. Requests reaching the application are tagged {@code outcome=passed}; the ones the
+ * chain answers itself, such as a 401 or 403, {@code outcome=rejected}. Authentication, BCrypt included on a
+ * login cache miss, is part of it.
+ */
+public class SecurityFilterChainTimer {
+    private static final String START_ATTRIBUTE = SecurityFilterChainTimer.class.getName() + ".START";
+
+    private final Timer passed;
+    private final Timer rejected;
+
+    public SecurityFilterChainTimer(MeterRegistry meterRegistry) {
+        this.passed = timer(meterRegistry, "passed");
+        this.rejected = timer(meterRegistry, "rejected");
+    }
+
+    public Filter start() {
+        return new Start();
+    }
+
+    public Filter stop() {
+        return new Stop();
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("security.filter.chain")
+                .description("Time spent in Spring Security's filter chain")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private class Start extends OncePerRequestFilter {
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            long start = System.nanoTime();
+            request.setAttribute(START_ATTRIBUTE, start);
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                if (request.getAttribute(START_ATTRIBUTE) != null) {
+                    request.removeAttribute(START_ATTRIBUTE);
+                    rejected.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+    }
+
+    private class Stop extends OncePerRequestFilter {
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            Object start = request.getAttribute(START_ATTRIBUTE);
+            if (start != null) {
+                request.removeAttribute(START_ATTRIBUTE);
+                passed.record(System.nanoTime() - (long) start, TimeUnit.NANOSECONDS);
+            }
+            chain.doFilter(request, response);
+        }
+    }
+}
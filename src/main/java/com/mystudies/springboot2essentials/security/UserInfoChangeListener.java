@@ -0,0 +1,41 @@
+package com.mystudies.springboot2essentials.security;
+
+import com.mystudies.springboot2essentials.domain.UserInfo;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * JPA entity listener, instantiated by Hibernate through the Spring bean container. The provider is
+ * optional so JPA slices without the security configuration still boot.
+ * <p>
+ * Both callbacks fire on flush, while logins still read the old row; evicting then would let such a login
+ * cache the old password again, so cached logins are evicted once the transaction commits.
+ */
+public class UserInfoChangeListener {
+    private final ObjectProvider<CachingAuthenticationProvider> cachingAuthenticationProvider;
+
+    public UserInfoChangeListener(ObjectProvider<CachingAuthenticationProvider> cachingAuthenticationProvider) {
+        this.cachingAuthenticationProvider = cachingAuthenticationProvider;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(UserInfo userInfo) {
+        cachingAuthenticationProvider.ifAvailable(provider -> {
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                provider.evict(userInfo);
+                return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    provider.evict(userInfo);
+                }
+            });
+        });
+    }
+}
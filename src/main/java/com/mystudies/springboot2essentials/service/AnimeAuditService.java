@@ -0,0 +1,51 @@
+package com.mystudies.springboot2essentials.service;
+
+import com.mystudies.springboot2essentials.domain.AnimeAudit;
+import com.mystudies.springboot2essentials.repository.AnimeAuditRepository;
+import com.mystudies.springboot2essentials.requests.CursorPageRequest;
+import com.mystudies.springboot2essentials.wrapper.CursorPageableResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Reads the audit log written by {@link com.mystudies.springboot2essentials.audit.AnimeAuditLog}. Rows are only
+ * ever appended, so a cursor over the id replays the changes in the order they were written, and a consumer can
+ * resume from the last cursor it saw.
+ * <p>
+ * That holds for a single writing instance only: its one worker commits each batch before inserting the next, so
+ * ids become visible in order. With several instances writing, a higher id can commit before a lower one, and a
+ * consumer resuming past the higher id never sees the lower one.
+ */
+@Service
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class AnimeAuditService {
+    private final AnimeAuditRepository animeAuditRepository;
+
+    /**
+     * The last page carries a cursor too, the incoming one when nothing was appended since, so a consumer that
+     * caught up resumes from there; hasNext tells whether to keep paging now.
+     */
+    public CursorPageableResponse<AnimeAudit> replay(CursorPageRequest cursorPageRequest) {
+        Long after = cursorPageRequest.decodeAfter();
+        PageRequest pageRequest = PageRequest.of(0, cursorPageRequest.getSize());
+
+        Slice<AnimeAudit> slice = after == null
+                ? animeAuditRepository.findAllByOrderByIdAsc(pageRequest)
+                : animeAuditRepository.findByIdGreaterThanOrderByIdAsc(after, pageRequest);
+
+        List<AnimeAudit> content = slice.getContent();
+        String nextCursor = content.isEmpty()
+                ? cursorPageRequest.getAfter()
+                : CursorPageRequest.encodeCursor(content.get(content.size() - 1).getId());
+        Long totalElements = cursorPageRequest.isSkipCount() ? null : animeAuditRepository.count();
+
+        return new CursorPageableResponse<>(content, cursorPageRequest.getSize(), slice.hasNext(), nextCursor,
+                totalElements);
+    }
+}
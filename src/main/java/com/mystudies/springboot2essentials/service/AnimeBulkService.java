@@ -0,0 +1,281 @@
+package com.mystudies.springboot2essentials.service;
+
+import com.mystudies.springboot2essentials.event.AnimeChangedEvent;
+import com.mystudies.springboot2essentials.exception.BadRequestException;
+import com.mystudies.springboot2essentials.requests.AnimePostRequestBody;
+import com.mystudies.springboot2essentials.requests.AnimePutRequestBody;
+import com.mystudies.springboot2essentials.wrapper.BulkOperationResponse;
+import com.mystudies.springboot2essentials.wrapper.BulkOperationResponse.ItemFailure;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk writes for the catalog sync. {@code Anime} ids are database generated ({@code IDENTITY}), which turns
+ * Hibernate insert batching off, so these operations go through plain JDBC batches instead. Items are
+ * validated one by one, then written in chunks of {@code essentials.bulk.batch-size}, each chunk in its own
+ * transaction. When a chunk fails it is retried item by item, so a bad row is reported without aborting
+ * the rest of the request.
+ */
+@Log4j2
+@Service
+@Profile("!reactive")
+public class AnimeBulkService {
+    private static final String ANIME_NOT_FOUND = "Anime not found!";
+    private static final String ANIME_NOT_FOUND_OR_CHANGED = "Anime not found or changed by someone else!";
+    /**
+     * Sent instead of the driver's message, which may quote SQL, constraint names and values; the cause is logged.
+     */
+    private static final String NOT_WRITTEN = "Could not be written, retry it!";
+
+    private static final String INSERT_SQL = "insert into anime (name, version) values (?, 0)";
+    /**
+     * Same contract as {@code AnimeRepository.updateNameIfVersionMatches}; a null version matches any row.
+     */
+    private static final String UPDATE_SQL =
+            "update anime set name = ?, version = version + 1 where id = ? and version = coalesce(?, version)";
+    private static final String DELETE_SQL = "delete from anime where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final int batchSize;
+    private final int maxItems;
+
+    public AnimeBulkService(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            Validator validator,
+                            ApplicationEventPublisher applicationEventPublisher,
+                            @Value("${essentials.bulk.batch-size:500}") int batchSize,
+                            @Value("${essentials.bulk.max-items:50000}") int maxItems) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.batchSize = batchSize;
+        this.maxItems = maxItems;
+    }
+
+    public BulkOperationResponse saveAll(List<AnimePostRequestBody> animePostRequestBodies) {
+        BulkRequest<AnimePostRequestBody> request = validate(animePostRequestBodies, body -> null, body -> null);
+        for (List<Item<AnimePostRequestBody>> chunk : request.chunks(batchSize)) {
+            try {
+                request.created(transactionTemplate.execute(status -> insert(chunk)));
+            } catch (DataAccessException e) {
+                log.warn("Bulk insert of {} animes failed, retrying one by one", chunk.size(), e);
+                for (Item<AnimePostRequestBody> item : chunk) {
+                    try {
+                        request.created(transactionTemplate.execute(status -> insert(List.of(item))));
+                    } catch (DataAccessException itemException) {
+                        request.failed(item, null, itemException);
+                    }
+                }
+            }
+        }
+        return request.toResponse();
+    }
+
+    public BulkOperationResponse replaceAll(List<AnimePutRequestBody> animePutRequestBodies) {
+        BulkRequest<AnimePutRequestBody> request = validate(animePutRequestBodies, AnimePutRequestBody::getId,
+                body -> body.getVersion() == null ? ANIME_NOT_FOUND : ANIME_NOT_FOUND_OR_CHANGED);
+        writeInChunks(request, UPDATE_SQL, AnimeChangedEvent.Type.UPDATED, (ps, body) -> {
+            ps.setString(1, body.getName());
+            ps.setObject(2, body.getId());
+            ps.setObject(3, body.getVersion(), Types.BIGINT);
+        });
+        return request.toResponse();
+    }
+
+    public BulkOperationResponse deleteAll(List<Long> ids) {
+        BulkRequest<Long> request = validate(ids, Function.identity(), id -> ANIME_NOT_FOUND);
+        writeInChunks(request, DELETE_SQL, AnimeChangedEvent.Type.DELETED, (ps, id) -> ps.setObject(1, id));
+        return request.toResponse();
+    }
+
+    private <T> void writeInChunks(BulkRequest<T> request, String sql, AnimeChangedEvent.Type type,
+                                   ParameterizedPreparedStatementSetter<T> setter) {
+        for (List<Item<T>> chunk : request.chunks(batchSize)) {
+            try {
+                request.written(chunk, transactionTemplate.execute(status -> update(request, chunk, sql, type, setter)));
+            } catch (DataAccessException e) {
+                log.warn("Bulk {} of {} animes failed, retrying one by one", type, chunk.size(), e);
+                for (Item<T> item : chunk) {
+                    try {
+                        request.written(List.of(item),
+                                transactionTemplate.execute(status -> update(request, List.of(item), sql, type, setter)));
+                    } catch (DataAccessException itemException) {
+                        request.failed(item, request.idOf(item), itemException);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Events are published inside the chunk transaction, so listeners only see them once it commits.
+     */
+    private <T> int[] update(BulkRequest<T> request, List<Item<T>> chunk, String sql, AnimeChangedEvent.Type type,
+                             ParameterizedPreparedStatementSetter<T> setter) {
+        List<T> values = chunk.stream().map(Item::value).collect(Collectors.toList());
+        int[] rowCounts = jdbcTemplate.batchUpdate(sql, values, values.size(), setter)[0];
+        List<Long> changedIds = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            if (rowCounts[i] != 0) {
+                changedIds.add(request.idOf(chunk.get(i)));
+            }
+        }
+        publish(type, changedIds);
+        return rowCounts;
+    }
+
+    private List<Long> insert(List<Item<AnimePostRequestBody>> chunk) {
+        List<Long> ids = jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (Item<AnimePostRequestBody> item : chunk) {
+                    ps.setString(1, item.value().getName());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                List<Long> generatedIds = new ArrayList<>(chunk.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        generatedIds.add(keys.getLong(1));
+                    }
+                }
+                return generatedIds;
+            }
+        });
+        publish(AnimeChangedEvent.Type.CREATED, ids);
+        return ids;
+    }
+
+    private void publish(AnimeChangedEvent.Type type, List<Long> ids) {
+        if (!ids.isEmpty()) {
+            applicationEventPublisher.publishEvent(new AnimeChangedEvent(type, List.copyOf(ids)));
+        }
+    }
+
+    private <T> BulkRequest<T> validate(List<T> values, Function<T, Long> idOf, Function<T, String> notWrittenMessage) {
+        if (values == null || values.isEmpty()) {
+            throw new BadRequestException("The bulk request cannot be empty!");
+        }
+        if (values.size() > maxItems) {
+            throw new BadRequestException("The bulk request cannot have more than " + maxItems + " items!");
+        }
+        BulkRequest<T> request = new BulkRequest<>(values.size(), idOf, notWrittenMessage);
+        for (int index = 0; index < values.size(); index++) {
+            T value = values.get(index);
+            if (value == null) {
+                request.rejected(index, null, "The item cannot be null!");
+                continue;
+            }
+            Set<ConstraintViolation<T>> violations = validator.validate(value);
+            if (violations.isEmpty()) {
+                request.accepted(new Item<>(index, value));
+            } else {
+                request.rejected(index, idOf.apply(value), violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+            }
+        }
+        return request;
+    }
+
+    private record Item<T>(int index, T value) {
+    }
+
+    /**
+     * Progress of one bulk call. Only updated with the results of committed transactions.
+     */
+    private static class BulkRequest<T> {
+        private final int requested;
+        private final Function<T, Long> idOf;
+        private final Function<T, String> notWrittenMessage;
+        private final List<Item<T>> accepted = new ArrayList<>();
+        private final List<Long> ids = new ArrayList<>();
+        private final List<ItemFailure> failures = new ArrayList<>();
+
+        BulkRequest(int requested, Function<T, Long> idOf, Function<T, String> notWrittenMessage) {
+            this.requested = requested;
+            this.idOf = idOf;
+            this.notWrittenMessage = notWrittenMessage;
+        }
+
+        Long idOf(Item<T> item) {
+            return idOf.apply(item.value());
+        }
+
+        void accepted(Item<T> item) {
+            accepted.add(item);
+        }
+
+        void rejected(int index, Long id, String message) {
+            failures.add(new ItemFailure(index, id, message));
+        }
+
+        void failed(Item<T> item, Long id, Exception e) {
+            log.warn("Bulk item {} could not be written", item.index(), e);
+            rejected(item.index(), id, NOT_WRITTEN);
+        }
+
+        List<List<Item<T>>> chunks(int size) {
+            List<List<Item<T>>> chunks = new ArrayList<>();
+            for (int from = 0; from < accepted.size(); from += size) {
+                chunks.add(accepted.subList(from, Math.min(from + size, accepted.size())));
+            }
+            return chunks;
+        }
+
+        void created(List<Long> generatedIds) {
+            ids.addAll(generatedIds);
+        }
+
+        /**
+         * A row count of 0 means the id does not exist, or is no longer at the expected version. Drivers may
+         * answer SUCCESS_NO_INFO (-2) for rewritten batches, which is counted as written.
+         */
+        void written(List<Item<T>> items, int[] rowCounts) {
+            for (int i = 0; i < items.size(); i++) {
+                Item<T> item = items.get(i);
+                if (rowCounts[i] == 0) {
+                    rejected(item.index(), idOf(item), notWrittenMessage.apply(item.value()));
+                } else {
+                    ids.add(idOf(item));
+                }
+            }
+        }
+
+        BulkOperationResponse toResponse() {
+            failures.sort(Comparator.comparingInt(ItemFailure::getIndex));
+            return BulkOperationResponse.builder()
+                    .requested(requested)
+                    .succeeded(ids.size())
+                    .ids(ids)
+                    .failures(failures)
+                    .build();
+        }
+    }
+}
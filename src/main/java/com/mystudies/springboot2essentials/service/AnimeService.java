@@ -1,56 +1,221 @@
 package com.mystudies.springboot2essentials.service;
 
+import com.mystudies.springboot2essentials.cache.AnimeCache;
+import com.mystudies.springboot2essentials.cache.SingleFlight;
 import com.mystudies.springboot2essentials.domain.Anime;
+import com.mystudies.springboot2essentials.event.AnimeChangedEvent;
 import com.mystudies.springboot2essentials.exception.BadRequestException;
+import com.mystudies.springboot2essentials.exception.ConflictException;
 import com.mystudies.springboot2essentials.mapper.AnimeMapper;
 import com.mystudies.springboot2essentials.repository.AnimeRepository;
 import com.mystudies.springboot2essentials.requests.AnimePostRequestBody;
 import com.mystudies.springboot2essentials.requests.AnimePutRequestBody;
+import com.mystudies.springboot2essentials.requests.CursorPageRequest;
+import com.mystudies.springboot2essentials.search.AnimeSearchIndex;
+import com.mystudies.springboot2essentials.wrapper.CursorPageableResponse;
+import com.mystudies.springboot2essentials.wrapper.MultiGetResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import javax.transaction.Transactional;
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class AnimeService {
+    private static final Sort BY_NAME = Sort.by("name", "id");
+    private static final int MAX_IDS = 1000;
+    /**
+     * Thrown for every probe of an unknown id; stackless and immutable, so one instance serves them all.
+     */
+    private static final BadRequestException ANIME_NOT_FOUND = new BadRequestException("Anime not found!");
 
     private final AnimeRepository animeRepository;
+    private final EntityManager entityManager;
+    private final AnimeCache animeCache;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final AnimeSearchIndex animeSearchIndex;
+    private final SingleFlight<String, List<Anime>> animeByNameSingleFlight;
+
+    @Transactional(readOnly = true)
     public Page<Anime> listAll(Pageable pageable) {
         return animeRepository.findAll(pageable);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageableResponse<Anime> listAllByCursor(CursorPageRequest cursorPageRequest) {
+        Long after = cursorPageRequest.decodeAfter();
+        PageRequest pageRequest = PageRequest.of(0, cursorPageRequest.getSize());
+
+        Slice<Anime> slice = after == null
+                ? animeRepository.findAllByOrderByIdAsc(pageRequest)
+                : animeRepository.findByIdGreaterThanOrderByIdAsc(after, pageRequest);
+
+        List<Anime> content = slice.getContent();
+        String nextCursor = slice.hasNext()
+                ? CursorPageRequest.encodeCursor(content.get(content.size() - 1).getId())
+                : null;
+        Long totalElements = cursorPageRequest.isSkipCount() ? null : animeRepository.count();
+
+        return new CursorPageableResponse<>(content, cursorPageRequest.getSize(), slice.hasNext(), nextCursor,
+                totalElements);
+    }
+
+    @Transactional(readOnly = true)
     public List<Anime> listAllNonPageable() {
         return animeRepository.findAll();
     }
 
+    /**
+     * Walks the whole table through a database cursor, handing each row to the consumer and
+     * detaching it right after, so memory stays constant regardless of the table size.
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<Anime> consumer) {
+        try (Stream<Anime> animes = animeRepository.streamAll()) {
+            animes.forEach(anime -> {
+                consumer.accept(anime);
+                entityManager.detach(anime);
+            });
+        }
+    }
+
+    /**
+     * Concurrent searches for the same name share one query, see {@link SingleFlight}. Not transactional
+     * itself, so waiting followers hold no connection; the leader loads in the read-only transaction of
+     * {@link AnimeRepository#findByName(String)}.
+     */
     public List<Anime> findByName(String name) {
-        return animeRepository.findByName(name);
+        return animeByNameSingleFlight.execute(name, () -> animeRepository.findByName(name));
+    }
+
+    /**
+     * Falls back to name order, which the name index already provides.
+     */
+    @Transactional(readOnly = true)
+    public Slice<Anime> findByNamePrefix(String prefix, Pageable pageable) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new BadRequestException("The name cannot be empty nor null!");
+        }
+        return animeRepository.findByNameStartingWith(prefix,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSortOr(BY_NAME)));
+    }
+
+    /**
+     * Ranks ids in memory, then loads only the page being returned.
+     */
+    @Transactional(readOnly = true)
+    public Page<Anime> searchByName(String text, Pageable pageable) {
+        Page<Long> ids = animeSearchIndex.search(text, pageable);
+        if (!ids.hasContent()) {
+            return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
+        }
+        Map<Long, Anime> animesById = animeRepository.findAllById(ids.getContent()).stream()
+                .collect(Collectors.toMap(Anime::getId, Function.identity()));
+        List<Anime> animes = ids.getContent().stream()
+                .map(animesById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(animes, pageable, ids.getTotalElements());
     }
 
+    /**
+     * Not transactional itself, so cache hits take no connection; misses load in the read-only transaction of
+     * the repository.
+     */
     public Anime findByIdOrThrowBadRequestException(long id) {
-        return animeRepository.findById(id)
-                .orElseThrow(() -> new BadRequestException("Anime not found!"));
+        return animeCache.get(id, animeRepository::findById)
+                .orElseThrow(() -> ANIME_NOT_FOUND);
+    }
+
+    /**
+     * Cached animes are served from {@link AnimeCache}, the others are loaded with a single IN query. Duplicate
+     * ids are answered once, in the position they were first asked for.
+     */
+    public MultiGetResponse<Anime> findAllByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new BadRequestException("The ids cannot be empty!");
+        }
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        if (distinctIds.contains(null)) {
+            throw new BadRequestException("The ids cannot contain null!");
+        }
+        if (distinctIds.size() > MAX_IDS) {
+            throw new BadRequestException("Cannot find more than " + MAX_IDS + " animes at once!");
+        }
+
+        Map<Long, Optional<Anime>> animesById = animeCache.getAll(distinctIds, missingIds ->
+                animeRepository.findAllById(missingIds).stream()
+                        .collect(Collectors.toMap(Anime::getId, Function.identity())));
+
+        List<Anime> animes = new ArrayList<>(distinctIds.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : distinctIds) {
+            animesById.get(id).ifPresentOrElse(animes::add, () -> missingIds.add(id));
+        }
+        return new MultiGetResponse<>(animes, missingIds);
     }
 
     @Transactional
     public Anime save(AnimePostRequestBody animePostRequestBody) {
-        return animeRepository.save(AnimeMapper.INSTANCE.toAnime(animePostRequestBody));
+        Anime savedAnime = animeRepository.save(AnimeMapper.INSTANCE.toAnime(animePostRequestBody));
+        applicationEventPublisher.publishEvent(AnimeChangedEvent.created(savedAnime.getId()));
+        return savedAnime;
     }
 
+    /**
+     * Deletes by id in one statement; merging a cached, possibly stale, instance would fail on its version.
+     */
     @Transactional
     public void delete(long id) {
-        animeRepository.delete(findByIdOrThrowBadRequestException(id));
+        if (animeRepository.deleteAnime(id) == 0) {
+            throw ANIME_NOT_FOUND;
+        }
+        applicationEventPublisher.publishEvent(AnimeChangedEvent.deleted(id));
     }
 
+    /**
+     * One conditional UPDATE; the affected row count tells whether the anime exists. The extra existence
+     * check only runs on the failure path, to tell a stale version apart from a missing anime.
+     */
     @Transactional
     public void replace(AnimePutRequestBody animePutRequestBody) {
-        Anime savedAnime = findByIdOrThrowBadRequestException(animePutRequestBody.getId());
-        Anime anime = AnimeMapper.INSTANCE.toAnime(animePutRequestBody);
-        anime.setId(savedAnime.getId());
-        animeRepository.save(anime);
+        if (animePutRequestBody.getId() == null) {
+            throw ANIME_NOT_FOUND;
+        }
+        long id = animePutRequestBody.getId();
+        Long version = animePutRequestBody.getVersion();
+
+        int updated = version == null
+                ? animeRepository.updateName(id, animePutRequestBody.getName())
+                : animeRepository.updateNameIfVersionMatches(id, animePutRequestBody.getName(), version);
+
+        if (updated == 0) {
+            if (version != null && animeRepository.existsById(id)) {
+                throw new ConflictException("Anime was changed by someone else! Reload it and try again.");
+            }
+            throw ANIME_NOT_FOUND;
+        }
+        applicationEventPublisher.publishEvent(AnimeChangedEvent.updated(id));
     }
 }
@@ -1,9 +1,12 @@
 package com.mystudies.springboot2essentials.service;
 
+import com.mystudies.springboot2essentials.cache.SingleFlight;
+import com.mystudies.springboot2essentials.domain.UserInfo;
 import com.mystudies.springboot2essentials.exception.BadRequestException;
 import com.mystudies.springboot2essentials.repository.UserInfoDetailsRepository;
 import lombok.RequiredArgsConstructor;
 import org.hibernate.boot.model.naming.IllegalIdentifierException;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -12,14 +15,20 @@ import org.springframework.stereotype.Service;
 import java.util.Optional;
 
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class UserInfoDetailsService implements UserDetailsService {
 
     private final UserInfoDetailsRepository userInfoDetailsRepository;
+    private final SingleFlight<String, UserInfo> userByUsernameSingleFlight;
 
+    /**
+     * Concurrent logins of the same user share one query, see {@link SingleFlight}.
+     */
     @Override
     public UserDetails loadUserByUsername(String username) {
-        return Optional.ofNullable(userInfoDetailsRepository.findByUsername(username))
+        return Optional.ofNullable(userByUsernameSingleFlight.execute(username,
+                        () -> userInfoDetailsRepository.findByUsername(username)))
                 .orElseThrow(() -> new UsernameNotFoundException("Username not found!"));
     }
     public UserDetails findById(long id) {
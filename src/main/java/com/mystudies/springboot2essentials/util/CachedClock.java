@@ -0,0 +1,69 @@
+package com.mystudies.springboot2essentials.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * The local date time to the millisecond, computed and formatted once per millisecond however many callers ask
+ * for it, for the timestamps of error bodies. {@link LocalDateTime} is immutable, so every caller of the same
+ * millisecond shares one instance, and {@link TimestampSerializer} writes the text formatted along with it.
+ */
+public final class CachedClock {
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private static volatile Tick tick = tick(System.currentTimeMillis());
+
+    private CachedClock() {
+    }
+
+    public static LocalDateTime now() {
+        return current().time();
+    }
+
+    private static Tick current() {
+        long millis = System.currentTimeMillis();
+        Tick current = tick;
+        if (current.millis() != millis) {
+            current = tick(millis);
+            tick = current;
+        }
+        return current;
+    }
+
+    private static Tick tick(long millis) {
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZONE);
+        return new Tick(millis, time, DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(time));
+    }
+
+    private record Tick(long millis, LocalDateTime time, String formatted) {
+    }
+
+    /**
+     * Writes the text formatted along with a timestamp of the current millisecond, and formats any other one the
+     * way Jackson's own serializer would.
+     */
+    public static class TimestampSerializer extends StdSerializer<LocalDateTime> {
+        public TimestampSerializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            Tick current = tick;
+            if (value == current.time() && !provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+                generator.writeString(current.formatted());
+            } else {
+                provider.findValueSerializer(LocalDateTime.class).serialize(value, generator, provider);
+            }
+        }
+    }
+}
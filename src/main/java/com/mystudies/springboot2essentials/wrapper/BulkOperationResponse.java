@@ -0,0 +1,33 @@
+package com.mystudies.springboot2essentials.wrapper;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk operation: the ids that were written and, per rejected item, its position in the
+ * request and the reason, so a client can retry just the failures.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkOperationResponse {
+    private int requested;
+    private int succeeded;
+    private List<Long> ids;
+    private List<ItemFailure> failures;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ItemFailure {
+        private int index;
+        private Long id;
+        private String message;
+    }
+}
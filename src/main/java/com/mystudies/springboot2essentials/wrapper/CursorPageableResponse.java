@@ -0,0 +1,38 @@
+package com.mystudies.springboot2essentials.wrapper;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonCreator.Mode;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Keyset counterpart of {@link PageableResponse}: carries the cursor of the next page instead of a page
+ * number, and the total only when the client asked for it.
+ */
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPageableResponse<T> {
+    private final List<T> content;
+    private final int size;
+    private final int numberOfElements;
+    private final boolean hasNext;
+    private final String nextCursor;
+    private final Long totalElements;
+
+    @JsonCreator(mode = Mode.PROPERTIES)
+    public CursorPageableResponse(@JsonProperty("content") List<T> content,
+        @JsonProperty("size") int size,
+        @JsonProperty("hasNext") boolean hasNext,
+        @JsonProperty("nextCursor") String nextCursor,
+        @JsonProperty("totalElements") Long totalElements) {
+        this.content = content;
+        this.size = size;
+        this.numberOfElements = content.size();
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+        this.totalElements = totalElements;
+    }
+}
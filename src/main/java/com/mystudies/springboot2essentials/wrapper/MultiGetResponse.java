@@ -0,0 +1,19 @@
+package com.mystudies.springboot2essentials.wrapper;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a lookup of many ids at once: the ones found, in the order they were asked for, and the ones
+ * that do not exist, so a client can tell them apart without a request per id.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MultiGetResponse<T> {
+    private List<T> content;
+    private List<Long> missingIds;
+}
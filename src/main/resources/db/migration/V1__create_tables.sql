@@ -0,0 +1,28 @@
+-- The schema Hibernate created with ddl-auto: update until migrations took over. Databases created that way are
+-- baselined at this version (spring.flyway.baseline-on-migrate), so it only runs on new ones.
+create table anime (
+    id bigint not null auto_increment,
+    name varchar(255),
+    version bigint not null,
+    primary key (id)
+) engine = InnoDB;
+
+create index idx_anime_name on anime (name);
+
+create table user_info (
+    id bigint not null auto_increment,
+    authorities varchar(255),
+    name varchar(255),
+    password varchar(255),
+    username varchar(255),
+    primary key (id)
+) engine = InnoDB;
+
+create table anime_audit (
+    id bigint not null auto_increment,
+    anime_id bigint,
+    occurred_at datetime(6),
+    type varchar(16),
+    username varchar(255),
+    primary key (id)
+) engine = InnoDB;
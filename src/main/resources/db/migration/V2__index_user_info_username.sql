@@ -0,0 +1,2 @@
+-- Every login not served by the authentication cache looks its user up by username.
+create index idx_user_info_username on user_info (username);
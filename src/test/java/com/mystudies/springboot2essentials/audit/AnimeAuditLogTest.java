@@ -0,0 +1,99 @@
+package com.mystudies.springboot2essentials.audit;
+
+import com.mystudies.springboot2essentials.audit.AnimeAuditLog.OverflowPolicy;
+import com.mystudies.springboot2essentials.event.AnimeChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests for Anime Audit Log")
+class AnimeAuditLogTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplateMock;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AnimeAuditLog animeAuditLog;
+
+    @AfterEach
+    void tearDown() {
+        if (animeAuditLog.isRunning()) {
+            animeAuditLog.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("onAnimeChanged drops the change when the buffer is full and the policy is drop.")
+    void onAnimeChanged_DropsChange_WhenBufferIsFullAndPolicyIsDrop() throws InterruptedException {
+        animeAuditLog = animeAuditLog(1, OverflowPolicy.DROP, 10);
+
+        animeAuditLog.onAnimeChanged(AnimeChangedEvent.created(1L));
+        animeAuditLog.onAnimeChanged(AnimeChangedEvent.created(2L));
+
+        Assertions.assertThat(meterRegistry.get("anime.audit.buffer.size").gauge().value()).isEqualTo(1);
+        Assertions.assertThat(events("dropped")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("start writes one row per anime in JDBC batches of at most batch size rows.")
+    void start_WritesOneRowPerAnimeInBatches_WhenChangesAreBuffered() throws InterruptedException {
+        animeAuditLog = animeAuditLog(10, OverflowPolicy.BLOCK, 2);
+        animeAuditLog.onAnimeChanged(new AnimeChangedEvent(AnimeChangedEvent.Type.DELETED, List.of(1L, 2L, 3L)));
+
+        animeAuditLog.start();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(jdbcTemplateMock, Mockito.timeout(5000).times(2))
+                .batchUpdate(ArgumentMatchers.anyString(), rows.capture());
+        animeAuditLog.stop();
+        Assertions.assertThat(rows.getAllValues()).extracting(List::size).containsExactly(2, 1);
+        Assertions.assertThat(rows.getAllValues().get(0).get(0)).startsWith(1L, "DELETED", "system");
+        Assertions.assertThat(events("written")).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get("anime.audit.lag").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("start retries a batch until it is written when the database fails.")
+    void start_RetriesBatch_WhenDatabaseFails() throws InterruptedException {
+        BDDMockito.when(jdbcTemplateMock.batchUpdate(ArgumentMatchers.anyString(),
+                        ArgumentMatchers.<List<Object[]>>any()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(new int[]{1});
+        animeAuditLog = animeAuditLog(10, OverflowPolicy.BLOCK, 10);
+        animeAuditLog.onAnimeChanged(AnimeChangedEvent.updated(1L));
+
+        animeAuditLog.start();
+
+        Mockito.verify(jdbcTemplateMock, Mockito.timeout(5000).times(2))
+                .batchUpdate(ArgumentMatchers.anyString(), ArgumentMatchers.<List<Object[]>>any());
+        animeAuditLog.stop();
+        Assertions.assertThat(events("written")).isEqualTo(1);
+        Assertions.assertThat(events("dropped")).isZero();
+    }
+
+    private AnimeAuditLog animeAuditLog(int capacity, OverflowPolicy overflowPolicy, int batchSize) {
+        return new AnimeAuditLog(jdbcTemplateMock, meterRegistry, capacity, overflowPolicy, Duration.ZERO, batchSize,
+                Duration.ofMillis(10));
+    }
+
+    private double events(String outcome) {
+        return meterRegistry.get("anime.audit.events").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,38 @@
+package com.mystudies.springboot2essentials.benchmark;
+
+import com.mystudies.springboot2essentials.domain.Anime;
+import com.mystudies.springboot2essentials.mapper.AnimeMapper;
+import com.mystudies.springboot2essentials.requests.AnimePostRequestBody;
+import com.mystudies.springboot2essentials.requests.AnimePutRequestBody;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnimeMapperBenchmark {
+    private final AnimePostRequestBody animePostRequestBody = new AnimePostRequestBody("Hellsing Ultimate");
+    private final AnimePutRequestBody animePutRequestBody = new AnimePutRequestBody(1L, "Hellsing Ultimate", 3L);
+
+    @Benchmark
+    public Anime toAnimeFromPostRequestBody() {
+        return AnimeMapper.INSTANCE.toAnime(animePostRequestBody);
+    }
+
+    @Benchmark
+    public Anime toAnimeFromPutRequestBody() {
+        return AnimeMapper.INSTANCE.toAnime(animePutRequestBody);
+    }
+}
@@ -0,0 +1,91 @@
+package com.mystudies.springboot2essentials.benchmark;
+
+import com.mystudies.springboot2essentials.domain.Anime;
+import com.mystudies.springboot2essentials.requests.AnimePostRequestBody;
+import com.mystudies.springboot2essentials.service.AnimeBulkService;
+import com.mystudies.springboot2essentials.service.AnimeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the three /animes/search modes over a generated catalog. Names are made of three words
+ * from a small vocabulary, so every word matches a large share of the catalog, which is the worst case
+ * for the full-text ranking.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnimeSearchBenchmark {
+    private static final String[] WORDS = {"dragon", "ball", "hunter", "attack", "titan", "naruto", "bleach",
+            "piece", "sword", "online", "death", "note", "steins", "gate", "code", "geass", "cowboy", "bebop",
+            "spirited", "away", "ghost", "shell", "fullmetal", "alchemist", "yuyu", "hakusho", "overlord"};
+    private static final int BULK_SIZE = 10000;
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20);
+
+    @Param({"10000", "100000"})
+    private int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private AnimeService animeService;
+    private String existingName;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        animeService = context.getBean(AnimeService.class);
+        AnimeBulkService animeBulkService = context.getBean(AnimeBulkService.class);
+
+        Random random = new Random(42);
+        for (int saved = 0; saved < catalogSize; saved += BULK_SIZE) {
+            List<AnimePostRequestBody> animes = new ArrayList<>(BULK_SIZE);
+            for (int i = 0; i < Math.min(BULK_SIZE, catalogSize - saved); i++) {
+                animes.add(new AnimePostRequestBody(WORDS[random.nextInt(WORDS.length)] + " "
+                        + WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]));
+            }
+            animeBulkService.saveAll(animes);
+        }
+        existingName = animeService.findByNamePrefix("dragon", FIRST_PAGE).getContent().get(0).getName();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Anime> exact() {
+        return animeService.findByName(existingName);
+    }
+
+    @Benchmark
+    public List<Anime> prefix() {
+        return animeService.findByNamePrefix("drag", FIRST_PAGE).getContent();
+    }
+
+    @Benchmark
+    public List<Anime> fullText() {
+        return animeService.searchByName("dragon titan", FIRST_PAGE).getContent();
+    }
+}
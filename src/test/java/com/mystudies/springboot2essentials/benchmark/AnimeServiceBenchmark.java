@@ -0,0 +1,101 @@
+package com.mystudies.springboot2essentials.benchmark;
+
+import com.mystudies.springboot2essentials.domain.Anime;
+import com.mystudies.springboot2essentials.requests.AnimePostRequestBody;
+import com.mystudies.springboot2essentials.requests.AnimePutRequestBody;
+import com.mystudies.springboot2essentials.requests.CursorPageRequest;
+import com.mystudies.springboot2essentials.service.AnimeBulkService;
+import com.mystudies.springboot2essentials.service.AnimeService;
+import com.mystudies.springboot2essentials.wrapper.CursorPageableResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * The service calls behind the anime endpoints, through the Spring proxies (transactions, cache, events)
+ * on an embedded H2 database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnimeServiceBenchmark {
+    private static final int CATALOG_SIZE = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private AnimeService animeService;
+    private List<Long> ids;
+    private CursorPageRequest middleCursor;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        animeService = context.getBean(AnimeService.class);
+        ids = context.getBean(AnimeBulkService.class)
+                .saveAll(IntStream.range(0, CATALOG_SIZE)
+                        .mapToObj(i -> new AnimePostRequestBody("Anime " + i))
+                        .toList())
+                .getIds();
+        middleCursor = CursorPageRequest.of(CursorPageRequest.encodeCursor(ids.get(CATALOG_SIZE / 2)), 20, true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private long nextId() {
+        next = (next + 1) % ids.size();
+        return ids.get(next);
+    }
+
+    @Benchmark
+    public Anime findByIdOrThrowBadRequestException() {
+        return animeService.findByIdOrThrowBadRequestException(nextId());
+    }
+
+    @Benchmark
+    public List<Anime> findByName() {
+        return animeService.findByName("Anime 4242");
+    }
+
+    @Benchmark
+    public Page<Anime> listAll() {
+        return animeService.listAll(PageRequest.of(CATALOG_SIZE / 40, 20));
+    }
+
+    @Benchmark
+    public CursorPageableResponse<Anime> listAllByCursor() {
+        return animeService.listAllByCursor(middleCursor);
+    }
+
+    @Benchmark
+    public Anime save() {
+        return animeService.save(new AnimePostRequestBody("Saved anime"));
+    }
+
+    @Benchmark
+    public void replace() {
+        long id = nextId();
+        animeService.replace(new AnimePutRequestBody(id, "Replaced anime " + id, null));
+    }
+}
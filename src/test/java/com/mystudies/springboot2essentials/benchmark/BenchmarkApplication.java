@@ -0,0 +1,61 @@
+package com.mystudies.springboot2essentials.benchmark;
+
+import com.mystudies.springboot2essentials.SpringBoot2EssentialsApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Boots the application on an in-memory H2 database, so benchmarks measure the application without
+ * needing the MySQL container.
+ */
+public final class BenchmarkApplication {
+    private static final String[] DEFAULT_PROPERTIES = {
+            "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+            "spring.datasource.username=sa",
+            "spring.datasource.password=",
+            "spring.jpa.hibernate.ddl-auto=create",
+            "logging.level.root=warn",
+            "logging.level.org.hibernate.SQL=warn"
+    };
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * Without a web server, for the service and repository layers.
+     */
+    public static ConfigurableApplicationContext start(String... properties) {
+        return run(WebApplicationType.NONE, properties);
+    }
+
+    /**
+     * With Tomcat on a random port, for load tests over HTTP.
+     */
+    public static ConfigurableApplicationContext startServer(String... properties) {
+        return run(WebApplicationType.SERVLET, Stream.concat(Stream.of("server.port=0"), Stream.of(properties))
+                .toArray(String[]::new));
+    }
+
+    /**
+     * Properties are passed as command line arguments, since they must override application.yml; later ones
+     * replace defaults with the same name.
+     */
+    private static ConfigurableApplicationContext run(WebApplicationType webApplicationType, String... properties) {
+        Map<String, String> merged = new LinkedHashMap<>();
+        Stream.concat(Stream.of(DEFAULT_PROPERTIES), Stream.of(properties)).forEach(property -> {
+            int separator = property.indexOf('=');
+            merged.put(property.substring(0, separator), property.substring(separator + 1));
+        });
+        String[] args = merged.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(SpringBoot2EssentialsApplication.class)
+                .web(webApplicationType)
+                .run(args);
+    }
+}
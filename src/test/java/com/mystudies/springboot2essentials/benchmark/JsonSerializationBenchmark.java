@@ -0,0 +1,79 @@
+package com.mystudies.springboot2essentials.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mystudies.springboot2essentials.domain.Anime;
+import com.mystudies.springboot2essentials.wrapper.PageableResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Response bodies as the controllers write them: a plain list, as in /animes/all and /animes/findByName,
+ * and a page, as in /animes. Pages are also read back into {@link PageableResponse}, as clients do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    private static final TypeReference<PageableResponse<Anime>> PAGEABLE_RESPONSE = new TypeReference<>() {
+    };
+
+    @Param({"1", "20", "500"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<Anime> animes;
+    private PageImpl<Anime> animePage;
+    private String animePageJson;
+
+    /**
+     * Same defaults as the ObjectMapper Spring Boot auto-configures.
+     */
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        animes = LongStream.rangeClosed(1, size)
+                .mapToObj(id -> new Anime(id, "Anime " + id, 0))
+                .toList();
+        animePage = new PageImpl<>(animes, PageRequest.of(0, size), 10_000);
+        animePageJson = objectMapper.writeValueAsString(animePage);
+    }
+
+    @Benchmark
+    public byte[] writeAnimeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(animes);
+    }
+
+    @Benchmark
+    public byte[] writeAnimePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(animePage);
+    }
+
+    @Benchmark
+    public PageableResponse<Anime> readPageableResponse() throws JsonProcessingException {
+        return objectMapper.readValue(animePageJson, PAGEABLE_RESPONSE);
+    }
+}
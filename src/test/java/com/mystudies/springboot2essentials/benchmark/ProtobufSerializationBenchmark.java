@@ -0,0 +1,69 @@
+package com.mystudies.springboot2essentials.benchmark;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.mystudies.springboot2essentials.domain.Anime;
+import com.mystudies.springboot2essentials.mapper.AnimeProtoMapper;
+import com.mystudies.springboot2essentials.proto.AnimeProtos;
+import com.mystudies.springboot2essentials.wrapper.PageableResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * The bodies of {@link JsonSerializationBenchmark} in the application/x-protobuf format, with the same
+ * benchmark names and sizes so both can be run together and compared line by line. Writes include mapping
+ * the entities to messages, as AnimeProtobufHttpMessageConverter does per response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProtobufSerializationBenchmark {
+
+    @Param({"1", "20", "500"})
+    private int size;
+
+    private List<Anime> animes;
+    private PageImpl<Anime> animePage;
+    private byte[] animePageProtobuf;
+
+    @Setup
+    public void setUp() {
+        animes = LongStream.rangeClosed(1, size)
+                .mapToObj(id -> new Anime(id, "Anime " + id, 0))
+                .toList();
+        animePage = new PageImpl<>(animes, PageRequest.of(0, size), 10_000);
+        animePageProtobuf = AnimeProtoMapper.toAnimePage(animePage).toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeAnimeList() {
+        return AnimeProtoMapper.toAnimeList(animes).toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeAnimePage() {
+        return AnimeProtoMapper.toAnimePage(animePage).toByteArray();
+    }
+
+    @Benchmark
+    public PageableResponse<Anime> readPageableResponse() throws InvalidProtocolBufferException {
+        return AnimeProtoMapper.toPageableResponse(AnimeProtos.AnimePage.parseFrom(animePageProtobuf));
+    }
+}
@@ -0,0 +1,128 @@
+package com.mystudies.springboot2essentials.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mystudies.springboot2essentials.controller.AnimeController;
+import com.mystudies.springboot2essentials.exception.BadRequestException;
+import com.mystudies.springboot2essentials.handler.RestExceptionHandler;
+import com.mystudies.springboot2essentials.requests.AnimePostRequestBody;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Error bodies for the three handled families: the service's {@link BadRequestException}, bean validation
+ * failures and the generic Spring MVC exceptions. The serialized variants add the JSON writing the
+ * response goes through.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RestExceptionHandlerBenchmark {
+    /**
+     * About as deep as a service is called from, below Tomcat, the filters and Spring MVC; filling in the stack
+     * trace of an exception costs in proportion to it.
+     */
+    private static final int REQUEST_STACK_DEPTH = 128;
+
+    private final RestExceptionHandler restExceptionHandler = new RestExceptionHandler();
+    private final BadRequestException badRequestException = new BadRequestException("Anime not found!");
+
+    private ObjectMapper objectMapper;
+    private WebRequest webRequest;
+    private MethodArgumentNotValidException methodArgumentNotValidException;
+    private HttpMessageNotReadableException httpMessageNotReadableException;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        webRequest = new ServletWebRequest(new MockHttpServletRequest("POST", "/animes/admin"));
+
+        AnimePostRequestBody animePostRequestBody = new AnimePostRequestBody("");
+        BeanPropertyBindingResult bindingResult =
+                new BeanPropertyBindingResult(animePostRequestBody, "animePostRequestBody");
+        bindingResult.addError(new FieldError("animePostRequestBody", "name", "",
+                false, null, null, "The name cannot be empty nor null!"));
+        MethodParameter parameter =
+                new MethodParameter(AnimeController.class.getMethod("save", AnimePostRequestBody.class), 0);
+        methodArgumentNotValidException = new MethodArgumentNotValidException(parameter, bindingResult);
+
+        httpMessageNotReadableException = new HttpMessageNotReadableException("JSON parse error",
+                new IllegalArgumentException("Unexpected character ('}' (code 125))"),
+                new MockHttpInputMessage(new byte[0]));
+    }
+
+    @Benchmark
+    public ResponseEntity<?> badRequestException() {
+        return restExceptionHandler.handleBadRequestException(badRequestException);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> methodArgumentNotValidException() {
+        return restExceptionHandler.handleMethodArgumentNotValid(methodArgumentNotValidException,
+                new HttpHeaders(), HttpStatus.BAD_REQUEST, webRequest);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> httpMessageNotReadableException() throws Exception {
+        return restExceptionHandler.handleException(httpMessageNotReadableException, webRequest);
+    }
+
+    /**
+     * The whole error path of a probe for an unknown id: thrown by the service, handled and serialized.
+     */
+    @Benchmark
+    public byte[] animeNotFound() throws JsonProcessingException {
+        try {
+            throwAnimeNotFound(REQUEST_STACK_DEPTH);
+            throw new IllegalStateException("Not thrown");
+        } catch (BadRequestException e) {
+            return objectMapper.writeValueAsBytes(restExceptionHandler.handleBadRequestException(e).getBody());
+        }
+    }
+
+    @Benchmark
+    public byte[] badRequestExceptionSerialized() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(badRequestException().getBody());
+    }
+
+    @Benchmark
+    public byte[] methodArgumentNotValidExceptionSerialized() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(methodArgumentNotValidException().getBody());
+    }
+
+    private static void throwAnimeNotFound(int depth) {
+        if (depth == 0) {
+            throw new BadRequestException("Anime not found!");
+        }
+        throwAnimeNotFound(depth - 1);
+    }
+}
@@ -0,0 +1,44 @@
+package com.mystudies.springboot2essentials.benchmark;
+
+import com.mystudies.springboot2essentials.domain.UserInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Called for every authenticated request, by the authentication cache and by the authorization rules.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserInfoAuthoritiesBenchmark {
+    private final UserInfo admin = UserInfo.builder()
+            .id(1L)
+            .name("Vinicius")
+            .username("vinicius")
+            .authorities("ROLE_ADMIN,ROLE_USER")
+            .build();
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return admin.getAuthorities();
+    }
+
+    @Benchmark
+    public boolean hasAuthority() {
+        return admin.hasAuthority("ROLE_USER");
+    }
+}
@@ -0,0 +1,118 @@
+package com.mystudies.springboot2essentials.cache;
+
+import com.mystudies.springboot2essentials.domain.Anime;
+import com.mystudies.springboot2essentials.event.AnimeChangedEvent;
+import com.mystudies.springboot2essentials.util.AnimeCreator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+@DisplayName("Tests for Anime Cache")
+class AnimeCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AnimeCache animeCache;
+
+    private AtomicInteger loads;
+
+    private Function<Long, Optional<Anime>> loader;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        animeCache = new AnimeCache(meterRegistry, 100, Duration.ofMinutes(1), Duration.ofMinutes(1),
+                Duration.ofSeconds(2));
+        loads = new AtomicInteger();
+        loader = id -> {
+            loads.incrementAndGet();
+            return Optional.of(AnimeCreator.createValidAnime());
+        };
+    }
+
+    @Test
+    @DisplayName("onAnimeChanged evicts the changed Anime so the next read loads it again.")
+    void onAnimeChanged_EvictsChangedAnime_WhenAnimeIsUpdated() {
+        animeCache.get(1L, loader);
+        animeCache.get(2L, loader);
+
+        animeCache.onAnimeChanged(AnimeChangedEvent.updated(1L));
+
+        animeCache.get(1L, loader);
+        animeCache.get(2L, loader);
+
+        Assertions.assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("get hands every caller its own copy, so changing one leaves the cached Anime alone.")
+    void get_ReturnsCopies_SoChangingOneLeavesCachedAnimeAlone() {
+        Anime changed = animeCache.get(1L, loader).orElseThrow();
+        changed.setName("Changed by a caller");
+
+        Anime anime = animeCache.get(1L, loader).orElseThrow();
+        Anime fromGetAll = animeCache.getAll(List.of(1L), ids -> Map.of()).get(1L).orElseThrow();
+
+        Assertions.assertThat(anime).isNotSameAs(changed).isNotSameAs(fromGetAll);
+        Assertions.assertThat(anime.getName()).isEqualTo(AnimeCreator.createValidAnime().getName());
+        Assertions.assertThat(fromGetAll.getName()).isEqualTo(AnimeCreator.createValidAnime().getName());
+        Assertions.assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("getAll loads only the ids not cached, in one call, and caches the ones not found as misses.")
+    void getAll_LoadsOnlyUncachedIdsInOneCall_WhenSomeAreCached() {
+        animeCache.get(1L, loader);
+        List<Set<Long>> bulkLoads = new ArrayList<>();
+        Function<Iterable<Long>, Map<Long, Anime>> bulkLoader = ids -> {
+            Set<Long> idSet = new HashSet<>();
+            ids.forEach(idSet::add);
+            bulkLoads.add(idSet);
+            return Map.of(2L, Anime.builder().id(2L).name("Second test").build());
+        };
+
+        Map<Long, Optional<Anime>> animes = animeCache.getAll(List.of(1L, 2L, 3L), bulkLoader);
+        animeCache.getAll(List.of(2L, 3L), bulkLoader);
+
+        Assertions.assertThat(animes.get(1L)).contains(AnimeCreator.createValidAnime());
+        Assertions.assertThat(animes.get(2L)).map(Anime::getId).contains(2L);
+        Assertions.assertThat(animes.get(3L)).isEmpty();
+        Assertions.assertThat(bulkLoads).containsExactly(Set.of(2L, 3L));
+    }
+
+    @Test
+    @DisplayName("get records hits and misses in the meter registry.")
+    void get_RecordsHitsAndMisses_WhenSuccessful() {
+        animeCache.get(1L, loader);
+        animeCache.get(1L, loader);
+
+        Assertions.assertThat(meterRegistry.get("cache.gets").tag("cache", AnimeCache.NAME).tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get("cache.gets").tag("cache", AnimeCache.NAME).tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("get rethrows the loader failure and does not cache it.")
+    void get_RethrowsLoaderFailureWithoutCachingIt_WhenLoaderThrows() {
+        Assertions.assertThatIllegalStateException()
+                .isThrownBy(() -> animeCache.get(1L, id -> {
+                    throw new IllegalStateException("Database is down");
+                }));
+
+        Assertions.assertThat(animeCache.get(1L, loader)).contains(AnimeCreator.createValidAnime());
+        Assertions.assertThat(loads).hasValue(1);
+    }
+}
@@ -0,0 +1,32 @@
+package com.mystudies.springboot2essentials.cache;
+
+import com.mystudies.springboot2essentials.event.AnimeChangedEvent;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+class AnimeCatalogVersionTest {
+
+    private final AnimeCatalogVersion animeCatalogVersion = new AnimeCatalogVersion(Duration.ofSeconds(2));
+
+    @Test
+    @DisplayName("getETag stays the same while no Anime changes.")
+    void getETag_StaysTheSame_WhileNoAnimeChanges() {
+        Assertions.assertThat(animeCatalogVersion.getETag())
+                .isEqualTo(animeCatalogVersion.getETag())
+                .startsWith("\"")
+                .endsWith("\"");
+    }
+
+    @Test
+    @DisplayName("getETag changes when an Anime change is committed.")
+    void getETag_Changes_WhenAnimeChangeIsCommitted() {
+        String eTag = animeCatalogVersion.getETag();
+
+        animeCatalogVersion.onAnimeChanged(AnimeChangedEvent.updated(1L));
+
+        Assertions.assertThat(animeCatalogVersion.getETag()).isNotEqualTo(eTag);
+    }
+}
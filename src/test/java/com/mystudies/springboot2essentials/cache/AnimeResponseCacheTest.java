@@ -0,0 +1,66 @@
+package com.mystudies.springboot2essentials.cache;
+
+import com.mystudies.springboot2essentials.cache.AnimeResponseCache.CachedResponse;
+import com.mystudies.springboot2essentials.event.AnimeChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+@DisplayName("Tests for Anime Response Cache")
+class AnimeResponseCacheTest {
+    private static final byte[] BODY = "[{\"id\":1,\"name\":\"Anime test\",\"version\":0}]"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AnimeResponseCache animeResponseCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        animeResponseCache = new AnimeResponseCache(meterRegistry, DataSize.ofKilobytes(1), true, Runnable::run);
+    }
+
+    @Test
+    @DisplayName("put keeps the body and a gzipped copy of it when gzip is enabled.")
+    void put_KeepsBodyAndGzippedCopy_WhenGzipIsEnabled() throws IOException {
+        animeResponseCache.put("/animes/all", BODY, "application/json", "\"catalog-1\"", "no-cache");
+
+        CachedResponse cached = animeResponseCache.get("/animes/all");
+
+        Assertions.assertThat(cached.body()).isEqualTo(BODY);
+        Assertions.assertThat(cached.eTag()).isEqualTo("\"catalog-1\"");
+        try (GZIPInputStream gunzipped = new GZIPInputStream(new ByteArrayInputStream(cached.gzippedBody()))) {
+            Assertions.assertThat(gunzipped.readAllBytes()).isEqualTo(BODY);
+        }
+    }
+
+    @Test
+    @DisplayName("onAnimeChanged empties the cache.")
+    void onAnimeChanged_EmptiesTheCache() {
+        animeResponseCache.put("/animes/all", BODY, "application/json", null, null);
+
+        animeResponseCache.onAnimeChanged(AnimeChangedEvent.created(2L));
+
+        Assertions.assertThat(animeResponseCache.get("/animes/all")).isNull();
+    }
+
+    @Test
+    @DisplayName("put never keeps more bytes than the maximum weight.")
+    void put_NeverKeepsMoreBytesThanTheMaximumWeight() {
+        for (int page = 0; page < 50; page++) {
+            animeResponseCache.put("/animes|page=" + page, BODY, "application/json", null, null);
+        }
+
+        Assertions.assertThat(meterRegistry.get("cache.weighted.size").tag("cache", AnimeResponseCache.NAME)
+                .gauge().value()).isPositive().isLessThanOrEqualTo(1024);
+    }
+}
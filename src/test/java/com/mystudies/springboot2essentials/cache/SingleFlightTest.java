@@ -0,0 +1,121 @@
+package com.mystudies.springboot2essentials.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@DisplayName("Tests for Single Flight")
+class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ExecutorService executor;
+
+    private AtomicInteger lookups;
+
+    private CountDownLatch lookupStarted;
+
+    private CountDownLatch lookupReleased;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = Executors.newSingleThreadExecutor();
+        lookups = new AtomicInteger();
+        lookupStarted = new CountDownLatch(1);
+        lookupReleased = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        lookupReleased.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("execute shares the running lookup's result with a concurrent call of the same key.")
+    void execute_SharesRunningLookupResult_WhenSameKeyIsCalledConcurrently() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test", Duration.ofSeconds(5), meterRegistry);
+        Future<String> first = executor.submit(() -> singleFlight.execute("key", blockingLookup(() -> "result")));
+        lookupStarted.await(5, TimeUnit.SECONDS);
+
+        new Thread(this::releaseWhenCollapsed).start();
+        String second = singleFlight.execute("key", () -> "not run");
+
+        Assertions.assertThat(second).isEqualTo("result");
+        Assertions.assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+        Assertions.assertThat(lookups).hasValue(1);
+        Assertions.assertThat(count("executed")).isEqualTo(1);
+        Assertions.assertThat(count("collapsed")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("execute rethrows the running lookup's failure to a concurrent call of the same key.")
+    void execute_RethrowsRunningLookupFailure_WhenSameKeyIsCalledConcurrently() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test", Duration.ofSeconds(5), meterRegistry);
+        Future<String> first = executor.submit(() -> singleFlight.execute("key", blockingLookup(() -> {
+            throw new IllegalStateException("Database is down");
+        })));
+        lookupStarted.await(5, TimeUnit.SECONDS);
+
+        new Thread(this::releaseWhenCollapsed).start();
+
+        Assertions.assertThatIllegalStateException()
+                .isThrownBy(() -> singleFlight.execute("key", () -> "not run"))
+                .withMessage("Database is down");
+        Assertions.assertThatExceptionOfType(ExecutionException.class).isThrownBy(() -> first.get(5, TimeUnit.SECONDS))
+                .withCauseInstanceOf(IllegalStateException.class);
+        Assertions.assertThat(singleFlight.execute("key", () -> "next")).isEqualTo("next");
+    }
+
+    @Test
+    @DisplayName("execute runs the lookup itself when the running one takes longer than the timeout.")
+    void execute_RunsLookupItself_WhenRunningOneTakesLongerThanTimeout() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test", Duration.ofMillis(50), meterRegistry);
+        executor.submit(() -> singleFlight.execute("key", blockingLookup(() -> "stuck")));
+        lookupStarted.await(5, TimeUnit.SECONDS);
+
+        Assertions.assertThat(singleFlight.execute("key", () -> "own")).isEqualTo("own");
+        Assertions.assertThat(count("timeout")).isEqualTo(1);
+    }
+
+    private Supplier<String> blockingLookup(Supplier<String> lookup) {
+        return () -> {
+            lookups.incrementAndGet();
+            lookupStarted.countDown();
+            try {
+                lookupReleased.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return lookup.get();
+        };
+    }
+
+    /**
+     * Lets the running lookup finish only once the concurrent call is waiting for it.
+     */
+    private void releaseWhenCollapsed() {
+        while (count("collapsed") == 0) {
+            Thread.onSpinWait();
+        }
+        lookupReleased.countDown();
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("single.flight.calls").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,69 @@
+package com.mystudies.springboot2essentials.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+@DisplayName("Tests for Performance Self Check")
+class PerformanceSelfCheckTest {
+
+    @Test
+    @DisplayName("findings returns nothing when the prod profile settings are used.")
+    void findings_ReturnsNothing_WhenProdProfileSettingsAreUsed() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.jpa.hibernate.ddl-auto", "validate")
+                .withProperty("spring.jpa.open-in-view", "false")
+                .withProperty("spring.jpa.properties.hibernate.jdbc.batch_size", "50");
+        HikariDataSource dataSource = mysqlDataSource();
+        dataSource.addDataSourceProperty("useServerPrepStmts", "true");
+        dataSource.addDataSourceProperty("cachePrepStmts", "true");
+        dataSource.addDataSourceProperty("rewriteBatchedStatements", "true");
+
+        Assertions.assertThat(new PerformanceSelfCheck(environment, dataSource).findings()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("findings reports every setting hurting throughput when the defaults are used.")
+    void findings_ReportsEverySettingHurtingThroughput_WhenDefaultsAreUsed() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.jpa.hibernate.ddl-auto", "update")
+                .withProperty("spring.jpa.show-sql", "true")
+                .withProperty("spring.jpa.properties.hibernate.jdbc.fetch_size", "100");
+        HikariDataSource dataSource = mysqlDataSource();
+        dataSource.setMinimumIdle(2);
+        dataSource.setMaximumPoolSize(10);
+
+        Assertions.assertThat(new PerformanceSelfCheck(environment, dataSource).findings())
+                .hasSize(9)
+                .anyMatch(finding -> finding.startsWith("spring.jpa.hibernate.ddl-auto is update"))
+                .anyMatch(finding -> finding.startsWith("every SQL statement is logged"))
+                .anyMatch(finding -> finding.startsWith("spring.jpa.open-in-view"))
+                .anyMatch(finding -> finding.startsWith("hibernate.jdbc.batch_size is not set"))
+                .anyMatch(finding -> finding.startsWith("the pool keeps 2 of 10 connections idle"))
+                .anyMatch(finding -> finding.startsWith("Connector/J useServerPrepStmts is off"))
+                .anyMatch(finding -> finding.startsWith("Connector/J cachePrepStmts is off"))
+                .anyMatch(finding -> finding.startsWith("Connector/J rewriteBatchedStatements is off"))
+                .anyMatch(finding -> finding.startsWith("hibernate.jdbc.fetch_size is set with useCursorFetch"));
+    }
+
+    @Test
+    @DisplayName("findings reads Connector/J settings from the url when they are not data source properties.")
+    void findings_ReadsConnectorJSettingsFromUrl_WhenTheyAreNotDataSourceProperties() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.jpa.open-in-view", "false")
+                .withProperty("spring.jpa.properties.hibernate.jdbc.batch_size", "50");
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:mysql://localhost:3306/anime?useServerPrepStmts=true&cachePrepStmts=true" +
+                "&rewriteBatchedStatements=true");
+
+        Assertions.assertThat(new PerformanceSelfCheck(environment, dataSource).findings()).isEmpty();
+    }
+
+    private static HikariDataSource mysqlDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:mysql://localhost:3308/anime?createDatabaseIfNotExist=true&useCursorFetch=true");
+        return dataSource;
+    }
+}
@@ -0,0 +1,78 @@
+package com.mystudies.springboot2essentials.configurer;
+
+import com.mystudies.springboot2essentials.domain.Anime;
+import com.mystudies.springboot2essentials.mapper.AnimeProtoMapper;
+import com.mystudies.springboot2essentials.proto.AnimeProtos;
+import com.mystudies.springboot2essentials.requests.AnimePutRequestBody;
+import com.mystudies.springboot2essentials.wrapper.PageableResponse;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.util.List;
+
+import static com.mystudies.springboot2essentials.configurer.AnimeProtobufHttpMessageConverter.APPLICATION_PROTOBUF;
+
+@DisplayName("Tests for Anime Protobuf Http Message Converter")
+class AnimeProtobufHttpMessageConverterTest {
+
+    private final AnimeProtobufHttpMessageConverter converter = new AnimeProtobufHttpMessageConverter();
+
+    @Test
+    @DisplayName("write encodes a page of Animes as an AnimePage message.")
+    void write_EncodesPageOfAnimesAsAnimePageMessage() throws IOException {
+        Page<Anime> page = new PageImpl<>(List.of(new Anime(1L, "Anime test", 2)), PageRequest.of(1, 1), 2);
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        converter.write(page, Page.class, APPLICATION_PROTOBUF, outputMessage);
+
+        PageableResponse<Anime> decoded = AnimeProtoMapper.toPageableResponse(
+                AnimeProtos.AnimePage.parseFrom(outputMessage.getBodyAsBytes()));
+        Assertions.assertThat(decoded.getContent()).containsExactly(new Anime(1L, "Anime test", 2));
+        Assertions.assertThat(decoded.getNumber()).isEqualTo(1);
+        Assertions.assertThat(decoded.getTotalElements()).isEqualTo(2);
+        Assertions.assertThat(decoded.isLast()).isTrue();
+        Assertions.assertThat(outputMessage.getHeaders().getContentType()).isEqualTo(APPLICATION_PROTOBUF);
+    }
+
+    @Test
+    @DisplayName("canWrite accepts lists of Animes only.")
+    void canWrite_AcceptsListsOfAnimesOnly() {
+        Assertions.assertThat(converter.canWrite(new ParameterizedTypeReference<List<Anime>>() {}.getType(),
+                List.class, APPLICATION_PROTOBUF)).isTrue();
+        Assertions.assertThat(converter.canWrite(new ParameterizedTypeReference<List<String>>() {}.getType(),
+                List.class, APPLICATION_PROTOBUF)).isFalse();
+    }
+
+    @Test
+    @DisplayName("read leaves the version null when the AnimePutRequest does not carry one.")
+    void read_LeavesVersionNull_WhenAnimePutRequestDoesNotCarryOne() throws IOException {
+        byte[] body = AnimeProtos.AnimePutRequest.newBuilder().setId(1L).setName("Anime test 2").build()
+                .toByteArray();
+
+        Object request = converter.read(AnimePutRequestBody.class, null, new MockHttpInputMessage(body));
+
+        Assertions.assertThat(request).isEqualTo(new AnimePutRequestBody(1L, "Anime test 2", null));
+    }
+
+    @Test
+    @DisplayName("negotiate picks the media type the client weighs highest and JSON otherwise.")
+    void negotiate_PicksMediaTypeClientWeighsHighestAndJsonOtherwise() {
+        Assertions.assertThat(AnimeProtobufHttpMessageConverter.negotiate("application/x-protobuf"))
+                .isEqualTo(APPLICATION_PROTOBUF);
+        Assertions.assertThat(AnimeProtobufHttpMessageConverter.negotiate(
+                "application/json;q=0.5, application/x-protobuf")).isEqualTo(APPLICATION_PROTOBUF);
+        Assertions.assertThat(AnimeProtobufHttpMessageConverter.negotiate("*/*")).isEqualTo(MediaType.APPLICATION_JSON);
+        Assertions.assertThat(AnimeProtobufHttpMessageConverter.negotiate(null)).isEqualTo(MediaType.APPLICATION_JSON);
+        Assertions.assertThat(AnimeProtobufHttpMessageConverter.negotiate("not a media type"))
+                .isEqualTo(MediaType.APPLICATION_JSON);
+    }
+}
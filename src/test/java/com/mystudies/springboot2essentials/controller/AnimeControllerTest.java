@@ -1,12 +1,21 @@
 package com.mystudies.springboot2essentials.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mystudies.springboot2essentials.cache.AnimeCatalogVersion;
+import com.mystudies.springboot2essentials.cache.HttpCacheControl;
 import com.mystudies.springboot2essentials.domain.Anime;
 import com.mystudies.springboot2essentials.requests.AnimePostRequestBody;
 import com.mystudies.springboot2essentials.requests.AnimePutRequestBody;
+import com.mystudies.springboot2essentials.requests.CursorPageRequest;
+import com.mystudies.springboot2essentials.search.AnimeSearchMode;
+import com.mystudies.springboot2essentials.service.AnimeBulkService;
 import com.mystudies.springboot2essentials.service.AnimeService;
 import com.mystudies.springboot2essentials.util.AnimeCreator;
 import com.mystudies.springboot2essentials.util.AnimePostRequestBodyCreator;
 import com.mystudies.springboot2essentials.util.AnimePutRequestBodyCreator;
+import com.mystudies.springboot2essentials.wrapper.BulkOperationResponse;
+import com.mystudies.springboot2essentials.wrapper.CursorPageableResponse;
+import com.mystudies.springboot2essentials.wrapper.MultiGetResponse;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -16,14 +25,27 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.function.Consumer;
 
 @ExtendWith(SpringExtension.class)
 @DisplayName("Tests for Anime Controller")
@@ -34,25 +56,68 @@ class AnimeControllerTest {
     @Mock
     private AnimeService animeServiceMock;
 
+    @Mock
+    private AnimeBulkService animeBulkServiceMock;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private AnimeCatalogVersion animeCatalogVersionMock;
+
+    @Mock
+    private HttpCacheControl httpCacheControlMock;
+
     @BeforeEach
     void setUp() {
+        BDDMockito.when(animeCatalogVersionMock.getETag()).thenReturn("\"catalog-1\"");
+
+        BDDMockito.when(animeCatalogVersionMock.read(ArgumentMatchers.any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+
+        BDDMockito.when(httpCacheControlMock.getAnime()).thenReturn("private, no-cache");
+
+        BDDMockito.when(httpCacheControlMock.getAnimeList()).thenReturn("private, no-cache");
+
         PageImpl<Anime> animePage = new PageImpl<>(List.of(AnimeCreator.createValidAnime()));
 
         BDDMockito.when(animeServiceMock.listAll(ArgumentMatchers.any()))
                 .thenReturn(animePage);
 
+        BDDMockito.when(animeServiceMock.listAllByCursor(ArgumentMatchers.any()))
+                .thenReturn(new CursorPageableResponse<>(List.of(AnimeCreator.createValidAnime()), 1, false, null,
+                        null));
+
         BDDMockito.when(animeServiceMock.listAllNonPageable())
                 .thenReturn(List.of(AnimeCreator.createValidAnime()));
 
+        BDDMockito.doAnswer(invocation -> {
+            Consumer<Anime> consumer = invocation.getArgument(0);
+            consumer.accept(AnimeCreator.createValidAnime());
+            consumer.accept(AnimeCreator.createValidUpdatedAnime());
+            return null;
+        }).when(animeServiceMock).streamAll(ArgumentMatchers.any());
+
         BDDMockito.when(animeServiceMock.findByIdOrThrowBadRequestException(ArgumentMatchers.anyLong()))
                 .thenReturn(AnimeCreator.createValidAnime());
 
         BDDMockito.when(animeServiceMock.findByName(ArgumentMatchers.anyString()))
                 .thenReturn(List.of(AnimeCreator.createValidAnime()));
 
+        BDDMockito.when(animeServiceMock.searchByName(ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+                .thenReturn(new PageImpl<>(List.of(AnimeCreator.createValidAnime())));
+
         BDDMockito.when(animeServiceMock.save(ArgumentMatchers.any(AnimePostRequestBody.class)))
                 .thenReturn(AnimeCreator.createValidAnime());
 
+        BDDMockito.when(animeBulkServiceMock.saveAll(ArgumentMatchers.anyList()))
+                .thenReturn(BulkOperationResponse.builder()
+                        .requested(1)
+                        .succeeded(1)
+                        .ids(List.of(1L))
+                        .failures(Collections.emptyList())
+                        .build());
+
         BDDMockito.doNothing().when(animeServiceMock).replace(ArgumentMatchers.any(AnimePutRequestBody.class));
 
         BDDMockito.doNothing().when(animeServiceMock).delete(ArgumentMatchers.anyLong());
@@ -62,7 +127,7 @@ class AnimeControllerTest {
     @DisplayName("listAll returns list of Animes inside PAGE OBJECT when successful.")
     void listAll_ReturnsListOfAnimesInsidePageObject_WhenSuccessful() {
         String expectedName = AnimeCreator.createValidAnime().getName();
-        Page<Anime> animePage = animeController.listAll(null).getBody();
+        Page<Anime> animePage = animeController.listAll(null, webRequest(null)).getBody();
 
         Assertions.assertThat(animePage).isNotNull();
 
@@ -73,11 +138,27 @@ class AnimeControllerTest {
         Assertions.assertThat(animePage.toList().get(0).getName()).isEqualTo(expectedName);
     }
 
+    @Test
+    @DisplayName("listAllByCursor returns list of Animes inside CURSOR PAGE OBJECT when successful.")
+    void listAllByCursor_ReturnsListOfAnimesInsideCursorPageObject_WhenSuccessful() {
+        String expectedName = AnimeCreator.createValidAnime().getName();
+        CursorPageableResponse<Anime> animePage = animeController.listAllByCursor(
+                CursorPageRequest.of(null, 1, true)).getBody();
+
+        Assertions.assertThat(animePage).isNotNull();
+
+        Assertions.assertThat(animePage.getContent())
+                .isNotEmpty()
+                .hasSize(1);
+
+        Assertions.assertThat(animePage.getContent().get(0).getName()).isEqualTo(expectedName);
+    }
+
     @Test
     @DisplayName("listAllNonPageable returns list of Animes when successful.")
     void listAllNonPageable_ReturnsListOfAnimes_WhenSuccessful() {
         String expectedName = AnimeCreator.createValidAnime().getName();
-        List<Anime> animes = animeController.listAllNonPageable().getBody();
+        List<Anime> animes = animeController.listAllNonPageable(webRequest(null)).getBody();
 
         Assertions.assertThat(animes)
                 .isNotNull()
@@ -87,18 +168,84 @@ class AnimeControllerTest {
         Assertions.assertThat(animes.get(0).getName()).isEqualTo(expectedName);
     }
 
+    @Test
+    @DisplayName("streamAll writes one JSON Anime per line when successful.")
+    void streamAll_WritesOneJsonAnimePerLine_WhenSuccessful() throws Exception {
+        StreamingResponseBody body = animeController.streamAll().getBody();
+
+        Assertions.assertThat(body).isNotNull();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        body.writeTo(outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+
+        Assertions.assertThat(lines).hasSize(2);
+
+        Assertions.assertThat(objectMapper.readValue(lines[0], Anime.class))
+                .isEqualTo(AnimeCreator.createValidAnime());
+        Assertions.assertThat(objectMapper.readValue(lines[1], Anime.class))
+                .isEqualTo(AnimeCreator.createValidUpdatedAnime());
+    }
+
     @Test
     @DisplayName("findById returns Anime when successful.")
     void findById_ReturnsAnime_WhenSuccessful() {
         Long expectedId = AnimeCreator.createValidAnime().getId();
 
-        Anime anime = animeController.findById(1).getBody();
+        Anime anime = animeController.findById(1, webRequest(null)).getBody();
 
         Assertions.assertThat(anime).isNotNull();
 
         Assertions.assertThat(anime.getId()).isNotNull().isEqualTo(expectedId);
     }
 
+    @Test
+    @DisplayName("findById returns 304 Not Modified without body when the ETag matches.")
+    void findById_Returns304NotModifiedWithoutBody_WhenETagMatches() {
+        ResponseEntity<Anime> entity = animeController.findById(1, webRequest("\"1-0-json\""));
+
+        Assertions.assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        Assertions.assertThat(entity.getBody()).isNull();
+        Assertions.assertThat(entity.getHeaders().getCacheControl()).isEqualTo("private, no-cache");
+        Assertions.assertThat(entity.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT);
+    }
+
+    @Test
+    @DisplayName("findById returns the Anime when the ETag matches another media type than the one asked for.")
+    void findById_ReturnsAnime_WhenETagMatchesAnotherMediaType() {
+        ServletWebRequest webRequest = webRequest("\"1-0-json\"");
+        ((MockHttpServletRequest) webRequest.getRequest()).addHeader(HttpHeaders.ACCEPT, "application/x-protobuf");
+
+        ResponseEntity<Anime> entity = animeController.findById(1, webRequest);
+
+        Assertions.assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(entity.getBody()).isEqualTo(AnimeCreator.createValidAnime());
+        Assertions.assertThat(webRequest.getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo("\"1-0-x-protobuf\"");
+    }
+
+    @Test
+    @DisplayName("findAllByIds returns the found Animes and the missing ids when some are not found.")
+    void findAllByIds_ReturnsFoundAnimesAndMissingIds_WhenSomeAreNotFound() {
+        BDDMockito.when(animeServiceMock.findAllByIds(List.of(1L, 2L)))
+                .thenReturn(new MultiGetResponse<>(List.of(AnimeCreator.createValidAnime()), List.of(2L)));
+
+        MultiGetResponse<Anime> animes = animeController.findAllByIds(List.of(1L, 2L)).getBody();
+
+        Assertions.assertThat(animes).isNotNull();
+        Assertions.assertThat(animes.getContent()).containsExactly(AnimeCreator.createValidAnime());
+        Assertions.assertThat(animes.getMissingIds()).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("listAll returns 304 Not Modified without loading Animes when the catalog ETag matches.")
+    void listAll_Returns304NotModifiedWithoutLoadingAnimes_WhenCatalogETagMatches() {
+        ResponseEntity<Page<Anime>> entity = animeController.listAll(null, webRequest("\"catalog-1-json\""));
+
+        Assertions.assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        BDDMockito.verify(animeServiceMock, BDDMockito.never()).listAll(ArgumentMatchers.any());
+    }
+
     @Test
     @DisplayName("findByName returns a list of Animes when successful.")
     void findByName_ReturnsListOfAnimes_WhenSuccessful() {
@@ -127,6 +274,31 @@ class AnimeControllerTest {
                 .isEmpty();
     }
 
+    @Test
+    @DisplayName("search returns the ranked page of Animes, with its total, when mode is FULL_TEXT.")
+    void search_ReturnsRankedPageOfAnimesWithTotal_WhenModeIsFullText() {
+        Slice<Anime> animes = animeController.search("Name test", AnimeSearchMode.FULL_TEXT,
+                PageRequest.of(0, 5)).getBody();
+
+        Assertions.assertThat(animes).isInstanceOf(Page.class).containsExactly(AnimeCreator.createValidAnime());
+        Assertions.assertThat(((Page<Anime>) animes).getTotalElements()).isEqualTo(1);
+
+        BDDMockito.verify(animeServiceMock).searchByName("Name test", PageRequest.of(0, 5));
+        BDDMockito.verify(animeServiceMock, BDDMockito.never()).findByName(ArgumentMatchers.anyString());
+    }
+
+    @Test
+    @DisplayName("search returns the slice of Animes, telling whether there is a next one, when mode is PREFIX.")
+    void search_ReturnsSliceOfAnimesWithHasNext_WhenModeIsPrefix() {
+        BDDMockito.when(animeServiceMock.findByNamePrefix(ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+                .thenReturn(new SliceImpl<>(List.of(AnimeCreator.createValidAnime()), PageRequest.of(0, 1), true));
+
+        Slice<Anime> animes = animeController.search("Name", AnimeSearchMode.PREFIX, PageRequest.of(0, 1)).getBody();
+
+        Assertions.assertThat(animes).isNotNull().containsExactly(AnimeCreator.createValidAnime());
+        Assertions.assertThat(animes.hasNext()).isTrue();
+    }
+
     @Test
     @DisplayName("save returns Anime when successful.")
     void save_ReturnsAnime_WhenSuccessful() {
@@ -135,6 +307,18 @@ class AnimeControllerTest {
         Assertions.assertThat(anime).isNotNull().isEqualTo(AnimeCreator.createValidAnime());
     }
 
+    @Test
+    @DisplayName("saveAll returns the bulk operation report when successful.")
+    void saveAll_ReturnsBulkOperationReport_WhenSuccessful() {
+        BulkOperationResponse response = animeController.saveAll(
+                List.of(AnimePostRequestBodyCreator.createAnimePostRequestBody())).getBody();
+
+        Assertions.assertThat(response).isNotNull();
+        Assertions.assertThat(response.getSucceeded()).isEqualTo(1);
+        Assertions.assertThat(response.getIds()).containsExactly(1L);
+        Assertions.assertThat(response.getFailures()).isEmpty();
+    }
+
     @Test
     @DisplayName("replace updates Anime when successful.")
     void replace_UpdatesAnime_WhenSuccessful() {
@@ -164,4 +348,12 @@ class AnimeControllerTest {
 
         Assertions.assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
     }
+
+    private static ServletWebRequest webRequest(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/animes");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,141 @@
+package com.mystudies.springboot2essentials.filter;
+
+import com.mystudies.springboot2essentials.cache.AnimeCatalogVersion;
+import com.mystudies.springboot2essentials.cache.AnimeResponseCache;
+import com.mystudies.springboot2essentials.event.AnimeChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DisplayName("Tests for Anime Response Cache Filter")
+class AnimeResponseCacheFilterTest {
+    private static final String BODY = "[{\"id\":1,\"name\":\"Anime test\",\"version\":0}]";
+    private static final String ETAG = "\"catalog-1-json\"";
+
+    private AnimeCatalogVersion animeCatalogVersion;
+
+    private AnimeResponseCacheFilter animeResponseCacheFilter;
+
+    private AtomicInteger renders;
+
+    private FilterChain controller;
+
+    @BeforeEach
+    void setUp() {
+        animeCatalogVersion = new AnimeCatalogVersion(Duration.ofSeconds(2));
+        animeResponseCacheFilter = new AnimeResponseCacheFilter(
+                new AnimeResponseCache(new SimpleMeterRegistry(), DataSize.ofMegabytes(1), true),
+                animeCatalogVersion, 4);
+        renders = new AtomicInteger();
+        controller = (request, response) -> {
+            renders.incrementAndGet();
+            response.setContentType("application/json");
+            ((HttpServletResponse) response).setHeader(HttpHeaders.ETAG, ETAG);
+            response.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    @Test
+    @DisplayName("doFilter renders a hot page once and then serves the same bytes.")
+    void doFilter_RendersHotPageOnceAndThenServesSameBytes() throws ServletException, IOException {
+        MockHttpServletResponse first = get("/animes", "0", null);
+        MockHttpServletResponse second = get("/animes", "0", null);
+
+        Assertions.assertThat(renders).hasValue(1);
+        Assertions.assertThat(second.getContentAsString()).isEqualTo(first.getContentAsString()).isEqualTo(BODY);
+        Assertions.assertThat(second.getContentType()).isEqualTo("application/json");
+    }
+
+    @Test
+    @DisplayName("doFilter serves the gzipped copy to clients accepting gzip.")
+    void doFilter_ServesGzippedCopy_WhenClientAcceptsGzip() throws ServletException, IOException {
+        get("/animes/all", null, null);
+
+        MockHttpServletResponse gzipped = get("/animes/all", null, "gzip, deflate");
+
+        Assertions.assertThat(renders).hasValue(1);
+        Assertions.assertThat(gzipped.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        Assertions.assertThat(gzipped.getHeaders(HttpHeaders.VARY))
+                .containsExactly(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        Assertions.assertThat(gzipped.getHeader(HttpHeaders.ETAG)).isEqualTo("W/" + ETAG);
+        Assertions.assertThat(gzipped.getContentAsByteArray()).isNotEqualTo(BODY.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("doFilter serves the identity body with its strong ETag to clients refusing gzip.")
+    void doFilter_ServesIdentityBodyWithStrongETag_WhenClientRefusesGzip() throws ServletException, IOException {
+        get("/animes/all", null, null);
+
+        MockHttpServletResponse identity = get("/animes/all", null, "gzip;q=0, deflate");
+
+        Assertions.assertThat(renders).hasValue(1);
+        Assertions.assertThat(identity.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        Assertions.assertThat(identity.getHeader(HttpHeaders.ETAG)).isEqualTo(ETAG);
+        Assertions.assertThat(identity.getContentAsString()).isEqualTo(BODY);
+    }
+
+    @Test
+    @DisplayName("doFilter sends a body too large to be cached through without keeping it.")
+    void doFilter_SendsBodyThroughWithoutKeepingIt_WhenTooLargeToBeCached() throws ServletException, IOException {
+        String largeBody = BODY.repeat(5000);
+        controller = (request, response) -> {
+            renders.incrementAndGet();
+            response.setContentType("application/json");
+            response.getWriter().write(largeBody);
+        };
+
+        MockHttpServletResponse first = get("/animes/all", null, null);
+        MockHttpServletResponse second = get("/animes/all", null, null);
+
+        Assertions.assertThat(renders).hasValue(2);
+        Assertions.assertThat(first.getContentAsString()).isEqualTo(second.getContentAsString()).isEqualTo(largeBody);
+    }
+
+    @Test
+    @DisplayName("doFilter renders again once the catalog changed.")
+    void doFilter_RendersAgain_WhenCatalogChanged() throws ServletException, IOException {
+        get("/animes/all", null, null);
+
+        animeCatalogVersion.onAnimeChanged(AnimeChangedEvent.created(2L));
+        get("/animes/all", null, null);
+
+        Assertions.assertThat(renders).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("doFilter never caches pages past the hot ones.")
+    void doFilter_NeverCachesPagesPastTheHotOnes() throws ServletException, IOException {
+        get("/animes", "4", null);
+        get("/animes", "4", null);
+
+        Assertions.assertThat(renders).hasValue(2);
+    }
+
+    private MockHttpServletResponse get(String uri, String page, String acceptEncoding)
+            throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        if (page != null) {
+            request.setParameter("page", page);
+        }
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        animeResponseCacheFilter.doFilter(request, response, controller);
+        return response;
+    }
+}
@@ -0,0 +1,28 @@
+package com.mystudies.springboot2essentials.filter;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+@DisplayName("Tests for Content Coding")
+class ContentCodingTest {
+    private static final List<ContentCoding> PREFERRED = List.of(ContentCoding.ZSTD, ContentCoding.GZIP);
+
+    @Test
+    @DisplayName("negotiate prefers the server's order when the client weighs codings the same.")
+    void negotiate_PrefersServerOrder_WhenClientWeighsCodingsTheSame() {
+        Assertions.assertThat(ContentCoding.negotiate("gzip, deflate, br, zstd", PREFERRED))
+                .isEqualTo(ContentCoding.ZSTD);
+        Assertions.assertThat(ContentCoding.negotiate("*", PREFERRED)).isEqualTo(ContentCoding.ZSTD);
+    }
+
+    @Test
+    @DisplayName("negotiate skips codings the client refuses with q=0.")
+    void negotiate_SkipsCodingsClientRefuses() {
+        Assertions.assertThat(ContentCoding.negotiate("*, zstd;q=0", PREFERRED)).isEqualTo(ContentCoding.GZIP);
+        Assertions.assertThat(ContentCoding.negotiate("gzip;q=0, identity", PREFERRED)).isNull();
+        Assertions.assertThat(ContentCoding.negotiate(null, PREFERRED)).isNull();
+    }
+}
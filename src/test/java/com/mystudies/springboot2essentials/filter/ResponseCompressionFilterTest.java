@@ -0,0 +1,264 @@
+package com.mystudies.springboot2essentials.filter;
+
+import io.airlift.compress.zstd.ZstdInputStream;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+@DisplayName("Tests for Response Compression Filter")
+class ResponseCompressionFilterTest {
+    private static final String LARGE_BODY = "[" + "{\"id\":1,\"name\":\"Anime test\",\"version\":0},".repeat(100)
+            + "{\"id\":2,\"name\":\"Anime test 2\",\"version\":0}]";
+    private static final String SMALL_BODY = "{\"id\":1,\"name\":\"Anime test\",\"version\":0}";
+    private static final String ETAG = "\"1-0-json\"";
+
+    private MeterRegistry meterRegistry;
+
+    private ResponseCompressionFilter responseCompressionFilter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        responseCompressionFilter = new ResponseCompressionFilter(meterRegistry, DataSize.ofKilobytes(1),
+                List.of("application/json"), List.of("zstd", "gzip"));
+    }
+
+    @Test
+    @DisplayName("doFilter gzips a large JSON body for clients accepting gzip only.")
+    void doFilter_GzipsLargeJsonBody_WhenClientAcceptsGzipOnly() throws ServletException, IOException {
+        MockHttpServletResponse response = get("gzip, deflate", controller(LARGE_BODY, "application/json"));
+
+        Assertions.assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        Assertions.assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        Assertions.assertThat(response.getHeader(HttpHeaders.CONTENT_LENGTH)).isNull();
+        Assertions.assertThat(response.getContentAsByteArray()).hasSizeLessThan(LARGE_BODY.length());
+        Assertions.assertThat(decode(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))))
+                .isEqualTo(LARGE_BODY);
+    }
+
+    @Test
+    @DisplayName("doFilter uses the coding the client weighs highest.")
+    void doFilter_UsesCodingClientWeighsHighest() throws ServletException, IOException {
+        MockHttpServletResponse response = get("gzip;q=0.5, zstd", controller(LARGE_BODY, "application/json"));
+
+        Assertions.assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("zstd");
+        Assertions.assertThat(decode(new ZstdInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))))
+                .isEqualTo(LARGE_BODY);
+    }
+
+    @Test
+    @DisplayName("doFilter sends a body below the minimum size as it is, with its length.")
+    void doFilter_SendsBodyAsItIs_WhenBelowMinimumSize() throws ServletException, IOException {
+        MockHttpServletResponse response = get("gzip", controller(SMALL_BODY, "application/json"));
+
+        Assertions.assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        Assertions.assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        Assertions.assertThat(response.getContentLength()).isEqualTo(SMALL_BODY.length());
+        Assertions.assertThat(response.getContentAsString()).isEqualTo(SMALL_BODY);
+    }
+
+    @Test
+    @DisplayName("doFilter leaves bodies that are already encoded or of other types alone.")
+    void doFilter_LeavesBodyAlone_WhenAlreadyEncodedOrOfOtherType() throws ServletException, IOException {
+        FilterChain preCompressed = (request, response) -> {
+            ((HttpServletResponse) response).setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            controller(LARGE_BODY, "application/json").doFilter(request, response);
+        };
+
+        MockHttpServletResponse encoded = get("gzip", preCompressed);
+        MockHttpServletResponse html = get("gzip", controller(LARGE_BODY, "text/html"));
+
+        Assertions.assertThat(encoded.getContentAsString()).isEqualTo(LARGE_BODY);
+        Assertions.assertThat(encoded.getHeader(HttpHeaders.VARY)).isNull();
+        Assertions.assertThat(html.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        Assertions.assertThat(html.getContentAsString()).isEqualTo(LARGE_BODY);
+    }
+
+    @Test
+    @DisplayName("doFilter records the bytes saved and the time spent compressing.")
+    void doFilter_RecordsBytesSavedAndCompressionTime() throws ServletException, IOException {
+        MockHttpServletResponse response = get("gzip", controller(LARGE_BODY, "application/json"));
+
+        Assertions.assertThat(meterRegistry.get("http.server.compression.input").tag("encoding", "gzip")
+                .counter().count()).isEqualTo(LARGE_BODY.length());
+        Assertions.assertThat(meterRegistry.get("http.server.compression.saved").tag("encoding", "gzip")
+                .counter().count()).isEqualTo(LARGE_BODY.length() - response.getContentAsByteArray().length);
+        Assertions.assertThat(meterRegistry.get("http.server.compression.cpu").tag("encoding", "gzip")
+                .timer().count()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get("http.server.compression.cpu").tag("encoding", "zstd")
+                .timer().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("doFilter answers 304 to the ETag of each coding and keeps the compressed ones weak.")
+    void doFilter_Answers304ToETagOfEachCoding_AndKeepsCompressedOnesWeak() throws ServletException, IOException {
+        Map<String, String> eTags = new LinkedHashMap<>();
+        for (String acceptEncoding : List.of("identity", "gzip", "zstd")) {
+            eTags.put(acceptEncoding, get(acceptEncoding, null, conditionalController()).getHeader(HttpHeaders.ETAG));
+        }
+
+        Assertions.assertThat(eTags).containsExactly(Map.entry("identity", ETAG), Map.entry("gzip", "W/" + ETAG),
+                Map.entry("zstd", "W/" + ETAG));
+        for (Map.Entry<String, String> eTag : eTags.entrySet()) {
+            MockHttpServletResponse response = get(eTag.getKey(), eTag.getValue(), conditionalController());
+
+            Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+            Assertions.assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(eTag.getValue());
+            Assertions.assertThat(response.getContentAsByteArray()).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("doFilter gzips an async stream line by line for clients accepting zstd too, and ends it on the async dispatch.")
+    void doFilter_GzipsAsyncStreamLineByLine_AndEndsItOnAsyncDispatch()
+            throws ServletException, IOException, DataFormatException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/animes/stream");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "zstd, gzip");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ServletOutputStream[] stream = new ServletOutputStream[1];
+
+        responseCompressionFilter.doFilter(request, response, (req, res) -> {
+            req.startAsync();
+            res.setContentType("application/json");
+            stream[0] = res.getOutputStream();
+        });
+        stream[0].write((SMALL_BODY + "\n").getBytes(StandardCharsets.UTF_8));
+        stream[0].flush();
+
+        Assertions.assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        Assertions.assertThat(inflateFlushed(response.getContentAsByteArray())).isEqualTo(SMALL_BODY + "\n");
+
+        stream[0].write((SMALL_BODY + "\n").getBytes(StandardCharsets.UTF_8));
+        request.setAsyncStarted(false);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        responseCompressionFilter.doFilter(request, response, (req, res) -> {
+        });
+
+        Assertions.assertThat(decode(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))))
+                .isEqualTo(SMALL_BODY + "\n" + SMALL_BODY + "\n");
+        Assertions.assertThat(meterRegistry.get("http.server.compression.cpu").tag("encoding", "gzip")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("doFilter passes a write listener to the servlet stream unless bytes are held back.")
+    void doFilter_PassesWriteListenerThrough_UnlessBytesAreHeldBack() throws ServletException, IOException {
+        ServletOutputStream servletOutputStreamMock = Mockito.mock(ServletOutputStream.class);
+        BDDMockito.when(servletOutputStreamMock.isReady()).thenReturn(false);
+        HttpServletResponse response = new HttpServletResponseWrapper(new MockHttpServletResponse()) {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return servletOutputStreamMock;
+            }
+        };
+        WriteListener writeListener = Mockito.mock(WriteListener.class);
+
+        responseCompressionFilter.doFilter(new MockHttpServletRequest("GET", "/animes/stream"), response,
+                (req, res) -> {
+                    res.getOutputStream().setWriteListener(writeListener);
+                    Assertions.assertThat(res.getOutputStream().isReady()).isFalse();
+                });
+        responseCompressionFilter.doFilter(new MockHttpServletRequest("GET", "/animes/stream"),
+                new MockHttpServletResponse(), (req, res) -> {
+                    res.getOutputStream().write(SMALL_BODY.getBytes(StandardCharsets.UTF_8));
+                    Assertions.assertThatIllegalStateException()
+                            .isThrownBy(() -> res.getOutputStream().setWriteListener(writeListener));
+                });
+
+        BDDMockito.verify(servletOutputStreamMock).setWriteListener(writeListener);
+    }
+
+    /**
+     * Answers as the controller does, with a 304 committed by a flush when the client has the ETag.
+     */
+    private static FilterChain conditionalController() {
+        return (request, response) -> {
+            ServletWebRequest webRequest = new ServletWebRequest((HttpServletRequest) request,
+                    (HttpServletResponse) response);
+            if (!webRequest.checkNotModified(ETAG)) {
+                controller(LARGE_BODY, "application/json").doFilter(request, response);
+            }
+            response.flushBuffer();
+        };
+    }
+
+    /**
+     * Writes the body in small chunks, as Jackson does, so it crosses the minimum size mid-way.
+     */
+    private static FilterChain controller(String body, String contentType) {
+        return (request, response) -> {
+            response.setContentType(contentType);
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            for (int off = 0; off < bytes.length; off += 100) {
+                response.getOutputStream().write(bytes, off, Math.min(100, bytes.length - off));
+            }
+            response.getOutputStream().flush();
+        };
+    }
+
+    private MockHttpServletResponse get(String acceptEncoding, FilterChain controller)
+            throws ServletException, IOException {
+        return get(acceptEncoding, null, controller);
+    }
+
+    private MockHttpServletResponse get(String acceptEncoding, String ifNoneMatch, FilterChain controller)
+            throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/animes/all");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        responseCompressionFilter.doFilter(request, response, controller);
+        return response;
+    }
+
+    /**
+     * Inflates what a gzip stream flushed so far, past its 10 byte header, as a client reading it would.
+     */
+    private static String inflateFlushed(byte[] gzip) throws DataFormatException {
+        Inflater inflater = new Inflater(true);
+        inflater.setInput(gzip, 10, gzip.length - 10);
+        byte[] inflated = new byte[4096];
+        int length = inflater.inflate(inflated);
+        inflater.end();
+        return new String(inflated, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static String decode(InputStream inputStream) throws IOException {
+        try (inputStream) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
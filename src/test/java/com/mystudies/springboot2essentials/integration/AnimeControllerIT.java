@@ -1,13 +1,25 @@
 package com.mystudies.springboot2essentials.integration;
 
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.jayway.jsonpath.JsonPath;
+import com.mystudies.springboot2essentials.cache.AnimeResponseCache;
+import com.mystudies.springboot2essentials.configurer.AnimeProtobufHttpMessageConverter;
 import com.mystudies.springboot2essentials.domain.Anime;
+import com.mystudies.springboot2essentials.domain.AnimeAudit;
 import com.mystudies.springboot2essentials.domain.UserInfo;
+import com.mystudies.springboot2essentials.event.AnimeChangedEvent;
+import com.mystudies.springboot2essentials.proto.AnimeProtos;
 import com.mystudies.springboot2essentials.repository.AnimeRepository;
 import com.mystudies.springboot2essentials.repository.UserInfoDetailsRepository;
 import com.mystudies.springboot2essentials.requests.AnimePostRequestBody;
+import com.mystudies.springboot2essentials.requests.AnimePutRequestBody;
 import com.mystudies.springboot2essentials.util.AnimeCreator;
 import com.mystudies.springboot2essentials.util.AnimePostRequestBodyCreator;
+import com.mystudies.springboot2essentials.wrapper.BulkOperationResponse;
+import com.mystudies.springboot2essentials.wrapper.CursorPageableResponse;
+import com.mystudies.springboot2essentials.wrapper.MultiGetResponse;
 import com.mystudies.springboot2essentials.wrapper.PageableResponse;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -23,12 +35,19 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.DirtiesContext;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
 
 @AutoConfigureTestDatabase
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -49,6 +68,9 @@ class AnimeControllerIT {
     @Autowired
     private UserInfoDetailsRepository userInfoDetailsRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private static final UserInfo USER = UserInfo.builder()
             .name("Vinicius test")
             .username("vinicius_test")
@@ -106,6 +128,99 @@ class AnimeControllerIT {
         Assertions.assertThat(animePage.toList().get(0).getName()).isEqualTo(expectedName);
     }
 
+    @Test
+    @DisplayName("listAllByCursor walks every Anime page by page when successful.")
+    void listAllByCursor_WalksEveryAnimePageByPage_WhenSuccessful() {
+        Anime firstAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        Anime secondAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        userInfoDetailsRepository.save(USER);
+
+        CursorPageableResponse<Anime> firstPage = testRestTemplateRoleUser.exchange(
+                "/animes/cursor?size=1&skipCount=false", HttpMethod.GET, null,
+                new ParameterizedTypeReference<CursorPageableResponse<Anime>>() {}).getBody();
+
+        Assertions.assertThat(firstPage).isNotNull();
+        Assertions.assertThat(firstPage.getContent()).containsExactly(firstAnime);
+        Assertions.assertThat(firstPage.isHasNext()).isTrue();
+        Assertions.assertThat(firstPage.getTotalElements()).isEqualTo(2L);
+
+        CursorPageableResponse<Anime> secondPage = testRestTemplateRoleUser.exchange(
+                "/animes/cursor?size=1&after={after}", HttpMethod.GET, null,
+                new ParameterizedTypeReference<CursorPageableResponse<Anime>>() {},
+                firstPage.getNextCursor()).getBody();
+
+        Assertions.assertThat(secondPage).isNotNull();
+        Assertions.assertThat(secondPage.getContent()).containsExactly(secondAnime);
+        Assertions.assertThat(secondPage.isHasNext()).isFalse();
+        Assertions.assertThat(secondPage.getNextCursor()).isNull();
+        Assertions.assertThat(secondPage.getTotalElements()).isNull();
+    }
+
+    @Test
+    @DisplayName("listAll returns 403 when the cached user loses its role.")
+    void listAll_Returns403_WhenCachedUserLosesItsRole() {
+        UserInfo user = userInfoDetailsRepository.save(UserInfo.builder()
+                .name(USER.getName())
+                .username(USER.getUsername())
+                .password(USER.getPassword())
+                .authorities(USER.getAuthorities().iterator().next().getAuthority())
+                .build());
+
+        ResponseEntity<String> allowed = testRestTemplateRoleUser.getForEntity("/animes", String.class);
+        ResponseEntity<String> allowedFromCache = testRestTemplateRoleUser.getForEntity("/animes", String.class);
+
+        Assertions.assertThat(allowed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(allowedFromCache.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        user.setAuthorities("ROLE_GUEST");
+        userInfoDetailsRepository.save(user);
+
+        ResponseEntity<String> forbidden = testRestTemplateRoleUser.getForEntity("/animes", String.class);
+
+        Assertions.assertThat(forbidden.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        Assertions.assertThat(meterRegistry.get("security.authentication.password.check").timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("listAll and save time the security filter chain and the JSON written per outcome.")
+    void listAllAndSave_TimeSecurityFilterChainAndJsonWritten() {
+        animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        userInfoDetailsRepository.save(USER);
+
+        ResponseEntity<String> allowed = testRestTemplateRoleUser.getForEntity("/animes", String.class);
+        ResponseEntity<Anime> forbidden = testRestTemplateRoleUser.postForEntity(
+                "/animes/admin", AnimePostRequestBodyCreator.createAnimePostRequestBody(), Anime.class);
+
+        Assertions.assertThat(allowed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(forbidden.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        Assertions.assertThat(meterRegistry.get("security.filter.chain").tag("outcome", "passed")
+                .timer().count()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get("security.filter.chain").tag("outcome", "rejected")
+                .timer().count()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get("http.message.conversion").tag("operation", "write")
+                .tag("type", "PageImpl").timer().count()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get("http.server.requests").tag("uri", "/animes")
+                .timer().takeSnapshot().histogramCounts()).isNotEmpty();
+    }
+
+    @Test
+    @DisplayName("listAll times the JDBC statements it runs and counts them per request.")
+    void listAll_TimesJdbcStatementsAndCountsThemPerRequest() {
+        animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        userInfoDetailsRepository.save(USER);
+
+        ResponseEntity<String> response = testRestTemplateRoleUser.getForEntity("/animes", String.class);
+
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(meterRegistry.get("jdbc.statements").tag("type", "select").tag("outcome", "success")
+                .timer().count()).isPositive();
+        Assertions.assertThat(meterRegistry.get("http.server.requests.statements").tag("method", "GET")
+                .tag("uri", "/animes").summary().count()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get("http.server.requests.statements").tag("uri", "/animes")
+                .summary().totalAmount()).isPositive();
+    }
+
     @Test
     @DisplayName("listAllNonPageable returns list of Animes when successful.")
     void listAllNonPageable_ReturnsListOfAnimes_WhenSuccessful() {
@@ -126,6 +241,45 @@ class AnimeControllerIT {
         Assertions.assertThat(animes.get(0).getName()).isEqualTo(expectedName);
     }
 
+    @Test
+    @DisplayName("streamAll returns one JSON Anime per line when successful.")
+    void streamAll_ReturnsOneJsonAnimePerLine_WhenSuccessful() {
+        Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        userInfoDetailsRepository.save(USER);
+
+        ResponseEntity<String> entity = testRestTemplateRoleUser.getForEntity("/animes/stream", String.class);
+
+        Assertions.assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(entity.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        Assertions.assertThat(entity.getBody())
+                .isNotNull()
+                .startsWith("{\"id\":" + savedAnime.getId())
+                .endsWith("\n");
+        Assertions.assertThat(entity.getBody().lines()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("streamAll is gzipped line by line when the client accepts zstd and gzip.")
+    void streamAll_IsGzipped_WhenClientAcceptsZstdAndGzip() throws IOException {
+        animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        userInfoDetailsRepository.save(USER);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "zstd, gzip");
+        ResponseEntity<byte[]> compressed = testRestTemplateRoleUser.exchange("/animes/stream", HttpMethod.GET,
+                new HttpEntity<>(headers), byte[].class);
+        ResponseEntity<String> identity = testRestTemplateRoleUser.getForEntity("/animes/stream", String.class);
+
+        Assertions.assertThat(compressed.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        Assertions.assertThat(identity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        try (GZIPInputStream gzipInputStream = new GZIPInputStream(new ByteArrayInputStream(compressed.getBody()))) {
+            Assertions.assertThat(new String(gzipInputStream.readAllBytes(), StandardCharsets.UTF_8))
+                    .isEqualTo(identity.getBody());
+        }
+    }
+
     @Test
     @DisplayName("findById returns Anime when successful.")
     void findById_ReturnsAnime_WhenSuccessful() {
@@ -141,6 +295,172 @@ class AnimeControllerIT {
         Assertions.assertThat(anime.getId()).isNotNull().isEqualTo(expectedId);
     }
 
+    @Test
+    @DisplayName("findById returns 304 while the ETag matches and the new Anime once it is replaced.")
+    void findById_Returns304WhileETagMatchesAndNewAnimeOnceReplaced() {
+        Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        userInfoDetailsRepository.save(ADMIN);
+
+        ResponseEntity<Anime> first = testRestTemplateRoleAdmin.getForEntity(
+                "/animes/{id}", Anime.class, savedAnime.getId());
+        String eTag = first.getHeaders().getETag();
+
+        ResponseEntity<Anime> notModified = getIfNoneMatch("/animes/" + savedAnime.getId(), eTag, Anime.class);
+
+        testRestTemplateRoleAdmin.put("/animes/admin",
+                new AnimePutRequestBody(savedAnime.getId(), "changed_name", null));
+        ResponseEntity<Anime> modified = getIfNoneMatch("/animes/" + savedAnime.getId(), eTag, Anime.class);
+
+        Assertions.assertThat(eTag).isNotBlank();
+        Assertions.assertThat(first.getHeaders().get(HttpHeaders.ETAG)).hasSize(1);
+        Assertions.assertThat(first.getHeaders().getCacheControl()).isEqualTo("private, no-cache");
+        Assertions.assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        Assertions.assertThat(notModified.getBody()).isNull();
+        Assertions.assertThat(notModified.getHeaders().getCacheControl()).isEqualTo("private, no-cache");
+        Assertions.assertThat(modified.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(modified.getHeaders().getETag()).isNotEqualTo(eTag);
+        Assertions.assertThat(modified.getBody()).extracting(Anime::getName).isEqualTo("changed_name");
+    }
+
+    @Test
+    @DisplayName("listAllNonPageable returns 304 until an Anime is created.")
+    void listAllNonPageable_Returns304UntilAnimeIsCreated() {
+        animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        userInfoDetailsRepository.save(ADMIN);
+
+        String eTag = testRestTemplateRoleAdmin.getForEntity("/animes/all", String.class).getHeaders().getETag();
+        ResponseEntity<String> notModified = getIfNoneMatch("/animes/all", eTag, String.class);
+
+        testRestTemplateRoleAdmin.postForEntity("/animes/admin",
+                AnimePostRequestBodyCreator.createAnimePostRequestBody(), Anime.class);
+        ResponseEntity<String> modified = getIfNoneMatch("/animes/all", eTag, String.class);
+
+        Assertions.assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        Assertions.assertThat(modified.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(modified.getHeaders().getETag()).isNotEqualTo(eTag);
+    }
+
+    @Test
+    @DisplayName("listAllNonPageable serves the rendered list again until an Anime is created.")
+    void listAllNonPageable_ServesRenderedListAgainUntilAnimeIsCreated() {
+        animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        userInfoDetailsRepository.save(ADMIN);
+
+        ResponseEntity<String> first = testRestTemplateRoleAdmin.getForEntity("/animes/all", String.class);
+        ResponseEntity<String> cached = testRestTemplateRoleAdmin.getForEntity("/animes/all", String.class);
+
+        testRestTemplateRoleAdmin.postForEntity("/animes/admin",
+                AnimePostRequestBodyCreator.createAnimePostRequestBody(), Anime.class);
+        List<Anime> afterCreate = testRestTemplateRoleAdmin.exchange("/animes/all", HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<Anime>>() {}).getBody();
+
+        Assertions.assertThat(cached.getBody()).isEqualTo(first.getBody());
+        Assertions.assertThat(cached.getHeaders().getETag()).isEqualTo(first.getHeaders().getETag());
+        Assertions.assertThat(afterCreate).hasSize(2);
+        Assertions.assertThat(meterRegistry.get("cache.gets").tag("cache", AnimeResponseCache.NAME)
+                .tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("save and listAll speak protobuf when the client asks for it.")
+    void saveAndListAll_SpeakProtobuf_WhenClientAsksForIt() throws InvalidProtocolBufferException {
+        userInfoDetailsRepository.save(ADMIN);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(AnimeProtobufHttpMessageConverter.APPLICATION_PROTOBUF);
+        headers.setAccept(List.of(AnimeProtobufHttpMessageConverter.APPLICATION_PROTOBUF));
+        byte[] postBody = AnimeProtos.AnimePostRequest.newBuilder().setName("Protobuf test").build().toByteArray();
+
+        ResponseEntity<byte[]> created = testRestTemplateRoleAdmin.exchange("/animes/admin", HttpMethod.POST,
+                new HttpEntity<>(postBody, headers), byte[].class);
+        ResponseEntity<byte[]> page = testRestTemplateRoleAdmin.exchange("/animes", HttpMethod.GET,
+                new HttpEntity<>(headers), byte[].class);
+        ResponseEntity<Anime> json = testRestTemplateRoleAdmin.getForEntity(
+                "/animes/{id}", Anime.class, AnimeProtos.Anime.parseFrom(created.getBody()).getId());
+
+        Assertions.assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        Assertions.assertThat(created.getHeaders().getContentType())
+                .isEqualTo(AnimeProtobufHttpMessageConverter.APPLICATION_PROTOBUF);
+        Assertions.assertThat(AnimeProtos.AnimePage.parseFrom(page.getBody()).getContentList())
+                .extracting(AnimeProtos.Anime::getName)
+                .containsExactly("Protobuf test");
+        Assertions.assertThat(json.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        Assertions.assertThat(json.getBody()).extracting(Anime::getName).isEqualTo("Protobuf test");
+    }
+
+    @Test
+    @DisplayName("findById does not answer 304 to a protobuf request revalidating a JSON ETag.")
+    void findById_DoesNotAnswer304_WhenProtobufRequestRevalidatesJsonETag() throws InvalidProtocolBufferException {
+        Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        userInfoDetailsRepository.save(ADMIN);
+
+        ResponseEntity<Anime> json = testRestTemplateRoleAdmin.getForEntity(
+                "/animes/{id}", Anime.class, savedAnime.getId());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(json.getHeaders().getETag());
+        headers.setAccept(List.of(AnimeProtobufHttpMessageConverter.APPLICATION_PROTOBUF));
+        ResponseEntity<byte[]> protobuf = testRestTemplateRoleAdmin.exchange("/animes/" + savedAnime.getId(),
+                HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+
+        Assertions.assertThat(json.getHeaders().getVary()).contains(HttpHeaders.ACCEPT);
+        Assertions.assertThat(protobuf.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(protobuf.getHeaders().getETag()).isNotEqualTo(json.getHeaders().getETag());
+        Assertions.assertThat(protobuf.getHeaders().getVary()).contains(HttpHeaders.ACCEPT);
+        Assertions.assertThat(AnimeProtos.Anime.parseFrom(protobuf.getBody()).getName())
+                .isEqualTo(savedAnime.getName());
+    }
+
+    @Test
+    @DisplayName("listAllNonPageable is gzipped when large and the client accepts gzip.")
+    void listAllNonPageable_IsGzipped_WhenLargeAndClientAcceptsGzip() throws IOException {
+        for (int i = 0; i < 100; i++) {
+            animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        }
+        userInfoDetailsRepository.save(USER);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        ResponseEntity<byte[]> compressed = testRestTemplateRoleUser.exchange("/animes/all", HttpMethod.GET,
+                new HttpEntity<>(headers), byte[].class);
+        ResponseEntity<byte[]> cached = testRestTemplateRoleUser.exchange("/animes/all", HttpMethod.GET,
+                new HttpEntity<>(headers), byte[].class);
+        ResponseEntity<String> identity = testRestTemplateRoleUser.getForEntity("/animes/all", String.class);
+
+        Assertions.assertThat(compressed.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        Assertions.assertThat(cached.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        Assertions.assertThat(identity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        Assertions.assertThat(compressed.getBody()).hasSizeLessThan(identity.getBody().length());
+        try (GZIPInputStream gzipInputStream = new GZIPInputStream(new ByteArrayInputStream(compressed.getBody()))) {
+            Assertions.assertThat(new String(gzipInputStream.readAllBytes(), StandardCharsets.UTF_8))
+                    .isEqualTo(identity.getBody());
+        }
+        Assertions.assertThat(meterRegistry.get("http.server.compression.saved").tag("encoding", "gzip")
+                .counter().count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("findAllByIds returns Animes in request order and the missing ids, by query and by body.")
+    void findAllByIds_ReturnsAnimesInRequestOrderAndMissingIds_WhenSuccessful() {
+        Anime firstAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        Anime secondAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        userInfoDetailsRepository.save(USER);
+        long missingId = secondAnime.getId() + 100;
+
+        MultiGetResponse<Anime> byQuery = testRestTemplateRoleUser.exchange(
+                "/animes?ids={ids}", HttpMethod.GET, null,
+                new ParameterizedTypeReference<MultiGetResponse<Anime>>() {},
+                secondAnime.getId() + "," + missingId + "," + firstAnime.getId()).getBody();
+        MultiGetResponse<Anime> byBody = testRestTemplateRoleUser.exchange(
+                "/animes/findByIds", HttpMethod.POST,
+                new HttpEntity<>(List.of(secondAnime.getId(), missingId, firstAnime.getId())),
+                new ParameterizedTypeReference<MultiGetResponse<Anime>>() {}).getBody();
+
+        Assertions.assertThat(List.of(byQuery, byBody)).allSatisfy(animes -> {
+            Assertions.assertThat(animes.getContent()).containsExactly(secondAnime, firstAnime);
+            Assertions.assertThat(animes.getMissingIds()).containsExactly(missingId);
+        });
+    }
+
     @Test
     @DisplayName("findByName returns a list of Animes when successful.")
     void findByName_ReturnsListOfAnimes_WhenSuccessful() {
@@ -163,6 +483,30 @@ class AnimeControllerIT {
         Assertions.assertThat(animes.get(0).getName()).isEqualTo(expectedName);
     }
 
+    @Test
+    @DisplayName("findByName is served from the query cache until a bulk replace renames the Anime.")
+    void findByName_IsServedFromQueryCacheUntilBulkReplaceRenamesAnime() {
+        Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        userInfoDetailsRepository.save(ADMIN);
+
+        List<Anime> first = animeRepository.findByName(savedAnime.getName());
+        List<Anime> cached = animeRepository.findByName(savedAnime.getName());
+
+        testRestTemplateRoleAdmin.exchange("/animes/admin/bulk", HttpMethod.PUT,
+                new HttpEntity<>(List.of(new AnimePutRequestBody(savedAnime.getId(), "name_test", null))),
+                BulkOperationResponse.class);
+        List<Anime> afterRename = animeRepository.findByName(savedAnime.getName());
+
+        Assertions.assertThat(first).containsExactly(savedAnime);
+        Assertions.assertThat(cached).containsExactly(savedAnime);
+        Assertions.assertThat(afterRename).isEmpty();
+        Assertions.assertThat(meterRegistry.get("hibernate.cache.query.requests").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tag("region", Anime.CACHE_REGION).tag("result", "hit")
+                .functionCounter().count()).isPositive();
+    }
+
     @Test
     @DisplayName("findByName returns an empty list when Anime is not found.")
     void findByName_ReturnsEmptyList_WhenAnimeIsNotFound() {
@@ -177,6 +521,52 @@ class AnimeControllerIT {
                 .isEmpty();
     }
 
+    @Test
+    @DisplayName("search in FULL_TEXT mode finds Animes created after startup, most relevant first, with the total.")
+    void search_FindsAnimesCreatedAfterStartupMostRelevantFirst_WhenModeIsFullText() {
+        userInfoDetailsRepository.save(ADMIN);
+        testRestTemplateRoleAdmin.postForEntity("/animes/admin/bulk", List.of(
+                new AnimePostRequestBody("Dragon Ball"),
+                new AnimePostRequestBody("Dragon Ball Super"),
+                new AnimePostRequestBody("Hunter x Hunter")), BulkOperationResponse.class);
+
+        PageableResponse<Anime> firstPage = testRestTemplateRoleAdmin.exchange(
+                "/animes/search?name=super dragon&mode=FULL_TEXT&size=1", HttpMethod.GET, null,
+                new ParameterizedTypeReference<PageableResponse<Anime>>() {}).getBody();
+        PageableResponse<Anime> secondPage = testRestTemplateRoleAdmin.exchange(
+                "/animes/search?name=super dragon&mode=FULL_TEXT&size=1&page=1", HttpMethod.GET, null,
+                new ParameterizedTypeReference<PageableResponse<Anime>>() {}).getBody();
+
+        Assertions.assertThat(firstPage).isNotNull().extracting(Anime::getName).containsExactly("Dragon Ball Super");
+        Assertions.assertThat(firstPage.getTotalElements()).isEqualTo(2);
+        Assertions.assertThat(firstPage.getTotalPages()).isEqualTo(2);
+        Assertions.assertThat(firstPage.isLast()).isFalse();
+        Assertions.assertThat(secondPage).isNotNull().extracting(Anime::getName).containsExactly("Dragon Ball");
+        Assertions.assertThat(secondPage.isLast()).isTrue();
+    }
+
+    @Test
+    @DisplayName("search in PREFIX mode returns a slice of Animes telling whether there is a next one.")
+    void search_ReturnsSliceTellingWhetherThereIsANextOne_WhenModeIsPrefix() {
+        animeRepository.save(new Anime(null, "Hajime no Ippo", 0));
+        animeRepository.save(new Anime(null, "Hajime no Ippo Rising", 0));
+        animeRepository.save(new Anime(null, "Hellsing", 0));
+        userInfoDetailsRepository.save(USER);
+
+        ResponseEntity<String> firstSlice = testRestTemplateRoleUser.getForEntity(
+                "/animes/search?name=Haj&mode=PREFIX&size=1", String.class);
+        ResponseEntity<String> lastSlice = testRestTemplateRoleUser.getForEntity(
+                "/animes/search?name=Haj&mode=PREFIX&size=1&page=1", String.class);
+
+        Assertions.assertThat(firstSlice.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(JsonPath.<List<String>>read(firstSlice.getBody(), "$.content[*].name"))
+                .containsExactly("Hajime no Ippo");
+        Assertions.assertThat(JsonPath.<Boolean>read(firstSlice.getBody(), "$.last")).isFalse();
+        Assertions.assertThat(JsonPath.<List<String>>read(lastSlice.getBody(), "$.content[*].name"))
+                .containsExactly("Hajime no Ippo Rising");
+        Assertions.assertThat(JsonPath.<Boolean>read(lastSlice.getBody(), "$.last")).isTrue();
+    }
+
     @Test
     @DisplayName("save returns Anime when successful.")
     void save_ReturnsAnime_WhenSuccessful() {
@@ -206,6 +596,119 @@ class AnimeControllerIT {
         Assertions.assertThat(animeResponseEntity.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
     }
 
+    @Test
+    @DisplayName("replayAudit returns who created and deleted an Anime, in order, once the changes are written.")
+    void replayAudit_ReturnsChangesInOrder_WhenTheyAreWritten() throws InterruptedException {
+        userInfoDetailsRepository.save(ADMIN);
+
+        Anime savedAnime = testRestTemplateRoleAdmin.postForObject(
+                "/animes/admin", AnimePostRequestBodyCreator.createAnimePostRequestBody(), Anime.class);
+        testRestTemplateRoleAdmin.delete("/animes/admin/{id}", savedAnime.getId());
+
+        List<AnimeAudit> changes = replayAudit(null, 2).getContent();
+
+        Assertions.assertThat(changes).extracting(AnimeAudit::getType)
+                .containsExactly(AnimeChangedEvent.Type.CREATED, AnimeChangedEvent.Type.DELETED);
+        Assertions.assertThat(changes).allSatisfy(change -> {
+            Assertions.assertThat(change.getAnimeId()).isEqualTo(savedAnime.getId());
+            Assertions.assertThat(change.getUsername()).isEqualTo(ADMIN.getUsername());
+            Assertions.assertThat(change.getOccurredAt()).isNotNull();
+        });
+    }
+
+    @Test
+    @DisplayName("replayAudit resumes from the cursor of the last page once more changes are written.")
+    void replayAudit_ResumesFromCursorOfLastPage_WhenMoreChangesAreWritten() throws InterruptedException {
+        userInfoDetailsRepository.save(ADMIN);
+
+        Anime savedAnime = testRestTemplateRoleAdmin.postForObject(
+                "/animes/admin", AnimePostRequestBodyCreator.createAnimePostRequestBody(), Anime.class);
+        CursorPageableResponse<AnimeAudit> caughtUp = replayAudit(null, 1);
+        CursorPageableResponse<AnimeAudit> nothingNew = replayAudit(caughtUp.getNextCursor(), 0);
+
+        testRestTemplateRoleAdmin.delete("/animes/admin/{id}", savedAnime.getId());
+        CursorPageableResponse<AnimeAudit> resumed = replayAudit(nothingNew.getNextCursor(), 1);
+
+        Assertions.assertThat(caughtUp.isHasNext()).isFalse();
+        Assertions.assertThat(caughtUp.getNextCursor()).isNotNull();
+        Assertions.assertThat(nothingNew.getContent()).isEmpty();
+        Assertions.assertThat(nothingNew.getNextCursor()).isEqualTo(caughtUp.getNextCursor());
+        Assertions.assertThat(resumed.getContent()).extracting(AnimeAudit::getType)
+                .containsExactly(AnimeChangedEvent.Type.DELETED);
+        Assertions.assertThat(resumed.getNextCursor()).isNotEqualTo(caughtUp.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("replayAudit returns 403 when user is not ADMIN.")
+    void replayAudit_Returns403_WhenUserIsNotAdmin() {
+        userInfoDetailsRepository.save(USER);
+
+        ResponseEntity<String> response = testRestTemplateRoleUser.getForEntity("/animes/admin/audit", String.class);
+
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+    @Test
+    @DisplayName("saveAll persists valid Animes and reports invalid or rejected ones when successful.")
+    void saveAll_PersistsValidAnimesAndReportsInvalidOnes_WhenSuccessful() {
+        userInfoDetailsRepository.save(ADMIN);
+
+        List<AnimePostRequestBody> animePostRequestBodies = List.of(
+                AnimePostRequestBodyCreator.createAnimePostRequestBody(),
+                new AnimePostRequestBody(""),
+                new AnimePostRequestBody("x".repeat(300)),
+                AnimePostRequestBodyCreator.createAnimePostRequestBody());
+
+        ResponseEntity<BulkOperationResponse> responseEntity = testRestTemplateRoleAdmin.postForEntity(
+                "/animes/admin/bulk", animePostRequestBodies, BulkOperationResponse.class);
+
+        Assertions.assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        BulkOperationResponse response = responseEntity.getBody();
+
+        Assertions.assertThat(response).isNotNull();
+        Assertions.assertThat(response.getRequested()).isEqualTo(4);
+        Assertions.assertThat(response.getSucceeded()).isEqualTo(2);
+        Assertions.assertThat(response.getFailures())
+                .extracting(BulkOperationResponse.ItemFailure::getIndex)
+                .containsExactly(1, 2);
+        Assertions.assertThat(response.getFailures().get(0).getMessage())
+                .isEqualTo("The name cannot be empty nor null!");
+        Assertions.assertThat(animeRepository.findAllById(response.getIds())).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("replaceAll and deleteAll report missing Animes without aborting the others.")
+    void replaceAllAndDeleteAll_ReportMissingAnimes_WithoutAbortingTheOthers() {
+        Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        userInfoDetailsRepository.save(ADMIN);
+
+        List<AnimePutRequestBody> animePutRequestBodies = List.of(
+                new AnimePutRequestBody(savedAnime.getId(), "name_test", null),
+                new AnimePutRequestBody(savedAnime.getId() + 100, "name_test", null));
+
+        BulkOperationResponse replaced = testRestTemplateRoleAdmin.exchange(
+                "/animes/admin/bulk", HttpMethod.PUT, new HttpEntity<>(animePutRequestBodies),
+                BulkOperationResponse.class).getBody();
+
+        Assertions.assertThat(replaced).isNotNull();
+        Assertions.assertThat(replaced.getIds()).containsExactly(savedAnime.getId());
+        Assertions.assertThat(replaced.getFailures()).extracting(BulkOperationResponse.ItemFailure::getId)
+                .containsExactly(savedAnime.getId() + 100);
+        Assertions.assertThat(animeRepository.findById(savedAnime.getId()))
+                .hasValueSatisfying(anime -> Assertions.assertThat(anime.getName()).isEqualTo("name_test"));
+
+        BulkOperationResponse deleted = testRestTemplateRoleAdmin.postForEntity(
+                "/animes/admin/bulk/delete", List.of(savedAnime.getId() + 100, savedAnime.getId()),
+                BulkOperationResponse.class).getBody();
+
+        Assertions.assertThat(deleted).isNotNull();
+        Assertions.assertThat(deleted.getIds()).containsExactly(savedAnime.getId());
+        Assertions.assertThat(deleted.getFailures()).extracting(BulkOperationResponse.ItemFailure::getIndex)
+                .containsExactly(0);
+        Assertions.assertThat(animeRepository.findById(savedAnime.getId())).isEmpty();
+    }
+
     @Test
     @DisplayName("replace updates Anime when successful.")
     void replace_UpdatesAnime_WhenSuccessful() {
@@ -221,6 +724,26 @@ class AnimeControllerIT {
         Assertions.assertThat(animeResponseEntity.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
     }
 
+    @Test
+    @DisplayName("replace returns 409 when Anime was changed since it was read.")
+    void replace_Returns409_WhenAnimeWasChangedSinceItWasRead() {
+        Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        userInfoDetailsRepository.save(ADMIN);
+
+        savedAnime.setName("first_change");
+        ResponseEntity<Void> firstResponse = testRestTemplateRoleAdmin.exchange(
+                "/animes/admin", HttpMethod.PUT, new HttpEntity<>(savedAnime), Void.class);
+
+        savedAnime.setName("stale_change");
+        ResponseEntity<Void> staleResponse = testRestTemplateRoleAdmin.exchange(
+                "/animes/admin", HttpMethod.PUT, new HttpEntity<>(savedAnime), Void.class);
+
+        Assertions.assertThat(firstResponse.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        Assertions.assertThat(staleResponse.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        Assertions.assertThat(animeRepository.findById(savedAnime.getId()))
+                .get().extracting(Anime::getName).isEqualTo("first_change");
+    }
+
     @Test
     @DisplayName("replace returns 403 when user is not ADMIN.")
     void replace_Returns403_WhenUserIsNotAdmin() {
@@ -249,6 +772,25 @@ class AnimeControllerIT {
         Assertions.assertThat(animeResponseEntity.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
     }
 
+    @Test
+    @DisplayName("delete removes Anime when the cached one is at an older version.")
+    void delete_RemovesAnime_WhenCachedOneIsStale() {
+        Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        userInfoDetailsRepository.save(ADMIN);
+        testRestTemplateRoleAdmin.getForObject("/animes/{id}", Anime.class, savedAnime.getId());
+        savedAnime.setName("Renamed behind the cache");
+        animeRepository.save(savedAnime);
+
+        ResponseEntity<Void> deleted = testRestTemplateRoleAdmin.exchange(
+                "/animes/admin/{id}", HttpMethod.DELETE, null, Void.class, savedAnime.getId());
+        ResponseEntity<Void> deletedAgain = testRestTemplateRoleAdmin.exchange(
+                "/animes/admin/{id}", HttpMethod.DELETE, null, Void.class, savedAnime.getId());
+
+        Assertions.assertThat(deleted.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        Assertions.assertThat(deletedAgain.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        Assertions.assertThat(animeRepository.existsById(savedAnime.getId())).isFalse();
+    }
+
     @Test
     @DisplayName("delete returns 403 when user is not ADMIN.")
     void delete_Returns403_WhenUserIsNotAdmin() {
@@ -261,4 +803,27 @@ class AnimeControllerIT {
         Assertions.assertThat(animeResponseEntity).isNotNull();
         Assertions.assertThat(animeResponseEntity.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
     }
+
+    /**
+     * Changes are written by a background thread, so polls until the expected number showed up.
+     */
+    private CursorPageableResponse<AnimeAudit> replayAudit(String after, int expected)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        CursorPageableResponse<AnimeAudit> changes;
+        do {
+            Thread.sleep(50);
+            changes = testRestTemplateRoleAdmin.exchange(
+                    "/animes/admin/audit?size=10&after={after}", HttpMethod.GET, null,
+                    new ParameterizedTypeReference<CursorPageableResponse<AnimeAudit>>() {},
+                    after == null ? "" : after).getBody();
+        } while (changes.getContent().size() < expected && System.nanoTime() < deadline);
+        return changes;
+    }
+
+    private <T> ResponseEntity<T> getIfNoneMatch(String url, String eTag, Class<T> type) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+        return testRestTemplateRoleAdmin.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), type);
+    }
 }
@@ -0,0 +1,255 @@
+package com.mystudies.springboot2essentials.integration;
+
+import com.mystudies.springboot2essentials.domain.Anime;
+import com.mystudies.springboot2essentials.reactive.ReactiveAnimeRepository;
+import com.mystudies.springboot2essentials.requests.AnimePutRequestBody;
+import com.mystudies.springboot2essentials.util.AnimeCreator;
+import com.mystudies.springboot2essentials.util.AnimePostRequestBodyCreator;
+import com.mystudies.springboot2essentials.wrapper.CursorPageableResponse;
+import com.mystudies.springboot2essentials.wrapper.PageableResponse;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Runs the reactive profile against an in-memory H2 database through r2dbc-h2.
+ */
+@ActiveProfiles("reactive")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive-anime;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.sql.init.schema-locations=classpath:db/reactive/schema.sql"})
+class ReactiveAnimeControllerIT {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveAnimeRepository animeRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("delete from anime").then()
+                .then(databaseClient.sql("delete from user_info").then())
+                .then(insertUser("Vinicius test", "vinicius_test",
+                        "$2a$10$ip/5FmJaoh95d2acsm8xXuUS3mwGFKAK6VifU1vGpCQC7nowkBlPW", "ROLE_USER"))
+                .then(insertUser("Vinicius main", "vinicius",
+                        "$2a$10$bGIhyuUiv41ez8WgnXFAA.RnbA6kMvwf5zvyuhQlLfotMErFYwN8i", "ROLE_ADMIN,ROLE_USER"))
+                .block();
+    }
+
+    @Test
+    @DisplayName("listAll returns list of Animes inside PAGE OBJECT when successful.")
+    void listAll_ReturnsListOfAnimesInsidePageObject_WhenSuccessful() {
+        Anime savedAnime = save(AnimeCreator.createAnimeToBeSaved());
+
+        PageableResponse<Anime> animePage = asUser().get().uri("/animes")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(new ParameterizedTypeReference<PageableResponse<Anime>>() {})
+                .returnResult().getResponseBody();
+
+        Assertions.assertThat(animePage).isNotNull();
+        Assertions.assertThat(animePage.toList()).containsExactly(savedAnime);
+        Assertions.assertThat(animePage.getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("listAllByCursor walks every Anime page by page when successful.")
+    void listAllByCursor_WalksEveryAnimePageByPage_WhenSuccessful() {
+        Anime firstAnime = save(AnimeCreator.createAnimeToBeSaved());
+        Anime secondAnime = save(AnimeCreator.createAnimeToBeSaved());
+
+        CursorPageableResponse<Anime> firstPage = asUser().get().uri("/animes/cursor?size=1&skipCount=false")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(new ParameterizedTypeReference<CursorPageableResponse<Anime>>() {})
+                .returnResult().getResponseBody();
+
+        Assertions.assertThat(firstPage).isNotNull();
+        Assertions.assertThat(firstPage.getContent()).containsExactly(firstAnime);
+        Assertions.assertThat(firstPage.isHasNext()).isTrue();
+        Assertions.assertThat(firstPage.getTotalElements()).isEqualTo(2L);
+
+        CursorPageableResponse<Anime> secondPage = asUser().get()
+                .uri("/animes/cursor?size=1&after={after}", firstPage.getNextCursor())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(new ParameterizedTypeReference<CursorPageableResponse<Anime>>() {})
+                .returnResult().getResponseBody();
+
+        Assertions.assertThat(secondPage).isNotNull();
+        Assertions.assertThat(secondPage.getContent()).containsExactly(secondAnime);
+        Assertions.assertThat(secondPage.isHasNext()).isFalse();
+        Assertions.assertThat(secondPage.getTotalElements()).isNull();
+    }
+
+    @Test
+    @DisplayName("streamAll returns one JSON Anime per line when successful.")
+    void streamAll_ReturnsOneJsonAnimePerLine_WhenSuccessful() {
+        Anime firstAnime = save(AnimeCreator.createAnimeToBeSaved());
+        Anime secondAnime = save(AnimeCreator.createAnimeToBeSaved());
+
+        List<Anime> animes = asUser().get().uri("/animes/stream")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Anime.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        Assertions.assertThat(animes).containsExactly(firstAnime, secondAnime);
+    }
+
+    @Test
+    @DisplayName("search returns the slice of Animes whose name starts with the prefix in PREFIX mode.")
+    void search_ReturnsSliceOfAnimesStartingWithPrefix_WhenModeIsPrefix() {
+        Anime hajime = save(new Anime(null, "Hajime no Ippo", 0));
+        save(new Anime(null, "Hellsing", 0));
+
+        asUser().get().uri("/animes/search?name=Haj&mode=PREFIX")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[0].name").isEqualTo(hajime.getName())
+                .jsonPath("$.content.length()").isEqualTo(1)
+                .jsonPath("$.last").isEqualTo(true);
+    }
+
+    @Test
+    @DisplayName("search returns 400 BadRequest in FULL_TEXT mode.")
+    void search_Returns400BadRequest_WhenModeIsFullText() {
+        asUser().get().uri("/animes/search?name=hajime&mode=FULL_TEXT")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.details")
+                .isEqualTo("Full-text search is not available on the reactive stack!");
+    }
+
+    @Test
+    @DisplayName("findById returns 400 BadRequest when Anime is not found.")
+    void findById_Returns400BadRequest_WhenAnimeIsNotFound() {
+        asUser().get().uri("/animes/{id}", 404L)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.details").isEqualTo("Anime not found!");
+    }
+
+    @Test
+    @DisplayName("save returns Anime when successful.")
+    void save_ReturnsAnime_WhenSuccessful() {
+        Anime anime = asAdmin().post().uri("/animes/admin")
+                .bodyValue(AnimePostRequestBodyCreator.createAnimePostRequestBody())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Anime.class)
+                .returnResult().getResponseBody();
+
+        Assertions.assertThat(anime).isNotNull();
+        Assertions.assertThat(anime.getId()).isNotNull();
+        Assertions.assertThat(animeRepository.findById(anime.getId()).block()).isEqualTo(anime);
+    }
+
+    @Test
+    @DisplayName("save returns 400 BadRequest with the invalid fields when the name is empty.")
+    void save_Returns400BadRequest_WhenNameIsEmpty() {
+        asAdmin().post().uri("/animes/admin")
+                .bodyValue(new Anime(null, "", 0))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.fields").isEqualTo("name");
+    }
+
+    @Test
+    @DisplayName("save returns 403 Forbidden when user is not admin.")
+    void save_Returns403_WhenUserIsNotAdmin() {
+        asUser().post().uri("/animes/admin")
+                .bodyValue(AnimePostRequestBodyCreator.createAnimePostRequestBody())
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    @DisplayName("listAll returns 401 Unauthorized without credentials.")
+    void listAll_Returns401_WithoutCredentials() {
+        webTestClient.get().uri("/animes")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    @DisplayName("replace updates Anime and returns 409 Conflict for a stale version.")
+    void replace_UpdatesAnimeAndReturns409Conflict_WhenVersionIsStale() {
+        Anime savedAnime = save(AnimeCreator.createAnimeToBeSaved());
+
+        asAdmin().put().uri("/animes/admin")
+                .bodyValue(new AnimePutRequestBody(savedAnime.getId(), "Hajime no Ippo: New Challenger", 0L))
+                .exchange()
+                .expectStatus().isNoContent();
+
+        asAdmin().put().uri("/animes/admin")
+                .bodyValue(new AnimePutRequestBody(savedAnime.getId(), "Hajime no Ippo: Rising", 0L))
+                .exchange()
+                .expectStatus().isEqualTo(409);
+
+        Assertions.assertThat(animeRepository.findById(savedAnime.getId()).block())
+                .isEqualTo(new Anime(savedAnime.getId(), "Hajime no Ippo: New Challenger", 1));
+    }
+
+    @Test
+    @DisplayName("delete removes Anime and then returns 400 BadRequest when it is not found.")
+    void delete_RemovesAnimeAndThenReturns400BadRequest_WhenAnimeIsNotFound() {
+        Anime savedAnime = save(AnimeCreator.createAnimeToBeSaved());
+
+        asAdmin().delete().uri("/animes/admin/{id}", savedAnime.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        asAdmin().delete().uri("/animes/admin/{id}", savedAnime.getId())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private Anime save(Anime anime) {
+        return animeRepository.save(anime).block();
+    }
+
+    private WebTestClient asUser() {
+        return webTestClient.mutate()
+                .defaultHeaders(headers -> headers.setBasicAuth("vinicius_test", "test2"))
+                .build();
+    }
+
+    private WebTestClient asAdmin() {
+        return webTestClient.mutate()
+                .defaultHeaders(headers -> headers.setBasicAuth("vinicius", "springessentials2"))
+                .build();
+    }
+
+    private Mono<Void> insertUser(String name, String username, String password, String authorities) {
+        return databaseClient.sql("insert into user_info (name, username, password, authorities)"
+                        + " values (:name, :username, :password, :authorities)")
+                .bind("name", name)
+                .bind("username", username)
+                .bind("password", password)
+                .bind("authorities", authorities)
+                .then();
+    }
+}
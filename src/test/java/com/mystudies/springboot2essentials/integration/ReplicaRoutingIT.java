@@ -0,0 +1,177 @@
+package com.mystudies.springboot2essentials.integration;
+
+import com.mystudies.springboot2essentials.domain.Anime;
+import com.mystudies.springboot2essentials.requests.AnimePostRequestBody;
+import com.mystudies.springboot2essentials.util.AnimePostRequestBodyCreator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.List;
+
+/**
+ * Two H2 databases stand in for the primary and its replica. The replica never receives the writes of the
+ * primary, so where a row is read from tells which of them served the read.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=" + ReplicaRoutingIT.PRIMARY_URL,
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "essentials.datasource.replicas.urls[0]=" + ReplicaRoutingIT.REPLICA_URL,
+        "essentials.datasource.replicas.sticky-for=1m"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class ReplicaRoutingIT {
+    static final String PRIMARY_URL = "jdbc:h2:mem:primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final JdbcTemplate PRIMARY = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""));
+    private static final JdbcTemplate REPLICA = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    @Qualifier(value = "testRestTemplateRoleUser")
+    private TestRestTemplate testRestTemplateRoleUser;
+
+    @Autowired
+    @Qualifier(value = "testRestTemplateRoleAdmin")
+    private TestRestTemplate testRestTemplateRoleAdmin;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Lazy
+    @TestConfiguration
+    static class Config {
+        @Bean(name = "testRestTemplateRoleUser")
+        public TestRestTemplate testRestTemplateRoleUserCreator(@Value("${local.server.port}") int port) {
+            RestTemplateBuilder restTemplateBuilder = new RestTemplateBuilder()
+                    .rootUri("http://localhost:" + port)
+                    .basicAuthentication("vinicius_test", "test2");
+
+            return new TestRestTemplate(restTemplateBuilder);
+        }
+
+        @Bean(name = "testRestTemplateRoleAdmin")
+        public TestRestTemplate testRestTemplateRoleAdminCreator(@Value("${local.server.port}") int port) {
+            RestTemplateBuilder restTemplateBuilder = new RestTemplateBuilder()
+                    .rootUri("http://localhost:" + port)
+                    .basicAuthentication("vinicius", "springessentials2");
+
+            return new TestRestTemplate(restTemplateBuilder);
+        }
+    }
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+    }
+
+    /**
+     * Users are written to both databases behind the application's back, so signing in writes nothing and opens
+     * no read-your-writes window.
+     */
+    @BeforeEach
+    void setUp() {
+        for (JdbcTemplate database : List.of(PRIMARY, REPLICA)) {
+            database.update("delete from anime");
+            database.update("delete from user_info");
+            database.update("insert into user_info (name, username, password, authorities) values (?, ?, ?, ?)",
+                    "Vinicius test", "vinicius_test", "$2a$10$ip/5FmJaoh95d2acsm8xXuUS3mwGFKAK6VifU1vGpCQC7nowkBlPW",
+                    "ROLE_USER");
+            database.update("insert into user_info (name, username, password, authorities) values (?, ?, ?, ?)",
+                    "Vinicius main", "vinicius", "$2a$10$bGIhyuUiv41ez8WgnXFAA.RnbA6kMvwf5zvyuhQlLfotMErFYwN8i",
+                    "ROLE_ADMIN,ROLE_USER");
+        }
+    }
+
+    @Test
+    @DisplayName("findByName reads from the replica when no write was committed recently.")
+    void findByName_ReadsFromReplica_WhenNoWriteWasCommittedRecently() {
+        REPLICA.update("insert into anime (name, version) values (?, 0)", "Only on the replica");
+
+        List<Anime> animes = testRestTemplateRoleUser.exchange("/animes/findByName?name=Only on the replica",
+                HttpMethod.GET, null, new ParameterizedTypeReference<List<Anime>>() {}).getBody();
+
+        Assertions.assertThat(animes).extracting(Anime::getName).containsExactly("Only on the replica");
+        Assertions.assertThat(meterRegistry.get("jdbc.connections.routed").tag("route", "replica")
+                .functionCounter().count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("save writes to the primary and the writer reads the anime back from it when the read follows.")
+    void save_WritesToPrimaryAndWriterReadsItBack_WhenReadFollowsTheWrite() {
+        AnimePostRequestBody animePostRequestBody = AnimePostRequestBodyCreator.createAnimePostRequestBody();
+
+        ResponseEntity<Anime> savedAnime = testRestTemplateRoleAdmin.postForEntity("/animes/admin",
+                animePostRequestBody, Anime.class);
+        List<Anime> animes = testRestTemplateRoleAdmin.exchange("/animes/findByName?name=" +
+                        animePostRequestBody.getName(), HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<Anime>>() {}).getBody();
+
+        Assertions.assertThat(savedAnime.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        Assertions.assertThat(PRIMARY.queryForObject("select count(*) from anime", Integer.class)).isEqualTo(1);
+        Assertions.assertThat(REPLICA.queryForObject("select count(*) from anime", Integer.class)).isZero();
+        Assertions.assertThat(animes).extracting(Anime::getId).containsExactly(savedAnime.getBody().getId());
+        Assertions.assertThat(meterRegistry.get("jdbc.connections.routed").tag("route", "read-your-writes")
+                .functionCounter().count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("findByName still reads from the replica for other users right after someone else wrote.")
+    void findByName_ReadsFromReplica_WhenAnotherUserWroteRecently() {
+        REPLICA.update("insert into anime (name, version) values (?, 0)", "Only on the replica");
+
+        ResponseEntity<Anime> savedAnime = testRestTemplateRoleAdmin.postForEntity("/animes/admin",
+                AnimePostRequestBodyCreator.createAnimePostRequestBody(), Anime.class);
+        List<Anime> animes = testRestTemplateRoleUser.exchange("/animes/findByName?name=Only on the replica",
+                HttpMethod.GET, null, new ParameterizedTypeReference<List<Anime>>() {}).getBody();
+
+        Assertions.assertThat(savedAnime.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        Assertions.assertThat(animes).extracting(Anime::getName).containsExactly("Only on the replica");
+        Assertions.assertThat(meterRegistry.get("jdbc.connections.routed").tag("route", "read-your-writes")
+                .functionCounter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("findById loads an anime someone else just wrote from the primary.")
+    void findById_LoadsFromPrimary_WhenAnotherUserJustWroteTheAnime() {
+        ResponseEntity<Anime> savedAnime = testRestTemplateRoleAdmin.postForEntity("/animes/admin",
+                AnimePostRequestBodyCreator.createAnimePostRequestBody(), Anime.class);
+        ResponseEntity<Anime> anime = testRestTemplateRoleUser.getForEntity("/animes/{id}", Anime.class,
+                savedAnime.getBody().getId());
+
+        Assertions.assertThat(anime.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(anime.getBody()).extracting(Anime::getId).isEqualTo(savedAnime.getBody().getId());
+        Assertions.assertThat(meterRegistry.get("jdbc.connections.routed").tag("route", "recent-change")
+                .functionCounter().count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("hikaricp metrics are published for the primary and the replica pools.")
+    void hikariMetrics_ArePublishedForEveryPool_WhenReplicasAreConfigured() {
+        Assertions.assertThat(meterRegistry.find("hikaricp.connections.max").gauges())
+                .map(gauge -> gauge.getId().getTag("pool"))
+                .containsExactlyInAnyOrder("primary", "replica-0");
+    }
+}
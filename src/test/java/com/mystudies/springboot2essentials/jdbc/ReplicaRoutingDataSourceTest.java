@@ -0,0 +1,158 @@
+package com.mystudies.springboot2essentials.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+@DisplayName("Tests for Replica Routing Data Source")
+class ReplicaRoutingDataSourceTest {
+
+    private HikariDataSource primary;
+    private HikariDataSource firstReplica;
+    private HikariDataSource secondReplica;
+    private String writer;
+
+    @BeforeEach
+    void setUp() {
+        primary = Mockito.mock(HikariDataSource.class);
+        firstReplica = replicaWithActiveConnections(0);
+        secondReplica = replicaWithActiveConnections(0);
+        writer = "vinicius";
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("route returns the primary when no read-only transaction is running.")
+    void route_ReturnsPrimary_WhenNoReadOnlyTransactionIsRunning() {
+        ReplicaRoutingDataSource dataSource = dataSource(Duration.ofSeconds(2));
+
+        Assertions.assertThat(dataSource.route()).isSameAs(primary);
+
+        beginTransaction(false);
+        Assertions.assertThat(dataSource.route()).isSameAs(primary);
+    }
+
+    @Test
+    @DisplayName("route spreads read-only transactions round-robin over replicas when they are equally loaded.")
+    void route_SpreadsReadOnlyTransactionsRoundRobin_WhenReplicasAreEquallyLoaded() {
+        ReplicaRoutingDataSource dataSource = dataSource(Duration.ofSeconds(2));
+        beginTransaction(true);
+
+        Assertions.assertThat(List.of(dataSource.route(), dataSource.route(), dataSource.route()))
+                .containsExactly(firstReplica, secondReplica, firstReplica);
+    }
+
+    @Test
+    @DisplayName("route returns the replica with the fewest active connections when the load differs.")
+    void route_ReturnsLeastLoadedReplica_WhenLoadDiffers() {
+        firstReplica = replicaWithActiveConnections(5);
+        ReplicaRoutingDataSource dataSource = dataSource(Duration.ofSeconds(2));
+        beginTransaction(true);
+
+        Assertions.assertThat(List.of(dataSource.route(), dataSource.route()))
+                .containsExactly(secondReplica, secondReplica);
+    }
+
+    @Test
+    @DisplayName("route keeps the writer's read-only transactions on the primary after its write commits.")
+    void route_KeepsReadsOnPrimary_WhenSameWriterCommittedRecently() {
+        ReplicaRoutingDataSource dataSource = dataSource(Duration.ofMinutes(1));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        dataSource.bindTo(meterRegistry);
+
+        beginTransaction(false);
+        dataSource.route();
+        commit();
+        beginTransaction(true);
+
+        Assertions.assertThat(dataSource.route()).isSameAs(primary);
+        Assertions.assertThat(meterRegistry.get(ReplicaRoutingDataSource.METRIC_NAME).tag("route", "read-write")
+                .functionCounter().count()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get(ReplicaRoutingDataSource.METRIC_NAME).tag("route", "read-your-writes")
+                .functionCounter().count()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get(ReplicaRoutingDataSource.METRIC_NAME).tag("route", "replica")
+                .functionCounter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("route sends other callers' read-only transactions to the replicas after a write commits.")
+    void route_ReturnsReplica_WhenAnotherWriterCommittedRecently() {
+        ReplicaRoutingDataSource dataSource = dataSource(Duration.ofMinutes(1));
+
+        beginTransaction(false);
+        dataSource.route();
+        commit();
+        writer = "vinicius_test";
+        beginTransaction(true);
+
+        Assertions.assertThat(dataSource.route()).isSameAs(firstReplica);
+    }
+
+    @Test
+    @DisplayName("onPrimary runs read-only transactions on the primary and restores routing after.")
+    void onPrimary_RunsReadsOnPrimary_AndRestoresRoutingAfter() {
+        ReplicaRoutingDataSource dataSource = dataSource(Duration.ofMinutes(1));
+        beginTransaction(true);
+
+        Assertions.assertThat(ReplicaRoutingDataSource.onPrimary(dataSource::route)).isSameAs(primary);
+        Assertions.assertThat(dataSource.route()).isSameAs(firstReplica);
+    }
+
+    @Test
+    @DisplayName("route returns to the replicas when the sticky window is over.")
+    void route_ReturnsReplica_WhenStickyWindowIsOver() {
+        ReplicaRoutingDataSource dataSource = dataSource(Duration.ZERO);
+
+        beginTransaction(false);
+        dataSource.route();
+        commit();
+        beginTransaction(true);
+
+        Assertions.assertThat(dataSource.route()).isSameAs(firstReplica);
+    }
+
+    private ReplicaRoutingDataSource dataSource(Duration stickyFor) {
+        return new ReplicaRoutingDataSource(primary, List.of(firstReplica, secondReplica), stickyFor, () -> writer);
+    }
+
+    private static HikariDataSource replicaWithActiveConnections(int activeConnections) {
+        HikariDataSource replica = Mockito.mock(HikariDataSource.class);
+        HikariPoolMXBean pool = Mockito.mock(HikariPoolMXBean.class);
+        BDDMockito.when(replica.getHikariPoolMXBean()).thenReturn(pool);
+        BDDMockito.when(pool.getActiveConnections()).thenReturn(activeConnections);
+        return replica;
+    }
+
+    private static void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+}
@@ -0,0 +1,87 @@
+package com.mystudies.springboot2essentials.jdbc;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+@DisplayName("Tests for Statement Metrics Listener")
+class StatementMetricsListenerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        JdbcRequestContext.end();
+    }
+
+    @Test
+    @DisplayName("afterQuery times the statement by type and counts it for the current request.")
+    void afterQuery_TimesStatementAndCountsItForRequest_WhenRequestIsHandled() {
+        StatementMetricsListener listener = new StatementMetricsListener(meterRegistry, Duration.ofSeconds(1));
+        JdbcRequestContext.start("AnimeController#listAll");
+
+        execute(listener, "select a.id, a.name from anime a", true);
+        execute(listener, "update anime set name=? where id=?", false);
+
+        Assertions.assertThat(meterRegistry.get(StatementMetricsListener.METRIC_NAME).tag("type", "select")
+                .tag("outcome", "success").timer().count()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get(StatementMetricsListener.METRIC_NAME).tag("type", "update")
+                .tag("outcome", "error").timer().count()).isEqualTo(1);
+        Assertions.assertThat(JdbcRequestContext.current().getStatements()).isEqualTo(2);
+        Assertions.assertThat(meterRegistry.find(StatementMetricsListener.SLOW_METRIC_NAME).counter()).isNull();
+    }
+
+    @Test
+    @DisplayName("afterQuery counts a slow statement for the handler that ran it.")
+    void afterQuery_CountsSlowStatementForHandler_WhenThresholdIsReached() {
+        StatementMetricsListener listener = new StatementMetricsListener(meterRegistry, Duration.ZERO);
+        JdbcRequestContext.start("AnimeController#findByName");
+
+        execute(listener, "select a.id from anime a where a.name=?", true);
+        JdbcRequestContext.end();
+        execute(listener, "select a.id from anime a", true);
+
+        Assertions.assertThat(meterRegistry.get(StatementMetricsListener.SLOW_METRIC_NAME)
+                .tag("handler", "AnimeController#findByName").counter().count()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get(StatementMetricsListener.SLOW_METRIC_NAME)
+                .tag("handler", "none").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("queryType reads the first keyword regardless of case and leading whitespace.")
+    void queryType_ReadsFirstKeyword() {
+        Assertions.assertThat(StatementMetricsListener.queryType("  SELECT 1")).isEqualTo(QueryType.SELECT);
+        Assertions.assertThat(StatementMetricsListener.queryType("(select 1) union (select 2)"))
+                .isEqualTo(QueryType.SELECT);
+        Assertions.assertThat(StatementMetricsListener.queryType("with t as (select 1) select * from t"))
+                .isEqualTo(QueryType.SELECT);
+        Assertions.assertThat(StatementMetricsListener.queryType("insert into anime (name) values (?)"))
+                .isEqualTo(QueryType.INSERT);
+        Assertions.assertThat(StatementMetricsListener.queryType("delete from anime where id=?"))
+                .isEqualTo(QueryType.DELETE);
+        Assertions.assertThat(StatementMetricsListener.queryType("call next value for hibernate_sequence"))
+                .isEqualTo(QueryType.OTHER);
+    }
+
+    private static void execute(StatementMetricsListener listener, String sql, boolean success) {
+        ExecutionInfo execInfo = new ExecutionInfo();
+        List<QueryInfo> queryInfoList = List.of(new QueryInfo(sql));
+        listener.beforeQuery(execInfo, queryInfoList);
+        execInfo.setSuccess(success);
+        listener.afterQuery(execInfo, queryInfoList);
+    }
+}
@@ -0,0 +1,75 @@
+package com.mystudies.springboot2essentials.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+@DisplayName("Tests for Load Shedding Filter")
+class LoadSheddingFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private LoadSheddingFilter loadSheddingFilter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("essentials.load-shedding.animes-admin.max-concurrent-requests", "1");
+        loadSheddingFilter = new LoadSheddingFilter(environment,
+                new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("doFilter answers 503 to requests beyond the concurrency limit and frees the slot afterwards.")
+    void doFilter_Answers503BeyondConcurrencyLimit_AndFreesSlotAfterwards() throws Exception {
+        AtomicReference<MockHttpServletResponse> concurrent = new AtomicReference<>();
+        MockFilterChain chainRunningAnotherRequest = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response)
+                    throws IOException, ServletException {
+                concurrent.set(filter("/animes/admin/saveAll"));
+            }
+        };
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        loadSheddingFilter.doFilter(request("/animes/admin"), first, chainRunningAnotherRequest);
+
+        Assertions.assertThat(first.getStatus()).isEqualTo(HttpStatus.OK.value());
+        Assertions.assertThat(concurrent.get().getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+        Assertions.assertThat(concurrent.get().getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        Assertions.assertThat(filter("/animes/admin").getStatus()).isEqualTo(HttpStatus.OK.value());
+        Assertions.assertThat(meterRegistry.get("http.server.requests.rejected").tag("group", "animes-admin")
+                .tag("reason", "overload").counter().count()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get("http.server.requests.in.flight").tag("group", "animes-admin")
+                .gauge().value()).isZero();
+    }
+
+    private MockHttpServletResponse filter(String path) throws IOException, ServletException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        loadSheddingFilter.doFilter(request(path), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setServletPath(path);
+        return request;
+    }
+}
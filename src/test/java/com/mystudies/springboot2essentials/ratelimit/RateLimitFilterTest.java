@@ -0,0 +1,87 @@
+package com.mystudies.springboot2essentials.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+@DisplayName("Tests for Rate Limit Filter")
+class RateLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("essentials.rate-limit.animes.permits-per-second", "1")
+                .withProperty("essentials.rate-limit.animes.burst", "2");
+        rateLimitFilter = new RateLimitFilter(environment, new ObjectMapper().registerModule(new JavaTimeModule()),
+                meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("doFilter answers 429 with Retry-After once the user used up the burst of the group.")
+    void doFilter_Answers429_WhenUserUsedUpBurst() throws Exception {
+        authenticate("vinicius_test");
+
+        Assertions.assertThat(filter("/animes").getStatus()).isEqualTo(HttpStatus.OK.value());
+        Assertions.assertThat(filter("/animes/all").getStatus()).isEqualTo(HttpStatus.OK.value());
+        MockHttpServletResponse rejected = filter("/animes/1");
+
+        Assertions.assertThat(rejected.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        Assertions.assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        Assertions.assertThat(rejected.getContentAsString()).contains("\"status\":429");
+        Assertions.assertThat(meterRegistry.get("http.server.requests.rejected").tag("group", "animes")
+                .tag("reason", "rate-limit").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("doFilter keeps a bucket per user and route group.")
+    void doFilter_KeepsBucketPerUserAndRouteGroup() throws Exception {
+        authenticate("vinicius_test");
+        filter("/animes");
+        filter("/animes");
+
+        Assertions.assertThat(filter("/animes/admin").getStatus()).isEqualTo(HttpStatus.OK.value());
+        Assertions.assertThat(filter("/actuator/health").getStatus()).isEqualTo(HttpStatus.OK.value());
+
+        authenticate("vinicius");
+
+        Assertions.assertThat(filter("/animes").getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    private MockHttpServletResponse filter(String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+}
@@ -0,0 +1,36 @@
+package com.mystudies.springboot2essentials.ratelimit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+@DisplayName("Tests for Token Bucket")
+class TokenBucketTest {
+
+    @Test
+    @DisplayName("tryAcquire takes the whole burst at once and then waits for the refill.")
+    void tryAcquire_TakesWholeBurstThenWaitsForRefill() {
+        TokenBucket tokenBucket = new TokenBucket(10, 3, 0);
+
+        Assertions.assertThat(tokenBucket.tryAcquire(0)).isZero();
+        Assertions.assertThat(tokenBucket.tryAcquire(0)).isZero();
+        Assertions.assertThat(tokenBucket.tryAcquire(0)).isZero();
+        Assertions.assertThat(tokenBucket.tryAcquire(0)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+
+        Assertions.assertThat(tokenBucket.tryAcquire(TimeUnit.MILLISECONDS.toNanos(100))).isZero();
+        Assertions.assertThat(tokenBucket.tryAcquire(TimeUnit.MILLISECONDS.toNanos(100))).isPositive();
+    }
+
+    @Test
+    @DisplayName("tryAcquire never holds more than the burst after being left alone.")
+    void tryAcquire_NeverHoldsMoreThanBurst_WhenLeftAlone() {
+        TokenBucket tokenBucket = new TokenBucket(10, 2, 0);
+        long later = TimeUnit.SECONDS.toNanos(60);
+
+        Assertions.assertThat(tokenBucket.tryAcquire(later)).isZero();
+        Assertions.assertThat(tokenBucket.tryAcquire(later)).isZero();
+        Assertions.assertThat(tokenBucket.tryAcquire(later)).isPositive();
+    }
+}
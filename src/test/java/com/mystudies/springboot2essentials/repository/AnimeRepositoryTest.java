@@ -8,6 +8,9 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 import javax.validation.ConstraintViolationException;
 import java.util.List;
@@ -92,6 +95,22 @@ class AnimeRepositoryTest {
         log.info("----------- Finish FIND BY NAME returns EMPTY LIST -----------");
     }
 
+    @Test
+    @DisplayName("Find by name starting with returns a Slice of Animes ordered by name when Successful.")
+    void findByNameStartingWith_ReturnsSliceOfAnimesOrderedByName_WhenSuccessful() {
+        Anime hellsingUltimate = this.animeRepository.save(Anime.builder().name("Hellsing Ultimate").build());
+        Anime hellsing = this.animeRepository.save(Anime.builder().name("Hellsing").build());
+        this.animeRepository.save(Anime.builder().name("Overlord").build());
+
+        Slice<Anime> animes = this.animeRepository.findByNameStartingWith("Hell",
+                PageRequest.of(0, 1, Sort.by("name")));
+
+        Assertions.assertThat(animes.getContent()).containsExactly(hellsing);
+        Assertions.assertThat(animes.hasNext()).isTrue();
+        Assertions.assertThat(this.animeRepository.findByNameStartingWith("Hell", animes.nextPageable())
+                .getContent()).containsExactly(hellsingUltimate);
+    }
+
     @Test
     @DisplayName("Save throws ConstraintViolationException when name is empty.")
     void save_throwsConstraintViolationException_WhenNameIsEmpty() {
@@ -0,0 +1,106 @@
+package com.mystudies.springboot2essentials.search;
+
+import com.mystudies.springboot2essentials.event.AnimeChangedEvent;
+import com.mystudies.springboot2essentials.exception.BadRequestException;
+import com.mystudies.springboot2essentials.repository.AnimeRepository;
+import com.mystudies.springboot2essentials.repository.AnimeRepository.AnimeName;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@ExtendWith(SpringExtension.class)
+class AnimeSearchIndexTest {
+
+    @Mock
+    private AnimeRepository animeRepositoryMock;
+
+    private AnimeSearchIndex animeSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        BDDMockito.when(animeRepositoryMock.streamAllNames())
+                .thenReturn(Stream.of(
+                        animeName(1L, "Dragon Ball"),
+                        animeName(2L, "Dragon Ball Super"),
+                        animeName(3L, "Hunter x Hunter"),
+                        animeName(4L, "Pokémon")));
+
+        animeSearchIndex = new AnimeSearchIndex(animeRepositoryMock, true);
+        animeSearchIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("search ranks rare words and shorter names first when successful.")
+    void search_RanksRareWordsAndShorterNamesFirst_WhenSuccessful() {
+        Page<Long> ids = animeSearchIndex.search("super dragon", PageRequest.of(0, 5));
+
+        Assertions.assertThat(ids.getContent()).containsExactly(2L, 1L);
+        Assertions.assertThat(ids.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("search ignores case and accents when successful.")
+    void search_IgnoresCaseAndAccents_WhenSuccessful() {
+        Assertions.assertThat(animeSearchIndex.search("POKEMON", PageRequest.of(0, 5)).getContent())
+                .containsExactly(4L);
+    }
+
+    @Test
+    @DisplayName("search returns only the requested page when successful.")
+    void search_ReturnsOnlyTheRequestedPage_WhenSuccessful() {
+        Page<Long> ids = animeSearchIndex.search("dragon", PageRequest.of(1, 1));
+
+        Assertions.assertThat(ids.getContent()).containsExactly(2L);
+        Assertions.assertThat(ids.getTotalElements()).isEqualTo(2);
+        Assertions.assertThat(animeSearchIndex.search("dragon", PageRequest.of(2, 1)).getContent()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("onAnimeChanged reindexes updated Animes and drops deleted ones.")
+    void onAnimeChanged_ReindexesUpdatedAnimesAndDropsDeletedOnes() {
+        BDDMockito.when(animeRepositoryMock.findNamesByIdIn(ArgumentMatchers.anyCollection()))
+                .thenReturn(List.of(animeName(3L, "Hunter x Hunter 2011")));
+
+        animeSearchIndex.onAnimeChanged(AnimeChangedEvent.updated(3L));
+        animeSearchIndex.onAnimeChanged(AnimeChangedEvent.deleted(1L));
+
+        Assertions.assertThat(animeSearchIndex.search("2011", PageRequest.of(0, 5)).getContent())
+                .containsExactly(3L);
+        Assertions.assertThat(animeSearchIndex.search("dragon", PageRequest.of(0, 5)).getContent())
+                .containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("search throws BadRequestException when full-text search is disabled.")
+    void search_ThrowsBadRequestException_WhenFullTextSearchIsDisabled() {
+        AnimeSearchIndex disabledIndex = new AnimeSearchIndex(animeRepositoryMock, false);
+
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> disabledIndex.search("dragon", PageRequest.of(0, 5)));
+    }
+
+    private static AnimeName animeName(long id, String name) {
+        return new AnimeName() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package com.mystudies.springboot2essentials.security;
+
+import com.mystudies.springboot2essentials.domain.UserInfo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(SpringExtension.class)
+@DisplayName("Tests for Caching Authentication Provider")
+class CachingAuthenticationProviderTest {
+
+    private static final BCryptPasswordEncoder PASSWORD_ENCODER = new BCryptPasswordEncoder(4);
+
+    private static final UserInfo USER = UserInfo.builder()
+            .id(1L)
+            .name("Vinicius test")
+            .username("vinicius_test")
+            .password(PASSWORD_ENCODER.encode("test2"))
+            .authorities("ROLE_USER")
+            .build();
+
+    @Mock
+    private UserDetailsService userDetailsServiceMock;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CachingAuthenticationProvider cachingAuthenticationProvider;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        BDDMockito.when(userDetailsServiceMock.loadUserByUsername(ArgumentMatchers.anyString()))
+                .thenReturn(USER);
+
+        meterRegistry = new SimpleMeterRegistry();
+        cachingAuthenticationProvider = new CachingAuthenticationProvider(userDetailsServiceMock, PASSWORD_ENCODER,
+                meterRegistry, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("authenticate loads the user once when the same credentials are used again.")
+    void authenticate_LoadsUserOnce_WhenSameCredentialsAreUsedAgain() {
+        cachingAuthenticationProvider.authenticate(credentials("test2"));
+        Authentication authentication = cachingAuthenticationProvider.authenticate(credentials("test2"));
+
+        Assertions.assertThat(authentication.isAuthenticated()).isTrue();
+        Assertions.assertThat(authentication.getPrincipal()).isEqualTo(USER);
+        Assertions.assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+
+        BDDMockito.verify(userDetailsServiceMock).loadUserByUsername("vinicius_test");
+        Assertions.assertThat(meterRegistry.get("security.authentication.password.check").timer().count())
+                .isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get("security.authentication.password.check.saved").counter().count())
+                .isPositive()
+                .isEqualTo(meterRegistry.get("security.authentication.password.check").timer()
+                        .mean(TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("authenticate throws BadCredentialsException when password is wrong, even after a cached login.")
+    void authenticate_ThrowsBadCredentialsException_WhenPasswordIsWrong() {
+        cachingAuthenticationProvider.authenticate(credentials("test2"));
+
+        Assertions.assertThatExceptionOfType(BadCredentialsException.class)
+                .isThrownBy(() -> cachingAuthenticationProvider.authenticate(credentials("wrong")));
+    }
+
+    @Test
+    @DisplayName("evict forces the user to be loaded again when the user changes.")
+    void evict_ForcesUserToBeLoadedAgain_WhenUserChanges() {
+        cachingAuthenticationProvider.authenticate(credentials("test2"));
+
+        cachingAuthenticationProvider.evict(USER);
+        cachingAuthenticationProvider.authenticate(credentials("test2"));
+
+        BDDMockito.verify(userDetailsServiceMock, BDDMockito.times(2)).loadUserByUsername("vinicius_test");
+    }
+
+    private static UsernamePasswordAuthenticationToken credentials(String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated("vinicius_test", password);
+    }
+}
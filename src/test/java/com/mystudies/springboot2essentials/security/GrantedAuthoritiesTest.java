@@ -0,0 +1,53 @@
+package com.mystudies.springboot2essentials.security;
+
+import com.mystudies.springboot2essentials.domain.UserInfo;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+
+@DisplayName("Tests for Granted Authorities")
+class GrantedAuthoritiesTest {
+
+    @Test
+    @DisplayName("parse returns the same shared set when the same authorities are parsed again.")
+    void parse_ReturnsSameSharedSet_WhenSameAuthoritiesAreParsedAgain() {
+        UserInfo admin = UserInfo.builder().authorities("ROLE_ADMIN,ROLE_USER").build();
+        UserInfo otherAdmin = UserInfo.builder().authorities(new String("ROLE_ADMIN,ROLE_USER")).build();
+
+        Collection<? extends GrantedAuthority> authorities = admin.getAuthorities();
+
+        Assertions.assertThat(authorities)
+                .isSameAs(otherAdmin.getAuthorities())
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_ADMIN", "ROLE_USER");
+
+        Assertions.assertThat(authorities.iterator().next()).isSameAs(GrantedAuthorities.ROLE_ADMIN);
+    }
+
+    @Test
+    @DisplayName("parse returns an immutable set when successful.")
+    void parse_ReturnsImmutableSet_WhenSuccessful() {
+        GrantedAuthorities.AuthoritySet authorities = GrantedAuthorities.parse("ROLE_USER");
+
+        Assertions.assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> authorities.add(GrantedAuthorities.ROLE_ADMIN));
+    }
+
+    @Test
+    @DisplayName("hasAuthority checks parsed sets and plain authority lists alike.")
+    void hasAuthority_ChecksParsedSetsAndPlainLists_WhenSuccessful() {
+        List<GrantedAuthority> plainAuthorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+
+        Assertions.assertThat(GrantedAuthorities.hasAuthority(GrantedAuthorities.parse("ROLE_USER"), "ROLE_USER"))
+                .isTrue();
+        Assertions.assertThat(GrantedAuthorities.hasAuthority(plainAuthorities, "ROLE_USER")).isTrue();
+        Assertions.assertThat(GrantedAuthorities.hasAuthority(plainAuthorities, "ROLE_ADMIN")).isFalse();
+        Assertions.assertThat(UserInfo.builder().authorities("ROLE_USER").build().hasAuthority("ROLE_ADMIN"))
+                .isFalse();
+    }
+}
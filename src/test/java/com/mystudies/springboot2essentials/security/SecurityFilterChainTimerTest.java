@@ -0,0 +1,75 @@
+package com.mystudies.springboot2essentials.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+@DisplayName("Tests for Security Filter Chain Timer")
+class SecurityFilterChainTimerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private SecurityFilterChainTimer securityFilterChainTimer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        securityFilterChainTimer = new SecurityFilterChainTimer(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("start and stop record a passed request when the chain lets it through.")
+    void startAndStop_RecordPassed_WhenChainLetsRequestThrough() throws Exception {
+        MockFilterChain chain = new MockFilterChain(new NoOpServlet(), securityFilterChainTimer.start(),
+                securityFilterChainTimer.stop());
+
+        chain.doFilter(new MockHttpServletRequest("GET", "/animes"), new MockHttpServletResponse());
+
+        Assertions.assertThat(count("passed")).isEqualTo(1);
+        Assertions.assertThat(count("rejected")).isZero();
+    }
+
+    @Test
+    @DisplayName("start records a rejected request when the chain answers it before stop.")
+    void start_RecordsRejected_WhenChainAnswersBeforeStop() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new NoOpServlet(), securityFilterChainTimer.start(),
+                new Unauthorized(), securityFilterChainTimer.stop());
+
+        chain.doFilter(new MockHttpServletRequest("GET", "/animes"), response);
+
+        Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.UNAUTHORIZED.value());
+        Assertions.assertThat(count("rejected")).isEqualTo(1);
+        Assertions.assertThat(count("passed")).isZero();
+    }
+
+    private long count(String outcome) {
+        return meterRegistry.get("security.filter.chain").tag("outcome", outcome).timer().count();
+    }
+
+    private static class NoOpServlet extends HttpServlet {
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) {
+        }
+    }
+
+    private static class Unauthorized extends OncePerRequestFilter {
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                        FilterChain chain) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        }
+    }
+}
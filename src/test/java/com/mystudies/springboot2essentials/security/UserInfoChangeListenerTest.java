@@ -0,0 +1,78 @@
+package com.mystudies.springboot2essentials.security;
+
+import com.mystudies.springboot2essentials.domain.UserInfo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ExtendWith(SpringExtension.class)
+@DisplayName("Tests for User Info Change Listener")
+class UserInfoChangeListenerTest {
+
+    private static final BCryptPasswordEncoder PASSWORD_ENCODER = new BCryptPasswordEncoder(4);
+
+    private static final UserInfo USER = UserInfo.builder()
+            .id(1L)
+            .name("Vinicius test")
+            .username("vinicius_test")
+            .password(PASSWORD_ENCODER.encode("test2"))
+            .authorities("ROLE_USER")
+            .build();
+
+    @Mock
+    private UserDetailsService userDetailsServiceMock;
+
+    private CachingAuthenticationProvider cachingAuthenticationProvider;
+
+    private UserInfoChangeListener userInfoChangeListener;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        BDDMockito.when(userDetailsServiceMock.loadUserByUsername(ArgumentMatchers.anyString()))
+                .thenReturn(USER);
+
+        cachingAuthenticationProvider = new CachingAuthenticationProvider(userDetailsServiceMock, PASSWORD_ENCODER,
+                new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+        userInfoChangeListener = new UserInfoChangeListener(
+                new StaticListableBeanFactory(Map.of("cachingAuthenticationProvider", cachingAuthenticationProvider))
+                        .getBeanProvider(CachingAuthenticationProvider.class));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    @DisplayName("onChange evicts the login cached between the flush and the commit once the change commits.")
+    void onChange_EvictsLoginCachedBetweenFlushAndCommit_WhenChangeCommits() {
+        userInfoChangeListener.onChange(USER);
+        cachingAuthenticationProvider.authenticate(credentials());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        cachingAuthenticationProvider.authenticate(credentials());
+
+        BDDMockito.verify(userDetailsServiceMock, BDDMockito.times(2)).loadUserByUsername("vinicius_test");
+    }
+
+    private static UsernamePasswordAuthenticationToken credentials() {
+        return UsernamePasswordAuthenticationToken.unauthenticated("vinicius_test", "test2");
+    }
+}
@@ -1,11 +1,21 @@
 package com.mystudies.springboot2essentials.service;
 
+import com.mystudies.springboot2essentials.cache.AnimeCache;
+import com.mystudies.springboot2essentials.cache.SingleFlight;
 import com.mystudies.springboot2essentials.domain.Anime;
+import com.mystudies.springboot2essentials.event.AnimeChangedEvent;
 import com.mystudies.springboot2essentials.exception.BadRequestException;
+import com.mystudies.springboot2essentials.exception.ConflictException;
 import com.mystudies.springboot2essentials.repository.AnimeRepository;
+import com.mystudies.springboot2essentials.requests.AnimePutRequestBody;
+import com.mystudies.springboot2essentials.requests.CursorPageRequest;
+import com.mystudies.springboot2essentials.search.AnimeSearchIndex;
 import com.mystudies.springboot2essentials.util.AnimeCreator;
 import com.mystudies.springboot2essentials.util.AnimePostRequestBodyCreator;
 import com.mystudies.springboot2essentials.util.AnimePutRequestBodyCreator;
+import com.mystudies.springboot2essentials.wrapper.CursorPageableResponse;
+import com.mystudies.springboot2essentials.wrapper.MultiGetResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.Assert;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,14 +26,23 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @ExtendWith(SpringExtension.class)
 @DisplayName("Tests for Anime Service")
@@ -35,6 +54,23 @@ class AnimeServiceTest {
     @Mock
     private AnimeRepository animeRepositoryMock;
 
+    @Mock
+    private EntityManager entityManagerMock;
+
+    @Spy
+    private AnimeCache animeCache = new AnimeCache(new SimpleMeterRegistry(), 100,
+            Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofSeconds(2));
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisherMock;
+
+    @Mock
+    private AnimeSearchIndex animeSearchIndexMock;
+
+    @Spy
+    private SingleFlight<String, List<Anime>> animeByNameSingleFlight = new SingleFlight<>("anime.byName",
+            Duration.ofSeconds(1), new SimpleMeterRegistry());
+
     @BeforeEach
     void setUp() {
         PageImpl<Anime> animePage = new PageImpl<>(List.of(AnimeCreator.createValidAnime()));
@@ -42,9 +78,22 @@ class AnimeServiceTest {
         BDDMockito.when(animeRepositoryMock.findAll(ArgumentMatchers.any(PageRequest.class)))
                 .thenReturn(animePage);
 
+        BDDMockito.when(animeRepositoryMock.findAllByOrderByIdAsc(ArgumentMatchers.any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(List.of(AnimeCreator.createValidAnime()), PageRequest.of(0, 1), true));
+
+        BDDMockito.when(animeRepositoryMock.findByIdGreaterThanOrderByIdAsc(ArgumentMatchers.anyLong(),
+                        ArgumentMatchers.any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(List.of(AnimeCreator.createValidUpdatedAnime())));
+
+        BDDMockito.when(animeRepositoryMock.count())
+                .thenReturn(2L);
+
         BDDMockito.when(animeRepositoryMock.findAll())
                 .thenReturn(List.of(AnimeCreator.createValidAnime()));
 
+        BDDMockito.when(animeRepositoryMock.streamAll())
+                .thenReturn(Stream.of(AnimeCreator.createValidAnime()));
+
         BDDMockito.when(animeRepositoryMock.findById(ArgumentMatchers.anyLong()))
                 .thenReturn(Optional.of(AnimeCreator.createValidAnime()));
 
@@ -54,7 +103,11 @@ class AnimeServiceTest {
         BDDMockito.when(animeRepositoryMock.save(ArgumentMatchers.any(Anime.class)))
                 .thenReturn(AnimeCreator.createValidAnime());
 
-        BDDMockito.doNothing().when(animeRepositoryMock).delete(ArgumentMatchers.any(Anime.class));
+        BDDMockito.when(animeRepositoryMock.updateName(ArgumentMatchers.anyLong(), ArgumentMatchers.anyString()))
+                .thenReturn(1);
+
+        BDDMockito.when(animeRepositoryMock.deleteAnime(ArgumentMatchers.anyLong()))
+                .thenReturn(1);
     }
 
     @Test
@@ -72,6 +125,48 @@ class AnimeServiceTest {
         Assertions.assertThat(animePage.toList().get(0).getName()).isEqualTo(expectedName);
     }
 
+    @Test
+    @DisplayName("listAllByCursor returns first page with next cursor and no total when count is skipped.")
+    void listAllByCursor_ReturnsFirstPageWithNextCursor_WhenCountIsSkipped() {
+        CursorPageableResponse<Anime> animePage = animeService.listAllByCursor(CursorPageRequest.of(null, 1, true));
+
+        Assertions.assertThat(animePage.getContent())
+                .isNotEmpty()
+                .containsExactly(AnimeCreator.createValidAnime());
+
+        Assertions.assertThat(animePage.isHasNext()).isTrue();
+        Assertions.assertThat(animePage.getNextCursor()).isEqualTo(CursorPageRequest.encodeCursor(1L));
+        Assertions.assertThat(animePage.getTotalElements()).isNull();
+
+        BDDMockito.verify(animeRepositoryMock, BDDMockito.never()).count();
+    }
+
+    @Test
+    @DisplayName("listAllByCursor returns the page after the cursor with total when count is requested.")
+    void listAllByCursor_ReturnsPageAfterCursorWithTotal_WhenCountIsRequested() {
+        String cursor = CursorPageRequest.encodeCursor(1L);
+
+        CursorPageableResponse<Anime> animePage = animeService.listAllByCursor(CursorPageRequest.of(cursor, 1, false));
+
+        Assertions.assertThat(animePage.getContent())
+                .containsExactly(AnimeCreator.createValidUpdatedAnime());
+
+        Assertions.assertThat(animePage.isHasNext()).isFalse();
+        Assertions.assertThat(animePage.getNextCursor()).isNull();
+        Assertions.assertThat(animePage.getTotalElements()).isEqualTo(2L);
+
+        BDDMockito.verify(animeRepositoryMock).findByIdGreaterThanOrderByIdAsc(
+                ArgumentMatchers.eq(1L), ArgumentMatchers.any(PageRequest.class));
+    }
+
+    @Test
+    @DisplayName("listAllByCursor throws BadRequestException when cursor is not valid.")
+    void listAllByCursor_ThrowsBadRequestException_WhenCursorIsNotValid() {
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.listAllByCursor(CursorPageRequest.of("not a cursor", 1, true)))
+                .withMessage("Invalid cursor!");
+    }
+
     @Test
     @DisplayName("listAllNonPageable returns list of Animes when successful.")
     void listAllNonPageable_ReturnsListOfAnimes_WhenSuccessful() {
@@ -86,6 +181,23 @@ class AnimeServiceTest {
         Assertions.assertThat(animes.get(0).getName()).isEqualTo(expectedName);
     }
 
+    @Test
+    @DisplayName("streamAll hands every Anime to the consumer and detaches it when successful.")
+    void streamAll_HandsEveryAnimeToConsumerAndDetachesIt_WhenSuccessful() {
+        String expectedName = AnimeCreator.createValidAnime().getName();
+        List<Anime> animes = new ArrayList<>();
+
+        animeService.streamAll(animes::add);
+
+        Assertions.assertThat(animes)
+                .isNotEmpty()
+                .hasSize(1);
+
+        Assertions.assertThat(animes.get(0).getName()).isEqualTo(expectedName);
+
+        BDDMockito.verify(entityManagerMock).detach(animes.get(0));
+    }
+
     @Test
     @DisplayName("findByIdOrThrowBadRequestException returns Anime when successful.")
     void findByIdOrThrowBadRequestException_ReturnsAnime_WhenSuccessful() {
@@ -108,6 +220,54 @@ class AnimeServiceTest {
                 .isThrownBy(() -> animeService.findByIdOrThrowBadRequestException(1));
     }
 
+    @Test
+    @DisplayName("findByIdOrThrowBadRequestException reads the Database once when Anime is cached.")
+    void findByIdOrThrowBadRequestException_ReadsDatabaseOnce_WhenAnimeIsCached() {
+        animeService.findByIdOrThrowBadRequestException(1);
+        Anime anime = animeService.findByIdOrThrowBadRequestException(1);
+
+        Assertions.assertThat(anime).isEqualTo(AnimeCreator.createValidAnime());
+
+        BDDMockito.verify(animeRepositoryMock).findById(1L);
+    }
+
+    @Test
+    @DisplayName("findByIdOrThrowBadRequestException caches the miss when Anime is not found.")
+    void findByIdOrThrowBadRequestException_CachesMiss_WhenAnimeIsNotFound() {
+        BDDMockito.when(animeRepositoryMock.findById(ArgumentMatchers.anyLong()))
+                .thenReturn(Optional.empty());
+
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.findByIdOrThrowBadRequestException(1));
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.findByIdOrThrowBadRequestException(1));
+
+        BDDMockito.verify(animeRepositoryMock).findById(1L);
+    }
+
+    @Test
+    @DisplayName("findAllByIds returns Animes in request order and missing ids, loading only uncached ones.")
+    void findAllByIds_ReturnsAnimesInRequestOrderAndMissingIds_WhenSomeAreCachedOrMissing() {
+        Anime secondAnime = Anime.builder().id(2L).name("Second test").build();
+        BDDMockito.when(animeRepositoryMock.findAllById(ArgumentMatchers.any()))
+                .thenReturn(List.of(secondAnime));
+        animeService.findByIdOrThrowBadRequestException(1);
+
+        MultiGetResponse<Anime> animes = animeService.findAllByIds(List.of(3L, 1L, 2L, 1L));
+
+        Assertions.assertThat(animes.getContent()).containsExactly(AnimeCreator.createValidAnime(), secondAnime);
+        Assertions.assertThat(animes.getMissingIds()).containsExactly(3L);
+        BDDMockito.verify(animeRepositoryMock).findAllById(
+                ArgumentMatchers.argThat(ids -> Set.copyOf((Collection<Long>) ids).equals(Set.of(2L, 3L))));
+    }
+
+    @Test
+    @DisplayName("findAllByIds throws BadRequestException when no ids are given.")
+    void findAllByIds_ThrowsBadRequestException_WhenIdsAreEmpty() {
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.findAllByIds(List.of()));
+    }
+
     @Test
     @DisplayName("findByName returns a list of Animes when successful.")
     void findByName_ReturnsListOfAnimes_WhenSuccessful() {
@@ -136,12 +296,40 @@ class AnimeServiceTest {
                 .isEmpty();
     }
 
+    @Test
+    @DisplayName("findByNamePrefix throws BadRequestException when prefix is blank.")
+    void findByNamePrefix_ThrowsBadRequestException_WhenPrefixIsBlank() {
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.findByNamePrefix(" ", PageRequest.of(0, 5)));
+
+        BDDMockito.verifyNoInteractions(animeRepositoryMock);
+    }
+
+    @Test
+    @DisplayName("searchByName returns Animes in the order ranked by the index when successful.")
+    void searchByName_ReturnsAnimesInRankedOrder_WhenSuccessful() {
+        Anime anime = AnimeCreator.createValidAnime();
+        Anime updatedAnime = AnimeCreator.createValidUpdatedAnime();
+        updatedAnime.setId(2L);
+        BDDMockito.when(animeSearchIndexMock.search("hunter", PageRequest.of(0, 5)))
+                .thenReturn(new PageImpl<>(List.of(2L, 1L), PageRequest.of(0, 5), 2));
+        BDDMockito.when(animeRepositoryMock.findAllById(List.of(2L, 1L)))
+                .thenReturn(List.of(anime, updatedAnime));
+
+        Page<Anime> animePage = animeService.searchByName("hunter", PageRequest.of(0, 5));
+
+        Assertions.assertThat(animePage.getContent()).containsExactly(updatedAnime, anime);
+        Assertions.assertThat(animePage.getTotalElements()).isEqualTo(2);
+    }
+
     @Test
     @DisplayName("save returns Anime when successful.")
     void save_ReturnsAnime_WhenSuccessful() {
         Anime anime = animeService.save(AnimePostRequestBodyCreator.createAnimePostRequestBody());
 
         Assertions.assertThat(anime).isNotNull().isEqualTo(AnimeCreator.createValidAnime());
+
+        BDDMockito.verify(applicationEventPublisherMock).publishEvent(AnimeChangedEvent.created(anime.getId()));
     }
 
     @Test
@@ -151,6 +339,38 @@ class AnimeServiceTest {
         Assertions.assertThatCode(() -> animeService.replace(
                         AnimePutRequestBodyCreator.createAnimePutRequestBody()))
                 .doesNotThrowAnyException();
+
+        BDDMockito.verify(applicationEventPublisherMock).publishEvent(AnimeChangedEvent.updated(1L));
+        BDDMockito.verify(animeRepositoryMock, BDDMockito.never()).findById(ArgumentMatchers.anyLong());
+    }
+
+    @Test
+    @DisplayName("replace throws BadRequestException when Anime is not found.")
+    void replace_ThrowsBadRequestException_WhenAnimeIsNotFound() {
+        BDDMockito.when(animeRepositoryMock.updateName(ArgumentMatchers.anyLong(), ArgumentMatchers.anyString()))
+                .thenReturn(0);
+
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody()));
+
+        BDDMockito.verifyNoInteractions(applicationEventPublisherMock);
+    }
+
+    @Test
+    @DisplayName("replace throws ConflictException when Anime version is stale.")
+    void replace_ThrowsConflictException_WhenAnimeVersionIsStale() {
+        AnimePutRequestBody animePutRequestBody = AnimePutRequestBodyCreator.createAnimePutRequestBody();
+        animePutRequestBody.setVersion(0L);
+        BDDMockito.when(animeRepositoryMock.updateNameIfVersionMatches(ArgumentMatchers.anyLong(),
+                        ArgumentMatchers.anyString(), ArgumentMatchers.anyLong()))
+                .thenReturn(0);
+        BDDMockito.when(animeRepositoryMock.existsById(ArgumentMatchers.anyLong()))
+                .thenReturn(true);
+
+        Assertions.assertThatExceptionOfType(ConflictException.class)
+                .isThrownBy(() -> animeService.replace(animePutRequestBody));
+
+        BDDMockito.verifyNoInteractions(applicationEventPublisherMock);
     }
 
     @Test
@@ -159,6 +379,21 @@ class AnimeServiceTest {
 
         Assertions.assertThatCode(() -> animeService.delete(1))
                 .doesNotThrowAnyException();
+
+        BDDMockito.verify(applicationEventPublisherMock).publishEvent(AnimeChangedEvent.deleted(1L));
+        BDDMockito.verify(animeRepositoryMock, BDDMockito.never()).findById(ArgumentMatchers.anyLong());
+    }
+
+    @Test
+    @DisplayName("delete throws BadRequestException when Anime is not found.")
+    void delete_ThrowsBadRequestException_WhenAnimeIsNotFound() {
+        BDDMockito.when(animeRepositoryMock.deleteAnime(ArgumentMatchers.anyLong()))
+                .thenReturn(0);
+
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.delete(1));
+
+        BDDMockito.verifyNoInteractions(applicationEventPublisherMock);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.mystudies.springboot2essentials.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mystudies.springboot2essentials.exception.ExceptionDetails;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+@DisplayName("Tests for Cached Clock")
+class CachedClockTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    @DisplayName("now returns the current time to the millisecond.")
+    void now_ReturnsCurrentTimeToTheMillisecond_WhenSuccessful() {
+        LocalDateTime before = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+        LocalDateTime now = CachedClock.now();
+
+        Assertions.assertThat(now).isBetween(before, LocalDateTime.now());
+        Assertions.assertThat(now.getNano() % 1_000_000).isZero();
+    }
+
+    @Test
+    @DisplayName("TimestampSerializer writes the same text as Jackson for current and other timestamps.")
+    void timestampSerializer_WritesSameTextAsJackson_WhenTimestampIsCurrentOrNot() throws Exception {
+        LocalDateTime current = CachedClock.now();
+        LocalDateTime other = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+        Assertions.assertThat(timestampOf(current)).isEqualTo(objectMapper.writeValueAsString(current));
+        Assertions.assertThat(timestampOf(other)).isEqualTo("\"2024-01-01T12:00:00\"");
+    }
+
+    private String timestampOf(LocalDateTime timestamp) throws Exception {
+        ExceptionDetails exceptionDetails = ExceptionDetails.builder().timestamp(timestamp).build();
+        return objectMapper.readTree(objectMapper.writeValueAsString(exceptionDetails)).get("timestamp").toString();
+    }
+}
@@ -0,0 +1,17 @@
+create table if not exists anime (
+    id bigint auto_increment primary key,
+    name varchar(255),
+    version bigint not null default 0
+);
+
+create index if not exists idx_anime_name on anime (name);
+
+create table if not exists user_info (
+    id bigint auto_increment primary key,
+    authorities varchar(255),
+    name varchar(255),
+    password varchar(255),
+    username varchar(255)
+);
+
+create index if not exists idx_user_info_username on user_info (username);